@@ -1,9 +1,9 @@
 package com.mikesgrill.backend;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -22,14 +22,12 @@ import org.springframework.web.bind.annotation.RestController;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/admin")
 public class AdminController {
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
-
     private SecurityContextRepository securityContextRepository =
             new HttpSessionSecurityContextRepository();
 
@@ -39,22 +37,51 @@ public class AdminController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private LoginBulkhead loginBulkhead;
+
+    @Autowired
+    private AuthTokenService authTokenService;
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request, HttpServletResponse response) {
+        long retryAfter = loginThrottle.tryAcquire(request.getRemoteAddr(), loginRequest.getUsername());
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
+        }
         UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword());
         try {
-            Authentication authentication = authenticationManager.authenticate(token);
-            SecurityContext context = SecurityContextHolder.createEmptyContext();
-            context.setAuthentication(authentication);
-            SecurityContextHolder.setContext(context);
-            securityContextRepository.saveContext(context, request, response);
+            Authentication authentication = loginBulkhead.authenticate(token);
+            if (authTokenService.isEnabled()) {
+                response.addHeader(HttpHeaders.SET_COOKIE,
+                        authTokenService.issueCookie(authentication.getName(), request.isSecure()).toString());
+            } else {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+                securityContextRepository.saveContext(context, request, response);
+            }
 
             return ResponseEntity.ok().body("{\"message\": \"Login successful\"}");
+        } catch (RejectedExecutionException e) {
+            return tooManyAttempts(1);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("{\"error\": \"Invalid credentials\"}");
         }
     }
 
+    private ResponseEntity<?> tooManyAttempts(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body("{\"error\": \"Too many login attempts, please try again later\"}");
+    }
+
     @GetMapping("/users")
     public ResponseEntity<List<AdminUser>> getAllUsers() {
         return ResponseEntity.ok(adminUserRepository.findAll());
@@ -68,15 +95,18 @@ public class AdminController {
         String hashedPassword = passwordEncoder.encode(createAdminRequest.getPassword());
         AdminUser newUser = new AdminUser(createAdminRequest.getUsername(), hashedPassword);
         adminUserRepository.save(newUser);
+        userDetailsService.evict(newUser.getUsername());
         return ResponseEntity.status(HttpStatus.CREATED).body(newUser);
     }
 
     @DeleteMapping("/users/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
-        if (adminUserRepository.existsById(id)) {
-            adminUserRepository.deleteById(id);
-            return ResponseEntity.ok().build();
-        }
-        return ResponseEntity.notFound().build();
+        return adminUserRepository.findById(id)
+                .<ResponseEntity<?>>map(user -> {
+                    adminUserRepository.delete(user);
+                    userDetailsService.evict(user.getUsername());
+                    return ResponseEntity.ok().build();
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
 }
@@ -14,12 +14,20 @@ public class AdminMenuController {
     @Autowired
     private MenuItemService menuItemService;
 
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
     @GetMapping
     public ResponseEntity<List<MenuItem>> getAllMenuItems() {
         List<MenuItem> menuItems = menuItemService.getAllMenuItems();
         return ResponseEntity.ok(menuItems);
     }
 
+    @GetMapping("/snapshot-stats")
+    public ResponseEntity<MenuSnapshotStats> getSnapshotStats() {
+        return ResponseEntity.ok(menuSnapshotService.getStats());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MenuItem> getMenuItemById(@PathVariable Long id) {
         Optional<MenuItem> menuItem = menuItemService.getMenuItemById(id);
@@ -48,6 +56,20 @@ public class AdminMenuController {
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Creates, updates and deletes many items in one transaction (see
+     * {@link MenuItemService#applyBulk}).
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<Object> applyBulk(@RequestBody BulkRequest<MenuItem> request) {
+        if (request.getOperations() == null || request.getOperations().size() > BulkRequest.MAX_OPERATIONS) {
+            return ResponseEntity.badRequest()
+                    .body("{\"error\": \"Between 0 and " + BulkRequest.MAX_OPERATIONS + " operations per request\"}");
+        }
+        BulkResponse response = menuItemService.applyBulk(request.getOperations());
+        return ResponseEntity.status(response.httpStatus()).body(response);
+    }
+
     @GetMapping("/category/{id}")
     public ResponseEntity<List<MenuItem>> getMenuItemsByCategory(@PathVariable Long id) {
         List<MenuItem> menuItems = menuItemService.getMenuItemsByCategoryId(id);
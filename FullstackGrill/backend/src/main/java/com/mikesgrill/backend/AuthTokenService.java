@@ -0,0 +1,193 @@
+package com.mikesgrill.backend;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signed admin session cookies for {@code auth.mode=token}, where any
+ * instance can authenticate a request without a server-side session.
+ *
+ * <p>A token is {@code kid.user.expires.id.signature}, signed with
+ * HMAC-SHA256 under the key named by {@code kid}. {@code auth.token.keys}
+ * lists {@code kid:base64-secret} pairs; the first one signs new tokens and
+ * the rest are only accepted, so a key can be rotated by putting the new
+ * one first and dropping the old one once its tokens have expired.
+ * Logging out puts the token id on an in-memory deny list until the token
+ * would have expired anyway. The list is per instance, which is why
+ * tokens are short lived.
+ */
+@Component
+public class AuthTokenService {
+
+    public static final String COOKIE_NAME = "MG_AUTH";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Map<String, SecretKeySpec> keys = new LinkedHashMap<>();
+    private final String signingKeyId;
+    private final Map<String, Long> denied = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    public AuthTokenService(@Value("${auth.mode:session}") String mode,
+                            @Value("${auth.token.keys:}") String keyList,
+                            @Value("${auth.token.ttl:PT8H}") Duration ttl) {
+        this.enabled = mode.equalsIgnoreCase("token");
+        this.ttl = ttl;
+        for (String entry : keyList.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            String keyId = colon > 0 ? entry.substring(0, colon).trim() : "";
+            if (!keyId.matches("[A-Za-z0-9_-]+")) {
+                throw new IllegalStateException("auth.token.keys entries must look like <kid>:<base64 secret>");
+            }
+            byte[] secret = Base64.getDecoder().decode(entry.substring(colon + 1).trim());
+            if (secret.length < MIN_KEY_BYTES) {
+                throw new IllegalStateException("auth.token key " + keyId + " must be at least 32 bytes");
+            }
+            keys.put(keyId, new SecretKeySpec(secret, ALGORITHM));
+        }
+        if (enabled && keys.isEmpty()) {
+            throw new IllegalStateException("auth.token.keys must be set when auth.mode=token");
+        }
+        this.signingKeyId = keys.isEmpty() ? null : keys.keySet().iterator().next();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ResponseCookie issueCookie(String username, boolean secure) {
+        byte[] id = new byte[16];
+        random.nextBytes(id);
+        long expiresAt = Instant.now().plus(ttl).getEpochSecond();
+        String unsigned = signingKeyId + "." + encode(username.getBytes(StandardCharsets.UTF_8)) + "." + expiresAt
+                + "." + encode(id);
+        String token = unsigned + "." + encode(sign(keys.get(signingKeyId), unsigned));
+        return cookie(token, ttl, secure);
+    }
+
+    /**
+     * Returns the username of a valid, unexpired and unrevoked token cookie.
+     */
+    public Optional<String> authenticate(HttpServletRequest request) {
+        return readToken(request).filter(token -> !denied.containsKey(token.id)).map(token -> token.username);
+    }
+
+    /**
+     * Logout handler: revokes the presented token and clears the cookie.
+     */
+    public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        if (!enabled) {
+            return;
+        }
+        readToken(request).ifPresent(token -> revoke(token.id, token.expiresAt));
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie("", Duration.ZERO, request.isSecure()).toString());
+    }
+
+    private void revoke(String tokenId, long expiresAt) {
+        denied.put(tokenId, expiresAt);
+        if (denied.size() > 1024) {
+            long now = Instant.now().getEpochSecond();
+            denied.values().removeIf(expiry -> expiry < now);
+        }
+    }
+
+    private Optional<Token> readToken(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (!enabled || cookies == null) {
+            return Optional.empty();
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return parse(cookie.getValue());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Token> parse(String value) {
+        String[] parts = value.split("\\.");
+        if (parts.length != 5) {
+            return Optional.empty();
+        }
+        SecretKeySpec key = keys.get(parts[0]);
+        if (key == null) {
+            return Optional.empty();
+        }
+        try {
+            String unsigned = value.substring(0, value.lastIndexOf('.'));
+            if (!MessageDigest.isEqual(sign(key, unsigned), Base64.getUrlDecoder().decode(parts[4]))) {
+                return Optional.empty();
+            }
+            long expiresAt = Long.parseLong(parts[2]);
+            if (expiresAt <= Instant.now().getEpochSecond()) {
+                return Optional.empty();
+            }
+            String username = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+            return Optional.of(new Token(username, expiresAt, parts[3]));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private ResponseCookie cookie(String value, Duration maxAge, boolean secure) {
+        return ResponseCookie.from(COOKIE_NAME, value)
+                .httpOnly(true)
+                .secure(secure)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(maxAge)
+                .build();
+    }
+
+    private static byte[] sign(SecretKeySpec key, String data) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign auth token", e);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static final class Token {
+        private final String username;
+        private final long expiresAt;
+        private final String id;
+
+        private Token(String username, long expiresAt, String id) {
+            this.username = username;
+            this.expiresAt = expiresAt;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.mikesgrill.backend;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the counters the backend already keeps (SQL statements, the
+ * contact queue, the menu snapshot, change event streams and the stale-data
+ * flag) as meters.
+ * Hikari and {@code http.server.requests} are instrumented by Spring Boot.
+ */
+@Component
+public class BackendMetrics implements MeterBinder {
+
+    private final SqlStatementCounter statementCounter;
+    private final ContactSubmissionQueue contactQueue;
+    private final MenuSnapshotService menuSnapshotService;
+    private final PublicDataSnapshotStore snapshotStore;
+    private final ChangeBroadcaster changeBroadcaster;
+
+    public BackendMetrics(SqlStatementCounter statementCounter, ContactSubmissionQueue contactQueue,
+                          MenuSnapshotService menuSnapshotService, PublicDataSnapshotStore snapshotStore,
+                          ChangeBroadcaster changeBroadcaster) {
+        this.statementCounter = statementCounter;
+        this.contactQueue = contactQueue;
+        this.menuSnapshotService = menuSnapshotService;
+        this.snapshotStore = snapshotStore;
+        this.changeBroadcaster = changeBroadcaster;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jpa.statements", statementCounter, SqlStatementCounter::getTotal)
+                .description("SQL statements prepared by Hibernate")
+                .register(registry);
+
+        FunctionCounter.builder("contact.queue.persisted", contactQueue, queue -> queue.getStats().getPersisted())
+                .description("Contact submissions written to the database by the write-behind queue")
+                .register(registry);
+        FunctionCounter.builder("contact.queue.dead-lettered", contactQueue,
+                        queue -> queue.getStats().getDeadLettered())
+                .description("Contact submissions the database rejected, moved to the dead-letter file")
+                .register(registry);
+        FunctionCounter.builder("contact.queue.batches", contactQueue, queue -> queue.getStats().getBatches())
+                .register(registry);
+        Gauge.builder("contact.queue.depth", contactQueue, queue -> queue.getStats().getDepth())
+                .description("Contact submissions accepted but not yet persisted")
+                .register(registry);
+
+        FunctionCounter.builder("menu.snapshot.rebuilds", menuSnapshotService,
+                        service -> service.getStats().getRebuilds())
+                .register(registry);
+        FunctionCounter.builder("menu.snapshot.reads", menuSnapshotService, service -> service.getStats().getHits())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("menu.snapshot.reads", menuSnapshotService, service -> service.getStats().getMisses())
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("menu.snapshot.version", menuSnapshotService, service -> service.getStats().getVersion())
+                .register(registry);
+
+        Gauge.builder("events.subscribers", changeBroadcaster, ChangeBroadcaster::getSubscriberCount)
+                .description("Open change event streams")
+                .register(registry);
+        FunctionCounter.builder("events.dropped", changeBroadcaster, ChangeBroadcaster::getDroppedCount)
+                .description("Event streams closed for falling too far behind or stalling a write")
+                .register(registry);
+        Gauge.builder("events.stalled-senders", changeBroadcaster, ChangeBroadcaster::getStalledSenderCount)
+                .description("Sender threads stuck writing to dropped clients")
+                .register(registry);
+
+        Gauge.builder("public.data.stale", snapshotStore, store -> store.isServingStale() ? 1 : 0)
+                .description("1 while public reads are served from the local snapshot")
+                .register(registry);
+    }
+}
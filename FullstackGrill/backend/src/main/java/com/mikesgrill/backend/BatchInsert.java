@@ -0,0 +1,138 @@
+package com.mikesgrill.backend;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.mapping.JdbcMapping;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Multi-row INSERT as one JDBC batch, assigning the generated ids to the rows.
+ * Hibernate never batches inserts into IDENTITY columns, and the
+ * batch-friendly generators (table or emulated sequence) fetch id blocks on
+ * a second connection the single-connection pool doesn't have, so seeders
+ * and bulk creates insert through here. It joins the surrounding
+ * transaction like any JdbcTemplate call.
+ *
+ * <p>The statement is built from the entity's Hibernate mapping: every
+ * insertable column, bound with the same JDBC binder Hibernate uses, so a
+ * column added to an entity is written here without further changes.
+ */
+@Component
+public class BatchInsert {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Map<Class<?>, EntityInsert> inserts = new ConcurrentHashMap<>();
+
+    public BatchInsert(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Inserts the rows and sets their ids, which are also returned in row order.
+     */
+    public <T> List<Long> insert(Class<T> type, List<T> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        EntityInsert insert = inserts.computeIfAbsent(type, this::describe);
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(insert.sql(), Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        insert.bind(statement, rows.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keys);
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Map<String, Object> key : keys.getKeyList()) {
+            // MySQL names the column GENERATED_KEY, H2 uses the column name
+            ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            insert.persister().setIdentifier(rows.get(i), ids.get(i), null);
+        }
+        return ids;
+    }
+
+    /** The INSERT statement used for {@code type}. */
+    String sql(Class<?> type) {
+        return inserts.computeIfAbsent(type, this::describe).sql();
+    }
+
+    private EntityInsert describe(Class<?> type) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister descriptor = sessionFactory.getMappingMetamodel().getEntityDescriptor(type);
+        if (!(descriptor instanceof AbstractEntityPersister persister) || persister.getTableNames().length != 1) {
+            throw new IllegalArgumentException(type.getName() + " is not mapped to a single table");
+        }
+
+        StringJoiner columns = new StringJoiner(", ");
+        StringJoiner values = new StringJoiner(", ");
+        List<Column> bound = new ArrayList<>();
+        boolean[] insertable = persister.getPropertyInsertability();
+        Type[] types = persister.getPropertyTypes();
+        for (int i = 0; i < insertable.length; i++) {
+            if (!insertable[i]) {
+                continue;
+            }
+            String[] names = persister.getPropertyColumnNames(i);
+            if (names.length != 1) {
+                throw new IllegalArgumentException(type.getName() + "." + persister.getPropertyNames()[i]
+                        + " does not map to a single column");
+            }
+            columns.add(names[0]);
+            values.add("?");
+            bound.add(new Column(i, persister.getAttributeMapping(i).getSingleJdbcMapping(),
+                    types[i].isEntityType()));
+        }
+        String sql = "insert into " + persister.getTableName() + " (" + columns + ") values (" + values + ")";
+        return new EntityInsert(persister, sql, List.copyOf(bound), sessionFactory.getWrapperOptions(),
+                sessionFactory);
+    }
+
+    private record Column(int property, JdbcMapping mapping, boolean association) {
+    }
+
+    private record EntityInsert(AbstractEntityPersister persister, String sql, List<Column> columns,
+                                WrapperOptions options, SessionFactoryImplementor sessionFactory) {
+
+        @SuppressWarnings("unchecked")
+        void bind(PreparedStatement statement, Object row) throws SQLException {
+            for (int i = 0; i < columns.size(); i++) {
+                Column column = columns.get(i);
+                Object value = persister.getPropertyValue(row, column.property());
+                if (column.association() && value != null) {
+                    // The foreign key column holds the associated row's id
+                    value = sessionFactory.getPersistenceUnitUtil().getIdentifier(value);
+                }
+                column.mapping().getJdbcValueBinder()
+                        .bind(statement, column.mapping().convertToRelationalValue(value), i + 1, options);
+            }
+        }
+    }
+}
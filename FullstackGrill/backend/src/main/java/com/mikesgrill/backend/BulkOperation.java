@@ -0,0 +1,49 @@
+package com.mikesgrill.backend;
+
+/**
+ * One entry of a bulk request: {@code op} is create, update or delete;
+ * {@code id} names the row for update and delete; {@code value} carries the
+ * fields for create and update.
+ */
+public class BulkOperation<T> {
+    public static final String CREATE = "create";
+    public static final String UPDATE = "update";
+    public static final String DELETE = "delete";
+
+    private String op;
+    private Long id;
+    private T value;
+
+    public BulkOperation() {
+    }
+
+    public BulkOperation(String op, Long id, T value) {
+        this.op = op;
+        this.id = id;
+        this.value = value;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public void setValue(T value) {
+        this.value = value;
+    }
+}
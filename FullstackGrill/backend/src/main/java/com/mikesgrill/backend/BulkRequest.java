@@ -0,0 +1,29 @@
+package com.mikesgrill.backend;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkRequest<T> {
+    public static final int MAX_OPERATIONS = 500;
+
+    private List<BulkOperation<T>> operations = new ArrayList<>();
+
+    // Categories only: ids in their new display order
+    private List<Long> order;
+
+    public List<BulkOperation<T>> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<BulkOperation<T>> operations) {
+        this.operations = operations;
+    }
+
+    public List<Long> getOrder() {
+        return order;
+    }
+
+    public void setOrder(List<Long> order) {
+        this.order = order;
+    }
+}
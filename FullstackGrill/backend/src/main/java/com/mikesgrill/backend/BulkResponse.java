@@ -0,0 +1,35 @@
+package com.mikesgrill.backend;
+
+import java.util.List;
+
+/**
+ * Bulk requests are all or nothing: {@code applied} is false when any
+ * operation failed, and then nothing was written.
+ */
+public class BulkResponse {
+    private final boolean applied;
+    private final List<BulkResult> results;
+
+    public BulkResponse(boolean applied, List<BulkResult> results) {
+        this.applied = applied;
+        this.results = results;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public List<BulkResult> getResults() {
+        return results;
+    }
+
+    /**
+     * 200 when applied, otherwise the status of the first failed operation.
+     */
+    public int httpStatus() {
+        if (applied) {
+            return 200;
+        }
+        return results.stream().filter(BulkResult::failed).mapToInt(BulkResult::getStatus).findFirst().orElse(400);
+    }
+}
@@ -0,0 +1,50 @@
+package com.mikesgrill.backend;
+
+/**
+ * Outcome of one bulk operation, with an HTTP-style status: 201 created,
+ * 200 updated, 204 deleted, or 400/404/409 for the operation that stopped
+ * the batch.
+ */
+public class BulkResult {
+    private final int index;
+    private final String op;
+    private Long id;
+    private final int status;
+    private final String error;
+
+    public BulkResult(int index, String op, Long id, int status, String error) {
+        this.index = index;
+        this.op = op;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    void setId(Long id) {
+        this.id = id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    boolean failed() {
+        return status >= 400;
+    }
+}
@@ -0,0 +1,375 @@
+package com.mikesgrill.backend;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes every {@link ContentChangedEvent} to Server-Sent Events subscribers
+ * as a compact {@code change} event: entity type, id and the resource's new
+ * version. Idle subscribers hold no thread; publishing only appends to each
+ * subscriber's bounded queue, and a small pool writes the queues out. A
+ * subscriber that falls a whole ring behind is disconnected and gets a reset
+ * when it reconnects.
+ *
+ * <p>Servlet writes block, so a client that stops reading pins the sender
+ * thread writing to it until the container's write timeout. A watchdog
+ * drops any subscriber whose write has taken longer than the send timeout
+ * and adds a sender thread in place of the stuck one, so the other
+ * subscribers keep the full pool; the extra thread goes away once the
+ * stuck write fails.
+ *
+ * <p>The last events are kept in a ring buffer, so a client reconnecting with
+ * {@code Last-Event-ID} gets what it missed. When its id is from another JVM
+ * run or has already left the buffer it gets a {@code reset} event instead
+ * and should refetch everything.
+ */
+@Component
+public class ChangeBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeBroadcaster.class);
+
+    private static final Event HEARTBEAT = new Event(0, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final long reconnectMillis;
+    private final long sendTimeoutNanos;
+    private final int senderThreads;
+    private final int maxStalledSenders;
+
+    // Ids are "epoch.sequence" so ids from a previous run never replay
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ReentrantLock ringLock = new ReentrantLock();
+    private final Event[] ring;
+    private long lastSequence;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final ThreadPoolExecutor senders;
+    // Heartbeats and the stalled-send check; never writes, so it can't be stalled itself
+    private final ScheduledExecutorService watchdog;
+    private final ReentrantLock poolLock = new ReentrantLock();
+    private int stalledSenders;
+
+    public ChangeBroadcaster(ObjectMapper objectMapper,
+                             @Value("${events.ring-size:256}") int ringSize,
+                             @Value("${events.max-subscribers:5000}") int maxSubscribers,
+                             @Value("${events.heartbeat-ms:20000}") long heartbeatMillis,
+                             @Value("${events.timeout-ms:1800000}") long timeoutMillis,
+                             @Value("${events.reconnect-ms:3000}") long reconnectMillis,
+                             @Value("${events.sender-threads:2}") int senderThreads,
+                             @Value("${events.send-timeout-ms:5000}") long sendTimeoutMillis,
+                             @Value("${events.max-stalled-senders:64}") int maxStalledSenders) {
+        this.objectMapper = objectMapper;
+        this.ring = new Event[ringSize];
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        this.reconnectMillis = reconnectMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.senderThreads = senderThreads;
+        this.maxStalledSenders = maxStalledSenders;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "sse-sender-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long checkMillis = Math.max(10, Math.min(1000, sendTimeoutMillis / 2));
+        watchdog.scheduleWithFixedDelay(this::dropStalled, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener
+    public void onContentChanged(ContentChangedEvent event) {
+        Map<String, Object> change = new LinkedHashMap<>();
+        change.put("type", event.getEntityType());
+        change.put("id", event.getEntityId());
+        change.put("version", event.getVersion());
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+
+        List<Subscriber> toSend = new ArrayList<>();
+        List<Subscriber> toDrop = new ArrayList<>();
+        ringLock.lock();
+        try {
+            Event published = new Event(++lastSequence, "change", data);
+            ring[(int) (published.sequence % ring.length)] = published;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.pending.offer(published)) {
+                    toSend.add(subscriber);
+                } else {
+                    toDrop.add(subscriber);
+                }
+            }
+        } finally {
+            ringLock.unlock();
+        }
+        toSend.forEach(this::scheduleSend);
+        toDrop.forEach(this::drop);
+    }
+
+    /**
+     * Registers a subscriber, queueing whatever it missed since
+     * {@code lastEventId}. Returns null when at the subscriber limit.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        return subscribe(lastEventId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(ring.length));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        ringLock.lock();
+        try {
+            Long from = parseSequence(lastEventId);
+            long oldest = Math.max(1, lastSequence - ring.length + 1);
+            if (lastEventId == null) {
+                subscriber.pending.add(new Event(lastSequence, "hello", "{}"));
+            } else if (from == null || from > lastSequence || from + 1 < oldest) {
+                subscriber.pending.add(new Event(lastSequence, "reset", "{}"));
+            } else {
+                for (long sequence = from + 1; sequence <= lastSequence; sequence++) {
+                    subscriber.pending.add(ring[(int) (sequence % ring.length)]);
+                }
+            }
+            subscribers.add(subscriber);
+        } finally {
+            ringLock.unlock();
+        }
+        scheduleSend(subscriber);
+        return emitter;
+    }
+
+    private Long parseSequence(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+        int dot = lastEventId.indexOf('.');
+        if (dot < 0 || !lastEventId.substring(0, dot).equals(epoch)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dot + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A comment line every so often keeps proxies from closing idle streams
+     * and lets the server notice clients that went away.
+     */
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.pending.offer(HEARTBEAT)) {
+                scheduleSend(subscriber);
+            }
+        }
+    }
+
+    private void scheduleSend(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> send(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.sending.set(false);
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            Event event;
+            while (!subscriber.closing && (event = subscriber.pending.poll()) != null) {
+                subscriber.sendStartedAt = System.nanoTime();
+                if (event == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                            .id(epoch + "." + event.sequence)
+                            .name(event.name);
+                    if (!"change".equals(event.name)) {
+                        builder.reconnectTime(reconnectMillis);
+                    }
+                    subscriber.emitter.send(builder.data(event.data));
+                }
+                subscriber.sendStartedAt = 0;
+            }
+            if (subscriber.closing && subscriber.completed.compareAndSet(false, true)) {
+                subscriber.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container completes the emitter
+            subscribers.remove(subscriber);
+            subscriber.pending.clear();
+        } finally {
+            subscriber.sendStartedAt = 0;
+            subscriber.sending.set(false);
+            if (subscriber.stalled.get()) {
+                releaseStalledSender();
+            }
+        }
+        if (subscriber.closing ? !subscriber.completed.get()
+                : !subscriber.pending.isEmpty() && subscribers.contains(subscriber)) {
+            scheduleSend(subscriber);
+        }
+    }
+
+    /**
+     * Completes on a sender thread, after any write in progress; the emitter
+     * is locked while a write to a slow client is under way, and publishing
+     * must not wait for that.
+     */
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            dropped.incrementAndGet();
+            subscriber.pending.clear();
+            subscriber.closing = true;
+            scheduleSend(subscriber);
+        }
+    }
+
+    /**
+     * Drops subscribers whose current write is past the send timeout and
+     * gives the pool a thread in place of each one stuck writing to them.
+     */
+    private void dropStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedAt;
+            if (started == 0 || now - started < sendTimeoutNanos || !subscriber.stalled.compareAndSet(false, true)) {
+                continue;
+            }
+            log.debug("Dropping an event stream subscriber whose write has been blocked for {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(now - started));
+            drop(subscriber);
+            poolLock.lock();
+            try {
+                if (stalledSenders < maxStalledSenders) {
+                    stalledSenders++;
+                    resizeSenders();
+                } else {
+                    log.warn("{} event stream senders are stuck on stalled clients; not adding more", stalledSenders);
+                }
+            } finally {
+                poolLock.unlock();
+            }
+        }
+    }
+
+    private void releaseStalledSender() {
+        poolLock.lock();
+        try {
+            if (stalledSenders > 0) {
+                stalledSenders--;
+                resizeSenders();
+            }
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    private void resizeSenders() {
+        int size = senderThreads + stalledSenders;
+        // The maximum can never be set below the core size, so order matters
+        if (size > senders.getMaximumPoolSize()) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public int getDroppedCount() {
+        return dropped.get();
+    }
+
+    /** Sender threads currently stuck writing to dropped, stalled clients. */
+    public int getStalledSenderCount() {
+        poolLock.lock();
+        try {
+            return stalledSenders;
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        watchdog.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        log.debug("Closed {} event stream subscribers", subscribers.size());
+        subscribers.clear();
+    }
+
+    private record Event(long sequence, String name, String data) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Event> pending;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // Set only by the watchdog; the sender thread writing to it is stuck
+        private final AtomicBoolean stalled = new AtomicBoolean();
+        // System.nanoTime() when the write in progress began, 0 between writes
+        private volatile long sendStartedAt;
+        private volatile boolean closing;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Queue<Event> pending) {
+            this.emitter = emitter;
+            this.pending = pending;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.mikesgrill.backend;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+public class ChangeEventsController {
+
+    private final ChangeBroadcaster changeBroadcaster;
+
+    public ChangeEventsController(ChangeBroadcaster changeBroadcaster) {
+        this.changeBroadcaster = changeBroadcaster;
+    }
+
+    /**
+     * Stream of content changes (see {@link ChangeBroadcaster}). Browsers
+     * resend {@code Last-Event-ID} on reconnect by themselves.
+     */
+    @GetMapping(value = "/api/public/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Object> subscribe(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = changeBroadcaster.subscribe(lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("{\"error\": \"Too many event stream subscribers\"}");
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // Tells nginx-style proxies not to buffer the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
@@ -0,0 +1,333 @@
+package com.mikesgrill.backend;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar binary form of the public menu for kiosks and menu boards that
+ * poll /api/public/menu. Each category is written once in a dictionary and
+ * items refer to it by index; prices are integer cents, and each item field
+ * is one column so similar values sit together and gzip well.
+ *
+ * <p>Layout, where a varint is unsigned LEB128, a svarint is a zigzag varint,
+ * and a nullable value is written as 0 for null or the value plus one:
+ * <pre>
+ * magic "MGM" + format version (1)
+ * varint   snapshot version
+ * varint   category count, then per category:
+ *          svarint id, string name, nullable svarint sort order
+ * varint   item count n, then n of each column in order:
+ *          svarint id, as the difference from the previous id
+ *          varint category index + 1 (0 for none)
+ *          nullable svarint price in cents
+ *          ceil(n / 8) bytes of featured flags, lowest bit first
+ *          string name, string description, string image url,
+ *          string image placeholder
+ *          nullable svarint image width, nullable svarint image height
+ * </pre>
+ * A string is a nullable varint byte length followed by UTF-8.
+ */
+public final class CompactMenuCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.mikesgrill.menu-compact";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private static final byte[] MAGIC = {'M', 'G', 'M', 1};
+
+    private CompactMenuCodec() {
+    }
+
+    /**
+     * Encodes the snapshot's categories and items. Prices are rounded to the
+     * cent, which is all the admin form accepts.
+     */
+    public static byte[] encode(MenuSnapshot snapshot) {
+        List<MenuItem> items = snapshot.getItems();
+        Map<Long, Integer> categoryIndex = new LinkedHashMap<>();
+        List<MenuCategory> dictionary = new ArrayList<>();
+        for (MenuCategory category : snapshot.getCategories()) {
+            addCategory(category, categoryIndex, dictionary);
+        }
+        for (MenuItem item : items) {
+            if (item.getCategory() != null) {
+                addCategory(item.getCategory(), categoryIndex, dictionary);
+            }
+        }
+
+        Output out = new Output(64 + items.size() * 48);
+        out.bytes(MAGIC);
+        out.varint(snapshot.getVersion());
+        out.varint(dictionary.size());
+        for (MenuCategory category : dictionary) {
+            out.svarint(category.getId());
+            out.string(category.getName());
+            out.nullableSvarint(category.getSortOrder() == null ? null : category.getSortOrder().longValue());
+        }
+
+        int count = items.size();
+        out.varint(count);
+        long previousId = 0;
+        for (MenuItem item : items) {
+            long id = item.getId() == null ? 0 : item.getId();
+            out.svarint(id - previousId);
+            previousId = id;
+        }
+        for (MenuItem item : items) {
+            out.varint(item.getCategory() == null ? 0 : categoryIndex.get(item.getCategory().getId()) + 1);
+        }
+        for (MenuItem item : items) {
+            out.nullableSvarint(item.getPrice() == null ? null : Math.round(item.getPrice() * 100));
+        }
+        byte[] featured = new byte[(count + 7) / 8];
+        for (int i = 0; i < count; i++) {
+            if (items.get(i).isFeatured()) {
+                featured[i >> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        out.bytes(featured);
+        for (MenuItem item : items) {
+            out.string(item.getName());
+        }
+        for (MenuItem item : items) {
+            out.string(item.getDescription());
+        }
+        for (MenuItem item : items) {
+            out.string(item.getImageUrl());
+        }
+        for (MenuItem item : items) {
+            out.string(item.getImagePlaceholder());
+        }
+        for (MenuItem item : items) {
+            out.nullableSvarint(item.getImageWidth() == null ? null : item.getImageWidth().longValue());
+        }
+        for (MenuItem item : items) {
+            out.nullableSvarint(item.getImageHeight() == null ? null : item.getImageHeight().longValue());
+        }
+        return out.toByteArray();
+    }
+
+    private static void addCategory(MenuCategory category, Map<Long, Integer> index, List<MenuCategory> dictionary) {
+        if (!index.containsKey(category.getId())) {
+            index.put(category.getId(), dictionary.size());
+            dictionary.add(category);
+        }
+    }
+
+    /**
+     * Reads a body written by {@link #encode} back into a snapshot.
+     *
+     * @throws IllegalArgumentException if the bytes are not a compact menu
+     */
+    public static MenuSnapshot decode(byte[] data) {
+        Input in = new Input(data);
+        if (data.length < MAGIC.length || !Arrays.equals(data, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new IllegalArgumentException("Not a compact menu");
+        }
+        in.position = MAGIC.length;
+        long version = in.varint();
+
+        int categoryCount = in.count();
+        List<MenuCategory> categories = new ArrayList<>(categoryCount);
+        for (int i = 0; i < categoryCount; i++) {
+            long id = in.svarint();
+            String name = in.string();
+            Long sortOrder = in.nullableSvarint();
+            MenuCategory category = new MenuCategory(name, sortOrder == null ? null : sortOrder.intValue());
+            category.setId(id);
+            categories.add(category);
+        }
+
+        int count = in.count();
+        List<MenuItem> items = new ArrayList<>(count);
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            MenuItem item = new MenuItem();
+            id += in.svarint();
+            item.setId(id);
+            items.add(item);
+        }
+        for (MenuItem item : items) {
+            long index = in.varint();
+            if (index > categories.size()) {
+                throw new IllegalArgumentException("Unknown category index " + (index - 1));
+            }
+            item.setCategory(index == 0 ? null : categories.get((int) index - 1));
+        }
+        for (MenuItem item : items) {
+            Long cents = in.nullableSvarint();
+            item.setPrice(cents == null ? null : cents / 100.0);
+        }
+        byte[] featured = in.bytes((count + 7) / 8);
+        for (int i = 0; i < count; i++) {
+            items.get(i).setFeatured((featured[i >> 3] & (1 << (i & 7))) != 0);
+        }
+        for (MenuItem item : items) {
+            item.setName(in.string());
+        }
+        for (MenuItem item : items) {
+            item.setDescription(in.string());
+        }
+        for (MenuItem item : items) {
+            item.setImageUrl(in.string());
+        }
+        for (MenuItem item : items) {
+            item.setImagePlaceholder(in.string());
+        }
+        for (MenuItem item : items) {
+            Long width = in.nullableSvarint();
+            item.setImageWidth(width == null ? null : width.intValue());
+        }
+        for (MenuItem item : items) {
+            Long height = in.nullableSvarint();
+            item.setImageHeight(height == null ? null : height.intValue());
+        }
+        if (in.position != data.length) {
+            throw new IllegalArgumentException("Trailing bytes after compact menu");
+        }
+        return MenuSnapshot.of(version, categories, items);
+    }
+
+    /**
+     * Whether the Accept header names the compact type with a non-zero
+     * quality. Wildcards don't count, so browsers keep getting JSON.
+     */
+    public static boolean isAccepted(String accept) {
+        if (accept == null || !accept.contains(MEDIA_TYPE_VALUE)) {
+            return false;
+        }
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (mediaType.equalsTypeAndSubtype(MEDIA_TYPE) && mediaType.getQualityValue() > 0) {
+                    return true;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return false;
+    }
+
+    private static final class Output {
+        private byte[] buffer;
+        private int size;
+
+        private Output(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        private void bytes(byte[] value) {
+            ensure(value.length);
+            System.arraycopy(value, 0, buffer, size, value.length);
+            size += value.length;
+        }
+
+        private void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void svarint(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        private void nullableSvarint(Long value) {
+            // Zigzag, then shifted up one so zero can stand for null
+            varint(value == null ? 0 : ((value << 1) ^ (value >> 63)) + 1);
+        }
+
+        private void string(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length + 1L);
+            bytes(utf8);
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static final class Input {
+        private final byte[] data;
+        private int position;
+
+        private Input(byte[] data) {
+            this.data = data;
+        }
+
+        private long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= data.length) {
+                    throw new IllegalArgumentException("Truncated compact menu");
+                }
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint at byte " + position);
+        }
+
+        /** A varint used as a count or length, bounded by the bytes left. */
+        private int count() {
+            long value = varint();
+            if (value > data.length - position + 1L) {
+                throw new IllegalArgumentException("Length " + value + " past the end of the compact menu");
+            }
+            return (int) value;
+        }
+
+        private long svarint() {
+            long value = varint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private Long nullableSvarint() {
+            long value = varint();
+            if (value == 0) {
+                return null;
+            }
+            value -= 1;
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private byte[] bytes(int length) {
+            if (length > data.length - position) {
+                throw new IllegalArgumentException("Truncated compact menu");
+            }
+            byte[] value = Arrays.copyOfRange(data, position, position + length);
+            position += length;
+            return value;
+        }
+
+        private String string() {
+            int length = count();
+            if (length == 0) {
+                return null;
+            }
+            byte[] utf8 = bytes(length - 1);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+    }
+}
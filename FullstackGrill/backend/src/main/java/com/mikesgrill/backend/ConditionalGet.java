@@ -0,0 +1,135 @@
+package com.mikesgrill.backend;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Helpers for answering public GETs with an ETag and a per-resource
+ * Cache-Control policy. The If-None-Match check runs before the body
+ * supplier, so a revalidation never touches a repository.
+ */
+public final class ConditionalGet {
+
+    public static final CacheControl MENU_POLICY = CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic();
+    // Polled with the latest cursor, so always revalidate; a 304 is the common answer
+    public static final CacheControl CHANGES_POLICY = CacheControl.noCache().cachePublic();
+    public static final CacheControl CATEGORIES_POLICY = CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic();
+    public static final long HOURS_POLICY_SECONDS = 300;
+    public static final CacheControl HOURS_POLICY =
+            CacheControl.maxAge(Duration.ofSeconds(HOURS_POLICY_SECONDS)).cachePublic();
+    public static final CacheControl SETTINGS_POLICY = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+    public static final CacheControl BOOTSTRAP_POLICY = CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic();
+
+    private ConditionalGet() {
+    }
+
+    public static <T> ResponseEntity<T> respond(String ifNoneMatch, String etag, CacheControl cacheControl,
+                                                Supplier<T> body) {
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(body.get());
+    }
+
+    /**
+     * Writes a pre-serialized body, picking the gzip bytes when the client
+     * accepts them. Both variants carry their own ETag and Vary on
+     * Accept-Encoding so shared caches keep them apart.
+     */
+    public static ResponseEntity<byte[]> respond(String ifNoneMatch, String acceptEncoding,
+                                                 SerializedPayload payload, CacheControl cacheControl) {
+        return respond(ifNoneMatch, acceptEncoding, payload, cacheControl, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * As above for a resource whose body was also chosen by the Accept
+     * header, so caches must key on it too.
+     */
+    public static ResponseEntity<byte[]> respondNegotiated(String ifNoneMatch, String acceptEncoding,
+                                                           SerializedPayload payload, CacheControl cacheControl) {
+        return respond(ifNoneMatch, acceptEncoding, payload, cacheControl, HttpHeaders.ACCEPT,
+                HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static ResponseEntity<byte[]> respond(String ifNoneMatch, String acceptEncoding,
+                                                  SerializedPayload payload, CacheControl cacheControl,
+                                                  String... vary) {
+        boolean useGzip = payload.hasGzip() && acceptsGzip(acceptEncoding);
+        String etag = useGzip ? payload.getGzipEtag() : payload.getEtag();
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(vary)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(vary)
+                .contentType(payload.getContentType());
+        if (useGzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzip());
+        }
+        return builder.body(payload.getIdentity());
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so a W/ prefix added by a proxy
+     * still counts as a match.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -17,11 +18,38 @@ public class ContactAdminController {
     @Autowired
     private ContactService contactService;
 
+    @Autowired
+    private ContactSubmissionQueue contactSubmissionQueue;
+
     @GetMapping
     public ResponseEntity<List<ContactMessage>> getAllMessages() {
         return ResponseEntity.ok(contactService.getAllMessages());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ContactMessagePage> getMessagePage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, 100));
+        try {
+            return ResponseEntity.ok(contactService.getMessagePage(cursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/queue-stats")
+    public ResponseEntity<ContactQueueStats> getQueueStats() {
+        return ResponseEntity.ok(contactSubmissionQueue.getStats());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ContactMessage> getMessage(@PathVariable Long id) {
+        return contactService.getMessage(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteMessage(@PathVariable Long id) {
         if (contactService.deleteMessage(id)) {
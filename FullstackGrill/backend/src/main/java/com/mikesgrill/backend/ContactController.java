@@ -1,6 +1,9 @@
 package com.mikesgrill.backend;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -8,17 +11,56 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/contact")
 public class ContactController {
 
+    private static final int MAX_FIELD_LENGTH = 255;
+    private static final int MAX_MESSAGE_LENGTH = 10_000;
+
     @Autowired
     private ContactService contactService;
 
+    @Autowired
+    private ContactSubmissionQueue contactSubmissionQueue;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @PostMapping
-    public ResponseEntity<ContactMessage> submitContact(@RequestBody ContactMessage msg) {
+    public ResponseEntity<?> submitContact(@RequestBody ContactMessage msg) {
+        if (!isValid(msg)) {
+            count("invalid");
+            return ResponseEntity.badRequest().body("{\"error\": \"Name, email and message are required\"}");
+        }
         try {
+            if (contactSubmissionQueue.isEnabled()) {
+                if (!contactSubmissionQueue.submit(msg.getName().trim(), msg.getEmail().trim(), msg.getMessage())) {
+                    count("rejected");
+                    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                            .header(HttpHeaders.RETRY_AFTER, "5")
+                            .body("{\"error\": \"Too many messages right now, please try again shortly\"}");
+                }
+                count("accepted");
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body("{\"message\": \"Message received\"}");
+            }
             ContactMessage saved = contactService.saveContactMessage(msg);
+            count("saved");
             return ResponseEntity.status(201).body(saved);
         } catch (Exception e) {
             e.printStackTrace();
+            count("failed");
             return ResponseEntity.status(500).build();
         }
     }
+
+    private void count(String outcome) {
+        meterRegistry.counter("contact.submissions", "outcome", outcome).increment();
+    }
+
+    private static boolean isValid(ContactMessage msg) {
+        return isPresent(msg.getName(), MAX_FIELD_LENGTH)
+                && isPresent(msg.getEmail(), MAX_FIELD_LENGTH)
+                && isPresent(msg.getMessage(), MAX_MESSAGE_LENGTH);
+    }
+
+    private static boolean isPresent(String value, int maxLength) {
+        return value != null && !value.isBlank() && value.length() <= maxLength;
+    }
 }
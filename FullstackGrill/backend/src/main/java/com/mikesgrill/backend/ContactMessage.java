@@ -5,7 +5,8 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "contact_messages")
+@Table(name = "contact_messages",
+        indexes = @Index(name = "idx_contact_messages_created_at", columnList = "created_at, id"))
 public class ContactMessage {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
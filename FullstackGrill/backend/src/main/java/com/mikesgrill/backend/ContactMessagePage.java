@@ -0,0 +1,21 @@
+package com.mikesgrill.backend;
+
+import java.util.List;
+
+public class ContactMessagePage {
+    private final List<ContactMessageSummary> items;
+    private final String nextCursor;
+
+    public ContactMessagePage(List<ContactMessageSummary> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ContactMessageSummary> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
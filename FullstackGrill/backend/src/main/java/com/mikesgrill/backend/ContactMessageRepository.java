@@ -1,9 +1,28 @@
 package com.mikesgrill.backend;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ContactMessageRepository extends JpaRepository<ContactMessage, Long> {
     List<ContactMessage> findAllByOrderByCreatedAtDesc();
+
+    // Keyset pages over (created_at, id), newest first; only a snippet of the body is read
+    @Query("select new com.mikesgrill.backend.ContactMessageSummary(m.id, m.name, m.email, "
+            + "substring(m.message, 1, " + (ContactMessageSummary.SNIPPET_LENGTH + 1) + "), m.createdAt) "
+            + "from ContactMessage m order by m.createdAt desc, m.id desc")
+    List<ContactMessageSummary> findSummaries(Pageable pageable);
+
+    @Query("select new com.mikesgrill.backend.ContactMessageSummary(m.id, m.name, m.email, "
+            + "substring(m.message, 1, " + (ContactMessageSummary.SNIPPET_LENGTH + 1) + "), m.createdAt) "
+            + "from ContactMessage m "
+            + "where m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id) "
+            + "order by m.createdAt desc, m.id desc")
+    List<ContactMessageSummary> findSummariesBefore(@Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") Long id,
+                                                    Pageable pageable);
 }
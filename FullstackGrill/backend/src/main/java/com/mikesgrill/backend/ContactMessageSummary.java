@@ -0,0 +1,53 @@
+package com.mikesgrill.backend;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inbox row without the full message body; the body is fetched separately
+ * when an admin opens a message. Queries select one character more than
+ * the snippet shows, which is how a cut-off message is told apart from one
+ * that is exactly {@link #SNIPPET_LENGTH} long.
+ */
+public class ContactMessageSummary {
+    public static final int SNIPPET_LENGTH = 160;
+
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final String snippet;
+    private final boolean truncated;
+    private final LocalDateTime createdAt;
+
+    public ContactMessageSummary(Long id, String name, String email, String snippet, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.truncated = snippet != null && snippet.length() > SNIPPET_LENGTH;
+        this.snippet = truncated ? snippet.substring(0, SNIPPET_LENGTH) : snippet;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
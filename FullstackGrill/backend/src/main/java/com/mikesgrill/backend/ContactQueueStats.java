@@ -0,0 +1,68 @@
+package com.mikesgrill.backend;
+
+public class ContactQueueStats {
+    private final boolean enabled;
+    private final int depth;
+    private final int remainingCapacity;
+    private final long accepted;
+    private final long rejected;
+    private final long persisted;
+    private final long deadLettered;
+    private final long batches;
+    private final double lastFlushMillis;
+    private final double averageFlushMillis;
+
+    public ContactQueueStats(boolean enabled, int depth, int remainingCapacity, long accepted, long rejected,
+                             long persisted, long deadLettered, long batches, double lastFlushMillis, double averageFlushMillis) {
+        this.enabled = enabled;
+        this.depth = depth;
+        this.remainingCapacity = remainingCapacity;
+        this.accepted = accepted;
+        this.rejected = rejected;
+        this.persisted = persisted;
+        this.deadLettered = deadLettered;
+        this.batches = batches;
+        this.lastFlushMillis = lastFlushMillis;
+        this.averageFlushMillis = averageFlushMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getRemainingCapacity() {
+        return remainingCapacity;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getPersisted() {
+        return persisted;
+    }
+
+    public long getDeadLettered() {
+        return deadLettered;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public double getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    public double getAverageFlushMillis() {
+        return averageFlushMillis;
+    }
+}
@@ -1,8 +1,13 @@
 package com.mikesgrill.backend;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ContactService {
@@ -21,6 +26,54 @@ public class ContactService {
         return contactMessageRepository.findAllByOrderByCreatedAtDesc();
     }
 
+    public Optional<ContactMessage> getMessage(Long id) {
+        return contactMessageRepository.findById(id);
+    }
+
+    /**
+     * Returns one page of inbox summaries. The cursor is the opaque
+     * {@code nextCursor} of the previous page, or null for the newest page.
+     */
+    public ContactMessagePage getMessagePage(String cursor, int limit) {
+        // One extra row tells us whether another page exists
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<ContactMessageSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = contactMessageRepository.findSummaries(page);
+        } else {
+            String[] position = decodeCursor(cursor);
+            rows = contactMessageRepository.findSummariesBefore(
+                    LocalDateTime.parse(position[0]), Long.valueOf(position[1]), page);
+        }
+
+        if (rows.size() <= limit) {
+            return new ContactMessagePage(rows, null);
+        }
+        List<ContactMessageSummary> items = rows.subList(0, limit);
+        ContactMessageSummary last = items.get(items.size() - 1);
+        return new ContactMessagePage(List.copyOf(items), encodeCursor(last.getCreatedAt(), last.getId()));
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
     public boolean deleteMessage(Long id) {
         if (contactMessageRepository.existsById(id)) {
             contactMessageRepository.deleteById(id);
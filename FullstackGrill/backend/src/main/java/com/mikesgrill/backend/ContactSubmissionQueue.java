@@ -0,0 +1,402 @@
+package com.mikesgrill.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Accept-then-persist path for contact form submissions. A submission is
+ * appended to a local journal, queued in memory and acknowledged; a single
+ * writer thread inserts queued rows in JDBC batches so a burst of
+ * submissions costs a handful of connection checkouts instead of one each.
+ *
+ * <p>The journal is replayed on startup for every entry past the last
+ * persisted sequence number, so an accepted submission survives a restart.
+ * Delivery is at-least-once: a crash between a batch commit and the
+ * checkpoint write can re-insert that batch.
+ *
+ * <p>A batch that keeps failing is retried one row at a time; rows the
+ * database rejects outright (a constraint or encoding error) go to a
+ * dead-letter file next to the journal instead of blocking the rows behind
+ * them.
+ */
+@Component
+public class ContactSubmissionQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactSubmissionQueue.class);
+
+    private static final String INSERT_SQL =
+            "insert into contact_messages (name, email, message, created_at) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final int maxBatchAttempts;
+    private final Path journalFile;
+    private final Path checkpointFile;
+    private final Path deadLetterFile;
+    private final BlockingQueue<Submission> queue;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private FileChannel journal;
+    private long lastSequence;
+    private volatile long persistedSequence;
+    private volatile boolean running;
+    private Thread writer;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong persisted = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+
+    public ContactSubmissionQueue(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${contact.write-behind.enabled:true}") boolean enabled,
+                                  @Value("${contact.write-behind.capacity:1000}") int capacity,
+                                  @Value("${contact.write-behind.batch-size:50}") int batchSize,
+                                  @Value("${contact.write-behind.linger-ms:100}") long lingerMillis,
+                                  @Value("${contact.write-behind.max-batch-attempts:5}") int maxBatchAttempts,
+                                  @Value("${contact.write-behind.journal:data/contact-journal.log}") String journal) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.maxBatchAttempts = maxBatchAttempts;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.journalFile = Paths.get(journal).toAbsolutePath().normalize();
+        this.checkpointFile = journalFile.resolveSibling(journalFile.getFileName() + ".checkpoint");
+        this.deadLetterFile = journalFile.resolveSibling(journalFile.getFileName() + ".dead");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(journalFile.getParent());
+        persistedSequence = readCheckpoint();
+        List<Submission> backlog = readJournal(persistedSequence);
+        lastSequence = backlog.isEmpty() ? persistedSequence : backlog.get(backlog.size() - 1).sequence;
+        journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        if (!backlog.isEmpty()) {
+            log.info("Replaying {} contact submissions from {}", backlog.size(), journalFile);
+        }
+
+        running = true;
+        writer = new Thread(() -> runWriter(backlog), "contact-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Journals and queues the submission. Returns false without journaling
+     * anything when the queue is full, so a rejected client can safely retry.
+     */
+    public boolean submit(String name, String email, String message) throws IOException {
+        appendLock.lock();
+        try {
+            if (!running || queue.remainingCapacity() == 0) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            Submission submission = new Submission(++lastSequence, name, email, message, LocalDateTime.now());
+            byte[] line = (objectMapper.writeValueAsString(submission) + "\n").getBytes(StandardCharsets.UTF_8);
+            journal.write(ByteBuffer.wrap(line));
+            journal.force(false);
+            queue.add(submission);
+            accepted.incrementAndGet();
+            return true;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void runWriter(List<Submission> backlog) {
+        for (int from = 0; from < backlog.size(); from += batchSize) {
+            flushWithRetry(backlog.subList(from, Math.min(from + batchSize, backlog.size())));
+        }
+
+        List<Submission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    compactJournal();
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                flushWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                if (!batch.isEmpty()) {
+                    // Already taken off the queue; still in the journal if this flush fails too
+                    flushWithRetry(batch);
+                    batch.clear();
+                }
+                if (!running) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits up to the linger time for more submissions so a burst is written
+     * as one batch rather than one insert per row.
+     */
+    private void fillBatch(List<Submission> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            Submission next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Retries the batch with backoff; after {@code maxBatchAttempts} failures
+     * each attempt goes row by row so one bad row can't hold up the rest.
+     * While the database itself is unreachable nothing is dead-lettered.
+     */
+    private void flushWithRetry(List<Submission> batch) {
+        List<Submission> remaining = batch;
+        long backoffMillis = 500;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (attempt <= maxBatchAttempts) {
+                    flush(remaining);
+                    return;
+                }
+                remaining = flushRows(remaining);
+                if (remaining.isEmpty()) {
+                    return;
+                }
+            } catch (RuntimeException | IOException e) {
+                log.warn("Failed to persist {} contact submissions (attempt {}), retrying in {} ms",
+                        remaining.size(), attempt, backoffMillis, e);
+            }
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException interrupted) {
+                if (!running) {
+                    // Left in the journal; replayed on the next start
+                    return;
+                }
+            }
+            backoffMillis = Math.min(backoffMillis * 2, 30_000);
+        }
+    }
+
+    /**
+     * Inserts the rows one per transaction, in order. Returns the rows still
+     * to write when the database stops answering part way through.
+     */
+    private List<Submission> flushRows(List<Submission> rows) throws IOException {
+        for (int i = 0; i < rows.size(); i++) {
+            Submission row = rows.get(i);
+            try {
+                flush(List.of(row));
+            } catch (NonTransientDataAccessException e) {
+                if (e instanceof NonTransientDataAccessResourceException) {
+                    return rows.subList(i, rows.size());
+                }
+                deadLetter(row, e);
+            } catch (RuntimeException e) {
+                return rows.subList(i, rows.size());
+            }
+        }
+        return List.of();
+    }
+
+    private void deadLetter(Submission submission, NonTransientDataAccessException cause) throws IOException {
+        log.error("Moving contact submission {} to {} after the database rejected it: {}",
+                submission.sequence, deadLetterFile, cause.getMostSpecificCause().getMessage());
+        byte[] line = (objectMapper.writeValueAsString(submission) + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel deadLetters = FileChannel.open(deadLetterFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            deadLetters.write(ByteBuffer.wrap(line));
+            deadLetters.force(false);
+        }
+        writeCheckpoint(submission.sequence);
+        deadLettered.incrementAndGet();
+    }
+
+    private void flush(List<Submission> batch) throws IOException {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(),
+                (statement, submission) -> {
+                    statement.setString(1, submission.name);
+                    statement.setString(2, submission.email);
+                    statement.setString(3, submission.message);
+                    statement.setTimestamp(4, Timestamp.valueOf(submission.createdAt));
+                }));
+        writeCheckpoint(batch.get(batch.size() - 1).sequence);
+
+        long elapsed = System.nanoTime() - start;
+        persisted.addAndGet(batch.size());
+        batches.incrementAndGet();
+        totalFlushNanos.addAndGet(elapsed);
+        lastFlushNanos.set(elapsed);
+    }
+
+    /**
+     * Truncates the journal once everything in it has been persisted, so it
+     * only ever holds the in-flight tail.
+     */
+    private void compactJournal() {
+        appendLock.lock();
+        try {
+            if (queue.isEmpty() && persistedSequence == lastSequence && journal.size() > 0) {
+                journal.truncate(0);
+                journal.force(true);
+            }
+        } catch (IOException e) {
+            log.warn("Unable to compact contact journal {}", journalFile, e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        String value = Files.readString(checkpointFile, StandardCharsets.UTF_8).trim();
+        return value.isEmpty() ? 0 : Long.parseLong(value);
+    }
+
+    private void writeCheckpoint(long sequence) throws IOException {
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.writeString(temp, Long.toString(sequence), StandardCharsets.UTF_8);
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        persistedSequence = sequence;
+    }
+
+    private List<Submission> readJournal(long afterSequence) throws IOException {
+        List<Submission> pending = new ArrayList<>();
+        if (!Files.exists(journalFile)) {
+            return pending;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    Submission submission = objectMapper.readValue(line, Submission.class);
+                    if (submission.sequence > afterSequence) {
+                        pending.add(submission);
+                    }
+                } catch (IOException e) {
+                    // A torn final line from a crash mid-append was never acknowledged
+                    log.warn("Skipping unreadable contact journal entry in {}", journalFile);
+                }
+            }
+        }
+        return pending;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (!enabled || writer == null) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            running = false;
+        } finally {
+            appendLock.unlock();
+        }
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (writer.isAlive()) {
+            writer.interrupt();
+        }
+        journal.close();
+    }
+
+    public ContactQueueStats getStats() {
+        long batchCount = batches.get();
+        return new ContactQueueStats(
+                enabled,
+                queue.size(),
+                queue.remainingCapacity(),
+                accepted.get(),
+                rejected.get(),
+                persisted.get(),
+                deadLettered.get(),
+                batchCount,
+                lastFlushNanos.get() / 1_000_000.0,
+                batchCount == 0 ? 0 : totalFlushNanos.get() / 1_000_000.0 / batchCount);
+    }
+
+    static final class Submission {
+        public long sequence;
+        public String name;
+        public String email;
+        public String message;
+        public LocalDateTime createdAt;
+
+        Submission() {
+        }
+
+        Submission(long sequence, String name, String email, String message, LocalDateTime createdAt) {
+            this.sequence = sequence;
+            this.name = name;
+            this.email = email;
+            this.message = message;
+            this.createdAt = createdAt;
+        }
+    }
+}
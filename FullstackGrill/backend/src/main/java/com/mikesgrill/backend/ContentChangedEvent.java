@@ -0,0 +1,40 @@
+package com.mikesgrill.backend;
+
+/**
+ * Published by {@link ContentVersions} once a public resource has a new
+ * version and readers can observe it. The entity type and id say what the
+ * write touched; the id is null when it touched several rows at once.
+ */
+public class ContentChangedEvent {
+    private final String resource;
+    private final long version;
+    private final String entityType;
+    private final Long entityId;
+
+    public ContentChangedEvent(String resource, long version) {
+        this(resource, version, resource, null);
+    }
+
+    public ContentChangedEvent(String resource, long version, String entityType, Long entityId) {
+        this.resource = resource;
+        this.version = version;
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+}
@@ -0,0 +1,100 @@
+package com.mikesgrill.backend;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory version counters for public content. Every admin write bumps the
+ * counter of the resource it touched, so public controllers can derive an
+ * ETag without reading the database. The epoch keeps tags from one JVM run
+ * from matching those of the next. Each new version is announced with a
+ * {@link ContentChangedEvent}.
+ */
+@Component
+public class ContentVersions {
+
+    public static final String MENU = "menu";
+    public static final String HOURS = "hours";
+    public static final String SETTINGS = "settings";
+
+    public static final String MENU_ITEM = "menu-item";
+    public static final String MENU_CATEGORY = "menu-category";
+    public static final String HOURS_OVERRIDE = "hours-override";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ContentVersions(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    public long current(String resource) {
+        return counter(resource).get();
+    }
+
+    /**
+     * Increments and announces the version; for resources whose readers load
+     * lazily, so the new data is visible as soon as the version moves.
+     */
+    public long bump(String resource) {
+        return bump(resource, resource, null);
+    }
+
+    public long bump(String resource, String entityType, Long entityId) {
+        long version = reserve(resource);
+        announce(resource, version, entityType, entityId);
+        return version;
+    }
+
+    /**
+     * Increments without announcing, for callers that have to publish the
+     * data under the new version before anyone is told about it.
+     */
+    public long reserve(String resource) {
+        return counter(resource).incrementAndGet();
+    }
+
+    public void announce(String resource, long version) {
+        announce(resource, version, resource, null);
+    }
+
+    public void announce(String resource, long version, String entityType, Long entityId) {
+        eventPublisher.publishEvent(new ContentChangedEvent(resource, version, entityType, entityId));
+    }
+
+    /**
+     * Identifies this JVM run; versions are only comparable within one.
+     */
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public String etag(String resource) {
+        return etag(resource, current(resource));
+    }
+
+    public String etag(String resource, long version) {
+        return "\"" + resource + "-" + epoch + "-" + version + "\"";
+    }
+
+    /**
+     * ETag for a response assembled from several resources; it changes as
+     * soon as any of their versions does.
+     */
+    public String compositeEtag(String name, long... resourceVersions) {
+        StringBuilder tag = new StringBuilder("\"").append(name).append('-').append(epoch);
+        for (long version : resourceVersions) {
+            tag.append('-').append(version);
+        }
+        return tag.append('"').toString();
+    }
+
+    private AtomicLong counter(String resource) {
+        return versions.computeIfAbsent(resource, key -> new AtomicLong());
+    }
+}
@@ -0,0 +1,24 @@
+package com.mikesgrill.backend;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Adds a {@code controller} tag to {@code http.server.requests}, so latency
+ * can be broken down by controller as well as by URI template.
+ */
+@Component
+public class ControllerObservationConvention extends DefaultServerRequestObservationConvention {
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        String controller = handler instanceof HandlerMethod method ? method.getBeanType().getSimpleName() : "none";
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of("controller", controller));
+    }
+}
@@ -8,18 +8,101 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Loads admin users, keeping the most recently used ones in a small cache
+ * so logins and the per-request check in {@link ActiveAdminFilter} don't
+ * need the database. {@link AdminController} evicts a name whenever it
+ * creates or deletes that user; entries also expire after a few minutes so
+ * changes made by another instance or directly in the database are picked
+ * up.
+ */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
+    private static final int MAX_CACHED_USERS = 256;
+    private static final long CACHE_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
     @Autowired
     private AdminUserRepository adminUserRepository;
 
+    private final Map<String, CachedUser> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+            return size() > MAX_CACHED_USERS;
+        }
+    };
+    // Bumped by every evict, under the cache lock. A load that started before
+    // an evict doesn't cache its result, so a user deleted while being loaded
+    // can't be put back.
+    private long evictions;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        AdminUser adminUser = adminUserRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        CachedUser cached = lookup(username);
+        if (cached == null) {
+            long generation;
+            synchronized (cache) {
+                generation = evictions;
+            }
+            AdminUser adminUser = adminUserRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+            cached = new CachedUser(adminUser.getUsername(), adminUser.getPasswordHash(), System.nanoTime());
+            synchronized (cache) {
+                if (evictions == generation) {
+                    cache.put(username, cached);
+                }
+            }
+        }
+
+        // A new instance every time: the authentication manager erases the
+        // password of the one it is handed
+        return new User(cached.username, cached.passwordHash, new ArrayList<>());
+    }
+
+    public boolean isActive(String username) {
+        try {
+            loadUserByUsername(username);
+            return true;
+        } catch (UsernameNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Drops every entry for the user, whatever case it was looked up with.
+     */
+    public void evict(String username) {
+        synchronized (cache) {
+            evictions++;
+            cache.values().removeIf(user -> user.username.equalsIgnoreCase(username));
+            cache.remove(username);
+        }
+    }
+
+    private CachedUser lookup(String username) {
+        synchronized (cache) {
+            CachedUser cached = cache.get(username);
+            if (cached != null && System.nanoTime() - cached.loadedAt > CACHE_TTL_NANOS) {
+                cache.remove(username);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private static final class CachedUser {
+        private final String username;
+        private final String passwordHash;
+        private final long loadedAt;
 
-        return new User(adminUser.getUsername(), adminUser.getPasswordHash(), new ArrayList<>());
+        private CachedUser(String username, String passwordHash, long loadedAt) {
+            this.username = username;
+            this.passwordHash = passwordHash;
+            this.loadedAt = loadedAt;
+        }
     }
 }
@@ -0,0 +1,89 @@
+package com.mikesgrill.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Probes the database on a fixed delay. The app reports ready while either
+ * the database or the local snapshot can answer public reads; once the
+ * database is back after an outage (or first comes up after a cold start)
+ * the menu snapshot is rebuilt from it and the stale flag is cleared.
+ */
+@Component
+public class DataAvailabilityMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(DataAvailabilityMonitor.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseInitializer databaseInitializer;
+    private final PublicDataSnapshotStore snapshotStore;
+    private final MenuSnapshotService menuSnapshotService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile ReadinessState readiness;
+
+    public DataAvailabilityMonitor(JdbcTemplate jdbcTemplate,
+                                   DatabaseInitializer databaseInitializer,
+                                   PublicDataSnapshotStore snapshotStore,
+                                   MenuSnapshotService menuSnapshotService,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseInitializer = databaseInitializer;
+        this.snapshotStore = snapshotStore;
+        this.menuSnapshotService = menuSnapshotService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(initialDelayString = "${public-data.probe-interval-ms:15000}",
+            fixedDelayString = "${public-data.probe-interval-ms:15000}")
+    public void probe() {
+        boolean databaseUp = isDatabaseUp();
+        if (databaseUp && snapshotStore.isServingStale()) {
+            try {
+                menuSnapshotService.rebuild();
+                snapshotStore.markFresh();
+            } catch (DataAccessException e) {
+                databaseUp = false;
+            }
+        } else if (!databaseUp && snapshotStore.getFallback().isPresent()) {
+            snapshotStore.markStale();
+        }
+
+        ReadinessState state = databaseUp || snapshotStore.getFallback().isPresent()
+                ? ReadinessState.ACCEPTING_TRAFFIC
+                : ReadinessState.REFUSING_TRAFFIC;
+        if (state != readiness) {
+            readiness = state;
+            if (state == ReadinessState.REFUSING_TRAFFIC) {
+                log.warn("Database unavailable and no public data snapshot, refusing traffic");
+            }
+            AvailabilityChangeEvent.publish(eventPublisher, this, state);
+        }
+    }
+
+    /** Also finishes the startup work if the database was down then. */
+    private boolean isDatabaseUp() {
+        try {
+            jdbcTemplate.queryForObject("select 1", Integer.class);
+        } catch (DataAccessException e) {
+            return false;
+        }
+        if (!databaseInitializer.isInitialized()) {
+            try {
+                databaseInitializer.initialize();
+                log.info("Database reachable, schema and default data are in place");
+            } catch (RuntimeException e) {
+                log.warn("Database reachable but could not be initialized", e);
+                return false;
+            }
+        }
+        return true;
+    }
+}
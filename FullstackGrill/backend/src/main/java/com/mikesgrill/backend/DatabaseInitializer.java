@@ -0,0 +1,78 @@
+package com.mikesgrill.backend;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Updates the schema and seeds the default categories, hours and settings
+ * the first time the database can be reached. That is normally at startup;
+ * when the database is down then, the app starts anyway and serves the
+ * public data snapshot, and {@link DataAvailabilityMonitor} finishes the
+ * job once a probe gets through.
+ */
+@Component
+public class DatabaseInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseInitializer.class);
+
+    private final SchemaUpdater schemaUpdater;
+    private final MenuCategoryService menuCategoryService;
+    private final RestaurantHoursService restaurantHoursService;
+    private final SiteSettingsService siteSettingsService;
+
+    // JDBC work inside synchronized would pin a virtual thread (the probe runs
+    // on one under the virtual-threads profile)
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean initialized;
+
+    public DatabaseInitializer(SchemaUpdater schemaUpdater,
+                               MenuCategoryService menuCategoryService,
+                               RestaurantHoursService restaurantHoursService,
+                               SiteSettingsService siteSettingsService) {
+        this.schemaUpdater = schemaUpdater;
+        this.menuCategoryService = menuCategoryService;
+        this.restaurantHoursService = restaurantHoursService;
+        this.siteSettingsService = siteSettingsService;
+    }
+
+    @PostConstruct
+    public void initializeAtStartup() {
+        try {
+            initialize();
+        } catch (RuntimeException e) {
+            log.warn("Database unavailable at startup, initializing it once it can be reached", e);
+        }
+    }
+
+    /**
+     * Runs once; later calls return straight away.
+     *
+     * @throws RuntimeException if the database can't be reached or updated
+     */
+    public void initialize() {
+        if (initialized) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (initialized) {
+                return;
+            }
+            schemaUpdater.update();
+            menuCategoryService.ensureDefaultCategories();
+            restaurantHoursService.initializeDefaultHours();
+            siteSettingsService.ensureDefaultSettings();
+            initialized = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+}
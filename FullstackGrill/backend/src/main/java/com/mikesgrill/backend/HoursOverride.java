@@ -0,0 +1,90 @@
+package com.mikesgrill.backend;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+
+/**
+ * Hours for one calendar date (a holiday, an event) that replace the
+ * weekly hours for that day.
+ */
+@Entity
+@Table(name = "hours_overrides")
+public class HoursOverride {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "override_date", nullable = false, unique = true)
+    private LocalDate date;
+
+    private String openTime;
+    private String closeTime;
+    private boolean closed;
+    private String note;
+
+    public HoursOverride() {
+    }
+
+    public HoursOverride(LocalDate date, String openTime, String closeTime, boolean closed, String note) {
+        this.date = date;
+        this.openTime = openTime;
+        this.closeTime = closeTime;
+        this.closed = closed;
+        this.note = note;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public String getOpenTime() {
+        return openTime;
+    }
+
+    public void setOpenTime(String openTime) {
+        this.openTime = openTime;
+    }
+
+    public String getCloseTime() {
+        return closeTime;
+    }
+
+    public void setCloseTime(String closeTime) {
+        this.closeTime = closeTime;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void setClosed(boolean closed) {
+        this.closed = closed;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public void setNote(String note) {
+        this.note = note;
+    }
+}
@@ -0,0 +1,13 @@
+package com.mikesgrill.backend;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface HoursOverrideRepository extends JpaRepository<HoursOverride, Long> {
+    List<HoursOverride> findByDateGreaterThanEqualOrderByDateAsc(LocalDate from);
+
+    Optional<HoursOverride> findByDate(LocalDate date);
+}
@@ -0,0 +1,31 @@
+package com.mikesgrill.backend;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Whether the restaurant is open right now and when that next changes.
+ * nextChange is null when there are no open hours in the coming weeks.
+ */
+public class HoursStatus {
+    private final boolean open;
+    private final OffsetDateTime nextChange;
+    private final String timeZone;
+
+    public HoursStatus(boolean open, OffsetDateTime nextChange, String timeZone) {
+        this.open = open;
+        this.nextChange = nextChange;
+        this.timeZone = timeZone;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public OffsetDateTime getNextChange() {
+        return nextChange;
+    }
+
+    public String getTimeZone() {
+        return timeZone;
+    }
+}
@@ -0,0 +1,70 @@
+package com.mikesgrill.backend;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Serves uploads resized to {@code w} pixels wide at JPEG quality {@code q};
+ * without {@code w} the original is returned. An original served because the
+ * resize couldn't run is marked no-store, so the variant URL is rendered on a
+ * later request instead of caching the full-size file under it.
+ */
+@RestController
+public class ImageController {
+
+    private static final CacheControl IMAGE_POLICY = CacheControl.maxAge(Duration.ofDays(7)).cachePublic();
+    private static final CacheControl IMMUTABLE_POLICY =
+            CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    private static final CacheControl FALLBACK_POLICY = CacheControl.noStore();
+
+    private final ImageVariantService imageVariantService;
+
+    public ImageController(ImageVariantService imageVariantService) {
+        this.imageVariantService = imageVariantService;
+    }
+
+    @GetMapping("/api/public/images/{filename}")
+    public ResponseEntity<Resource> getImage(@PathVariable String filename,
+                                             @RequestParam(value = "w", required = false) Integer width,
+                                             @RequestParam(value = "q", required = false) Integer quality)
+            throws IOException {
+        Optional<Path> original = imageVariantService.resolveOriginal(filename);
+        if (original.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ImageVariantService.Variant variant = width == null || width <= 0
+                ? new ImageVariantService.Variant(original.get(), false)
+                : imageVariantService.variant(original.get(), width, quality);
+        Path file = variant.file();
+        CacheControl policy;
+        if (variant.fallback()) {
+            policy = FALLBACK_POLICY;
+        } else {
+            policy = UploadStore.isContentAddressed(filename) ? IMMUTABLE_POLICY : IMAGE_POLICY;
+        }
+
+        String name = file.getFileName().toString();
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        MediaType contentType = MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return ResponseEntity.ok()
+                .cacheControl(policy)
+                .eTag("\"" + name + "-" + Long.toString(modified, 36) + "\"")
+                .lastModified(modified)
+                .contentType(contentType)
+                .body(new FileSystemResource(file));
+    }
+}
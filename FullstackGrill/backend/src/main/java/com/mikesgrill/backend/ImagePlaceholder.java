@@ -0,0 +1,25 @@
+package com.mikesgrill.backend;
+
+public class ImagePlaceholder {
+    private final int width;
+    private final int height;
+    private final String dataUri;
+
+    public ImagePlaceholder(int width, int height, String dataUri) {
+        this.width = width;
+        this.height = height;
+        this.dataUri = dataUri;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public String getDataUri() {
+        return dataUri;
+    }
+}
@@ -0,0 +1,157 @@
+package com.mikesgrill.backend;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Computes the placeholder and intrinsic size of menu item images off the
+ * request thread. Work runs on one background thread with a bounded queue;
+ * images that predate this service are picked up by {@link #backfill()}, and
+ * images that didn't fit in the queue are resubmitted once it drains. The
+ * menu snapshot is rebuilt once per drain rather than once per image.
+ *
+ * <p>Only uploads are processed. External image URLs are left without a
+ * placeholder rather than fetched from the server.
+ */
+@Service
+public class ImagePlaceholderService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImagePlaceholderService.class);
+
+    private final MenuItemRepository menuItemRepository;
+    private final ImageVariantService imageVariantService;
+    private final MenuSnapshotService menuSnapshotService;
+
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    // Rejected by the full queue, resubmitted when it drains
+    private final Set<String> rejected = ConcurrentHashMap.newKeySet();
+    // Missing or undecodable; their rows keep a null placeholder, so
+    // backfill would otherwise find them again on every run
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean updated = new AtomicBoolean();
+    private final ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(64), runnable -> {
+                Thread thread = new Thread(runnable, "image-placeholder");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public ImagePlaceholderService(MenuItemRepository menuItemRepository,
+                                   ImageVariantService imageVariantService,
+                                   MenuSnapshotService menuSnapshotService) {
+        this.menuItemRepository = menuItemRepository;
+        this.imageVariantService = imageVariantService;
+        this.menuSnapshotService = menuSnapshotService;
+    }
+
+    /**
+     * Queues the image once the surrounding transaction commits, or right
+     * away outside of one. An image that failed before is tried again.
+     */
+    public void schedule(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(UploadStore.URL_PREFIX)) {
+            return;
+        }
+        failed.remove(imageUrl);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(imageUrl);
+                }
+            });
+        } else {
+            submit(imageUrl);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            for (String imageUrl : menuItemRepository.findImageUrlsWithoutPlaceholder()) {
+                if (imageUrl.startsWith(UploadStore.URL_PREFIX) && !failed.contains(imageUrl)) {
+                    submit(imageUrl);
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Unable to look up menu images without placeholders", e);
+        }
+    }
+
+    private void submit(String imageUrl) {
+        if (!queued.add(imageUrl)) {
+            return;
+        }
+        try {
+            worker.execute(() -> {
+                queued.remove(imageUrl);
+                if (compute(imageUrl)) {
+                    updated.set(true);
+                }
+                if (worker.getQueue().isEmpty()) {
+                    drained();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(imageUrl);
+            rejected.add(imageUrl);
+        }
+    }
+
+    private void drained() {
+        if (updated.compareAndSet(true, false)) {
+            menuSnapshotService.refreshAfterCommit();
+        }
+        List<String> retry = List.copyOf(rejected);
+        rejected.removeAll(retry);
+        retry.forEach(this::submit);
+    }
+
+    /** Whether any menu item was updated. */
+    private boolean compute(String imageUrl) {
+        Optional<Path> file = imageVariantService.resolveOriginal(imageUrl.substring(UploadStore.URL_PREFIX.length()));
+        if (file.isEmpty()) {
+            failed.add(imageUrl);
+            return false;
+        }
+        ImagePlaceholder placeholder;
+        try {
+            placeholder = imageVariantService.placeholder(file.get());
+        } catch (IOException | RuntimeException e) {
+            failed.add(imageUrl);
+            log.warn("Unable to compute placeholder for {}", imageUrl, e);
+            return false;
+        }
+        try {
+            return menuItemRepository.updateImageMetadata(imageUrl, placeholder.getDataUri(),
+                    placeholder.getWidth(), placeholder.getHeight()) > 0;
+        } catch (DataAccessException e) {
+            log.warn("Unable to store placeholder for {}", imageUrl, e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,438 @@
+package com.mikesgrill.backend;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Resized variants of uploaded JPEG and PNG images. Widths snap to a fixed
+ * set so the cache can't be filled with one file per pixel, and renders run
+ * on a small bounded pool; when that pool is saturated, or a render fails,
+ * the original file is served instead as a {@link Variant#fallback()} that
+ * must not be cached under the variant URL.
+ *
+ * <p>Variants live in their own directory and are evicted least recently
+ * used first once their total size exceeds the configured budget. The
+ * source's modification time is part of each variant name, so replacing an
+ * upload never serves an old variant.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    public static final int[] WIDTHS = {160, 320, 480, 640, 960, 1280, 1920};
+    public static final int DEFAULT_QUALITY = 75;
+    public static final int PLACEHOLDER_WIDTH = 16;
+
+    private static final int PLACEHOLDER_QUALITY = 50;
+
+    private static final long RENDER_TIMEOUT_SECONDS = 30;
+
+    private final Path uploadsDirectory = Paths.get("uploads").toAbsolutePath().normalize();
+    private final Path variantsDirectory;
+    private final long maxBytes;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    // Pixel width of each original version seen, so requests at or above it
+    // skip the render pool without reopening the file
+    private final Map<String, Integer> sourceWidths = new ConcurrentHashMap<>();
+
+    // Access-ordered, so the eldest entry is the least recently served variant
+    private final LinkedHashMap<String, Long> variants = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+    // Not a monitor: the index is checked against the disk while held, and
+    // file I/O inside synchronized pins a virtual thread to its carrier
+    private final ReentrantLock indexLock = new ReentrantLock();
+
+    public ImageVariantService(@Value("${images.variants.dir:data/image-variants}") String variantsDirectory,
+                               @Value("${images.variants.max-bytes:268435456}") long maxBytes,
+                               @Value("${images.resize.threads:2}") int threads,
+                               @Value("${images.resize.queue:16}") int queueCapacity) {
+        this.variantsDirectory = Paths.get(variantsDirectory).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-resize-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PostConstruct
+    public void loadIndex() throws IOException {
+        Files.createDirectories(variantsDirectory);
+        List<Path> existing;
+        try (Stream<Path> files = Files.list(variantsDirectory)) {
+            existing = files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                    .sorted(Comparator.comparingLong(this::lastModified))
+                    .toList();
+        }
+        indexLock.lock();
+        try {
+            for (Path file : existing) {
+                long size = Files.size(file);
+                variants.put(file.getFileName().toString(), size);
+                totalBytes += size;
+            }
+            evict();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Resolves an upload by bare file name, refusing anything that would
+     * step outside the uploads directory.
+     */
+    public Optional<Path> resolveOriginal(String filename) {
+        if (filename.isEmpty() || filename.startsWith(".") || filename.contains("/") || filename.contains("\\")) {
+            return Optional.empty();
+        }
+        Path file = uploadsDirectory.resolve(filename).normalize();
+        if (!uploadsDirectory.equals(file.getParent()) || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * A file to serve for a variant URL. {@code fallback} is set when it is
+     * the original standing in for a render that didn't happen, so it must
+     * not be cached as the variant; an original that is already no wider
+     * than requested is the variant itself.
+     */
+    public record Variant(Path file, boolean fallback) {
+    }
+
+    /**
+     * Returns the variant of {@code original} for the requested width and
+     * quality, rendering it if needed. Concurrent requests for the same
+     * variant share one render.
+     */
+    public Variant variant(Path original, int width, Integer quality) throws IOException {
+        String filename = original.getFileName().toString();
+        String format = formatOf(filename);
+        if (format == null) {
+            return new Variant(original, false);
+        }
+        int snappedWidth = snapWidth(width);
+        int snappedQuality = format.equals("jpeg") ? snapQuality(quality) : 0;
+        long modified = Files.getLastModifiedTime(original).toMillis();
+        Integer sourceWidth = sourceWidths.get(sourceKey(filename, modified));
+        if (sourceWidth != null && sourceWidth <= snappedWidth) {
+            return new Variant(original, false);
+        }
+        String key = variantName(filename, modified, snappedWidth, snappedQuality);
+
+        Path cached = lookup(key);
+        if (cached != null) {
+            return new Variant(cached, false);
+        }
+
+        CompletableFuture<Path> render = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, render);
+        if (existing == null) {
+            try {
+                workers.execute(() -> {
+                    try {
+                        render.complete(render(original, sourceKey(filename, modified), key, format, snappedWidth,
+                                snappedQuality));
+                    } catch (IOException | RuntimeException e) {
+                        render.completeExceptionally(e);
+                    } finally {
+                        inFlight.remove(key, render);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(key, render);
+                return new Variant(original, true);
+            }
+        }
+        CompletableFuture<Path> pending = existing != null ? existing : render;
+        try {
+            Path file = pending.get(RENDER_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return new Variant(file, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Variant(original, true);
+        } catch (ExecutionException e) {
+            log.warn("Unable to resize {} to {}px, serving the original", filename, snappedWidth, e.getCause());
+            return new Variant(original, true);
+        } catch (TimeoutException e) {
+            return new Variant(original, true);
+        }
+    }
+
+    private Path render(Path original, String sourceKey, String key, String format, int width, int quality)
+            throws IOException {
+        BufferedImage source;
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            ImageReader reader = openReader(in, original);
+            try {
+                sourceWidths.put(sourceKey, reader.getWidth(0));
+                if (reader.getWidth(0) <= width) {
+                    // Never upscale
+                    return original;
+                }
+                source = readSubsampled(reader, width);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        BufferedImage scaled = scale(source, width, format.equals("jpeg"));
+        Path temp = Files.createTempFile(variantsDirectory, key, ".tmp");
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                write(scaled, format, quality, out);
+            }
+            Path target = variantsDirectory.resolve(key);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            register(key, Files.size(target));
+            return target;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Intrinsic size of an upload plus a {@value #PLACEHOLDER_WIDTH}px wide
+     * JPEG of it as a data URI, small enough to inline in the menu payload.
+     */
+    public ImagePlaceholder placeholder(Path original) throws IOException {
+        int sourceWidth;
+        int sourceHeight;
+        BufferedImage source;
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            ImageReader reader = openReader(in, original);
+            try {
+                sourceWidth = reader.getWidth(0);
+                sourceHeight = reader.getHeight(0);
+                source = readSubsampled(reader, PLACEHOLDER_WIDTH);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            write(scale(source, PLACEHOLDER_WIDTH, true), "jpeg", PLACEHOLDER_QUALITY, out);
+        }
+        String dataUri = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(bytes.toByteArray());
+        return new ImagePlaceholder(sourceWidth, sourceHeight, dataUri);
+    }
+
+    private ImageReader openReader(ImageInputStream in, Path file) throws IOException {
+        Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+        if (readers == null || !readers.hasNext()) {
+            throw new IOException("No image reader for " + file.getFileName());
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(in, true, true);
+        return reader;
+    }
+
+    /**
+     * Decodes at no more than twice the target width, so a large photo
+     * doesn't have to be held in memory at full size.
+     */
+    private BufferedImage readSubsampled(ImageReader reader, int width) throws IOException {
+        ImageReadParam param = reader.getDefaultReadParam();
+        int subsampling = reader.getWidth(0) / (width * 2);
+        if (subsampling > 1) {
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        }
+        return reader.read(0, param);
+    }
+
+    /**
+     * Halves the image until it is within a factor of two of the target, then
+     * does one final bilinear step; a single bilinear pass from a much larger
+     * image drops most of the source pixels.
+     */
+    private BufferedImage scale(BufferedImage source, int width, boolean opaque) {
+        int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= width) {
+            current = draw(current, current.getWidth() / 2, Math.max(1, current.getHeight() / 2), opaque);
+        }
+        return draw(current, width, height, opaque);
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height, boolean opaque) {
+        BufferedImage target = new BufferedImage(width, height,
+                opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            if (opaque) {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, String format, int quality, ImageOutputStream out) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for " + format);
+        }
+        ImageWriter writer = writers.next();
+        try {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (format.equals("jpeg")) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality / 100f);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private Path lookup(String key) {
+        indexLock.lock();
+        try {
+            if (variants.get(key) == null) {
+                return null;
+            }
+            Path file = variantsDirectory.resolve(key);
+            if (!Files.isRegularFile(file)) {
+                totalBytes -= variants.remove(key);
+                return null;
+            }
+            return file;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private void register(String key, long size) {
+        indexLock.lock();
+        try {
+            Long previous = variants.put(key, size);
+            totalBytes += size - (previous != null ? previous : 0);
+            evict();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = variants.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            try {
+                Files.deleteIfExists(variantsDirectory.resolve(entry.getKey()));
+            } catch (IOException e) {
+                log.warn("Unable to evict image variant {}", entry.getKey(), e);
+                continue;
+            }
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    static int snapWidth(int width) {
+        for (int candidate : WIDTHS) {
+            if (candidate >= width) {
+                return candidate;
+            }
+        }
+        return WIDTHS[WIDTHS.length - 1];
+    }
+
+    static int snapQuality(Integer quality) {
+        if (quality == null) {
+            return DEFAULT_QUALITY;
+        }
+        int clamped = Math.max(40, Math.min(95, quality));
+        return Math.round(clamped / 5f) * 5;
+    }
+
+    private static String formatOf(String filename) {
+        String lower = filename.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) {
+            return "jpeg";
+        }
+        if (lower.endsWith(".png")) {
+            return "png";
+        }
+        return null;
+    }
+
+    private static String sourceKey(String filename, long modified) {
+        return filename + "@" + modified;
+    }
+
+    private static String variantName(String filename, long modified, int width, int quality) {
+        int dot = filename.lastIndexOf('.');
+        String base = filename.substring(0, dot);
+        String extension = filename.substring(dot);
+        return base + "-" + Long.toString(modified, 36) + "-w" + width + (quality > 0 ? "-q" + quality : "")
+                + extension;
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+}
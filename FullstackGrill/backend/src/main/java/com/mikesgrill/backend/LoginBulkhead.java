@@ -0,0 +1,68 @@
+package com.mikesgrill.backend;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs login authentication (the user lookup and the bcrypt check) on a few
+ * dedicated threads with a short queue. A login flood then costs at most
+ * that many cores and database checkouts; attempts beyond the queue are
+ * rejected straight away instead of piling up on Tomcat threads.
+ */
+@Component
+public class LoginBulkhead {
+
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public LoginBulkhead(AuthenticationManager authenticationManager,
+                         @Value("${login.bulkhead.threads:2}") int threads,
+                         @Value("${login.bulkhead.queue:8}") int queueCapacity,
+                         @Value("${login.bulkhead.timeout-ms:5000}") long timeoutMillis) {
+        this.authenticationManager = authenticationManager;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Authenticates on the bulkhead.
+     *
+     * @throws RejectedExecutionException when the bulkhead is saturated or
+     *                                    the attempt waited too long
+     */
+    public Authentication authenticate(Authentication request) throws Exception {
+        Future<Authentication> result = executor.submit(() -> authenticationManager.authenticate(request));
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new RejectedExecutionException("Login timed out in the bulkhead", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,127 @@
+package com.mikesgrill.backend;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets for login attempts, one per client IP and one per username.
+ * The table is split into lock stripes so concurrent attempts for different
+ * keys don't contend. Buckets idle long enough to have refilled are swept,
+ * and each stripe is capped so a flood of distinct keys can't grow it without
+ * bound.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final int STRIPES = 16;
+    private static final int MAX_BUCKETS_PER_STRIPE = 4096;
+    private static final int SWEEP_EVERY = 256;
+
+    private final Limit ipLimit;
+    private final Limit userLimit;
+    private final long idleNanos;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public LoginThrottle(@Value("${login.throttle.ip.capacity:20}") int ipCapacity,
+                         @Value("${login.throttle.ip.per-minute:10}") int ipPerMinute,
+                         @Value("${login.throttle.user.capacity:5}") int userCapacity,
+                         @Value("${login.throttle.user.per-minute:5}") int userPerMinute) {
+        this.ipLimit = new Limit(ipCapacity, ipPerMinute);
+        this.userLimit = new Limit(userCapacity, userPerMinute);
+        this.idleNanos = Math.max(ipLimit.fullAfterNanos, userLimit.fullAfterNanos);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Takes one token from the client's bucket and then the username's.
+     * Returns 0 when the attempt may proceed, otherwise the number of seconds
+     * until the exhausted bucket has a token again.
+     */
+    public long tryAcquire(String clientIp, String username) {
+        long now = System.nanoTime();
+        long wait = acquire("ip:" + clientIp, ipLimit, now);
+        if (wait > 0) {
+            return wait;
+        }
+        String user = username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+        return acquire("user:" + user, userLimit, now);
+    }
+
+    private long acquire(String key, Limit limit, long now) {
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), STRIPES)];
+        stripe.lock.lock();
+        try {
+            if (++stripe.operations % SWEEP_EVERY == 0) {
+                stripe.sweep(now, idleNanos);
+            }
+            Bucket bucket = stripe.buckets.computeIfAbsent(key, k -> new Bucket(limit.capacity, now));
+            bucket.refill(limit, now);
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            double missing = 1 - bucket.tokens;
+            return Math.max(1, (long) Math.ceil(missing / limit.tokensPerNano / TimeUnit.SECONDS.toNanos(1)));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static final class Limit {
+        private final int capacity;
+        private final double tokensPerNano;
+        private final long fullAfterNanos;
+
+        private Limit(int capacity, int perMinute) {
+            this.capacity = capacity;
+            this.tokensPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.fullAfterNanos = (long) Math.ceil(capacity / tokensPerNano);
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.updatedAt = now;
+        }
+
+        private void refill(Limit limit, long now) {
+            tokens = Math.min(limit.capacity, tokens + (now - updatedAt) * limit.tokensPerNano);
+            updatedAt = now;
+        }
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Bucket> buckets = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > MAX_BUCKETS_PER_STRIPE;
+            }
+        };
+        private long operations;
+
+        // A bucket untouched for longer than its refill time is full again,
+        // so dropping it changes nothing for the next attempt
+        private void sweep(long now, long idleNanos) {
+            Iterator<Bucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().updatedAt > idleNanos) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package com.mikesgrill.backend;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -15,15 +17,24 @@ import java.util.List;
 public class MenuCategoryController {
 
     private final MenuCategoryService menuCategoryService;
+    private final MenuSnapshotService menuSnapshotService;
+    private final MenuPayloadCache menuPayloadCache;
 
     @Autowired
-    public MenuCategoryController(MenuCategoryService menuCategoryService) {
+    public MenuCategoryController(MenuCategoryService menuCategoryService,
+                                  MenuSnapshotService menuSnapshotService,
+                                  MenuPayloadCache menuPayloadCache) {
         this.menuCategoryService = menuCategoryService;
+        this.menuSnapshotService = menuSnapshotService;
+        this.menuPayloadCache = menuPayloadCache;
     }
 
     @GetMapping("/api/public/categories")
-    public List<MenuCategory> getPublicCategories() {
-        return menuCategoryService.getAllCategories();
+    public ResponseEntity<byte[]> getPublicCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        SerializedPayload payload = menuPayloadCache.categories(menuSnapshotService.current());
+        return ConditionalGet.respond(ifNoneMatch, acceptEncoding, payload, ConditionalGet.CATEGORIES_POLICY);
     }
 
     @GetMapping("/api/admin/categories")
@@ -41,6 +52,20 @@ public class MenuCategoryController {
         }
     }
 
+    /**
+     * Bulk create/update/delete plus an optional full reorder, in one
+     * transaction (see {@link MenuCategoryService#applyBulk}).
+     */
+    @PostMapping("/api/admin/categories/bulk")
+    public ResponseEntity<Object> applyBulk(@RequestBody BulkRequest<MenuCategory> request) {
+        if (request.getOperations() == null || request.getOperations().size() > BulkRequest.MAX_OPERATIONS) {
+            return ResponseEntity.badRequest()
+                    .body("{\"error\": \"Between 0 and " + BulkRequest.MAX_OPERATIONS + " operations per request\"}");
+        }
+        BulkResponse response = menuCategoryService.applyBulk(request);
+        return ResponseEntity.status(response.httpStatus()).body(response);
+    }
+
     @PutMapping("/api/admin/categories/{id}")
     public ResponseEntity<MenuCategory> updateCategory(@PathVariable Long id, @RequestBody MenuCategory category) {
         return menuCategoryService.updateCategory(id, category)
@@ -1,24 +1,39 @@
 package com.mikesgrill.backend;
 
-import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class MenuCategoryService {
 
     private final MenuCategoryRepository menuCategoryRepository;
     private final MenuItemRepository menuItemRepository;
+    private final MenuSnapshotService menuSnapshotService;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchInsert batchInsert;
 
     @Autowired
     public MenuCategoryService(MenuCategoryRepository menuCategoryRepository,
-                               MenuItemRepository menuItemRepository) {
+                               MenuItemRepository menuItemRepository,
+                               MenuSnapshotService menuSnapshotService,
+                               TransactionTemplate transactionTemplate,
+                               BatchInsert batchInsert) {
         this.menuCategoryRepository = menuCategoryRepository;
         this.menuItemRepository = menuItemRepository;
+        this.menuSnapshotService = menuSnapshotService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchInsert = batchInsert;
     }
 
     public List<MenuCategory> getAllCategories() {
@@ -36,11 +51,13 @@ public class MenuCategoryService {
                     .orElse(0) + 1;
             category.setSortOrder(nextOrder);
         }
-        return menuCategoryRepository.save(category);
+        MenuCategory saved = menuCategoryRepository.save(category);
+        menuSnapshotService.refreshAfterCommit(ContentVersions.MENU_CATEGORY, saved.getId());
+        return saved;
     }
 
     public Optional<MenuCategory> updateCategory(Long id, MenuCategory incoming) {
-        return menuCategoryRepository.findById(id).map(existing -> {
+        Optional<MenuCategory> updated = menuCategoryRepository.findById(id).map(existing -> {
             String oldName = existing.getName();
             if (incoming.getName() != null && !incoming.getName().isBlank()) {
                 existing.setName(incoming.getName().trim());
@@ -50,20 +67,157 @@ public class MenuCategoryService {
             }
             return menuCategoryRepository.save(existing);
         });
+        updated.ifPresent(category ->
+                menuSnapshotService.refreshAfterCommit(ContentVersions.MENU_CATEGORY, category.getId()));
+        return updated;
     }
 
-    @PostConstruct
+    /**
+     * Applies the operations and then the optional {@code order} in one
+     * transaction, or nothing when any of them fails. Listed ids get sort
+     * orders 1..n; categories left out (including ones created here) follow
+     * in their previous order. A category that still has items can't be
+     * deleted.
+     */
+    public BulkResponse applyBulk(BulkRequest<MenuCategory> request) {
+        List<BulkOperation<MenuCategory>> operations = request.getOperations();
+        List<BulkResult> results = new ArrayList<>(operations.size() + 1);
+        Boolean applied = transactionTemplate.execute(status -> {
+            Map<Long, MenuCategory> categories = new LinkedHashMap<>();
+            for (MenuCategory category : menuCategoryRepository.findAllByOrderBySortOrderAsc()) {
+                categories.put(category.getId(), category);
+            }
+            Set<Long> deleteIds = new HashSet<>();
+            for (BulkOperation<MenuCategory> operation : operations) {
+                if (BulkOperation.DELETE.equals(operation.getOp()) && operation.getId() != null) {
+                    deleteIds.add(operation.getId());
+                }
+            }
+            Set<Long> inUse = deleteIds.isEmpty()
+                    ? Set.of() : new HashSet<>(menuItemRepository.findCategoryIdsInUse(deleteIds));
+            int nextOrder = categories.values().stream()
+                    .map(MenuCategory::getSortOrder).filter(order -> order != null)
+                    .max(Integer::compare).orElse(0) + 1;
+
+            List<MenuCategory> saves = new ArrayList<>();
+            List<BulkResult> saveResults = new ArrayList<>();
+            Set<MenuCategory> deletes = new HashSet<>();
+            boolean failed = false;
+            for (int i = 0; i < operations.size(); i++) {
+                BulkOperation<MenuCategory> operation = operations.get(i);
+                String op = operation.getOp();
+                MenuCategory value = operation.getValue();
+                MenuCategory existing = operation.getId() == null ? null : categories.get(operation.getId());
+                BulkResult result;
+                if (!BulkOperation.CREATE.equals(op) && !BulkOperation.UPDATE.equals(op)
+                        && !BulkOperation.DELETE.equals(op)) {
+                    result = new BulkResult(i, op, operation.getId(), 400, "Unknown operation");
+                } else if (BulkOperation.CREATE.equals(op) && operation.getId() != null) {
+                    // Never turn a retried or stale create into an overwrite
+                    result = new BulkResult(i, op, operation.getId(), 400, "Id not allowed on create");
+                } else if (!BulkOperation.CREATE.equals(op) && existing == null) {
+                    result = new BulkResult(i, op, operation.getId(), 404, "Category not found");
+                } else if (deletes.contains(existing) || BulkOperation.DELETE.equals(op) && saves.contains(existing)) {
+                    result = new BulkResult(i, op, operation.getId(), 409, "Category is also deleted in this request");
+                } else if (BulkOperation.DELETE.equals(op)) {
+                    if (inUse.contains(existing.getId())) {
+                        result = new BulkResult(i, op, operation.getId(), 409, "Category still has menu items");
+                    } else {
+                        deletes.add(existing);
+                        result = new BulkResult(i, op, operation.getId(), 204, null);
+                    }
+                } else if (value == null
+                        || BulkOperation.CREATE.equals(op) && (value.getName() == null || value.getName().isBlank())) {
+                    result = new BulkResult(i, op, operation.getId(), 400, "Category name is required");
+                } else {
+                    MenuCategory target = existing != null ? existing : new MenuCategory();
+                    if (value.getName() != null && !value.getName().isBlank()) {
+                        target.setName(value.getName().trim());
+                    }
+                    if (value.getSortOrder() != null) {
+                        target.setSortOrder(value.getSortOrder());
+                    } else if (existing == null) {
+                        target.setSortOrder(nextOrder++);
+                    }
+                    result = new BulkResult(i, op, operation.getId(), existing != null ? 200 : 201, null);
+                    saves.add(target);
+                    saveResults.add(result);
+                }
+                failed |= result.failed();
+                results.add(result);
+            }
+
+            if (request.getOrder() != null) {
+                BulkResult result = reorder(operations.size(), request.getOrder(), categories, deletes, saves);
+                failed |= result.failed();
+                results.add(result);
+            }
+            if (failed) {
+                status.setRollbackOnly();
+                return false;
+            }
+
+            // Updates and the reorder are flushed as one JDBC batch at commit
+            batchInsert.insert(MenuCategory.class, saves.stream().filter(category -> category.getId() == null).toList());
+            menuCategoryRepository.deleteAllInBatch(deletes);
+            for (int i = 0; i < saveResults.size(); i++) {
+                saveResults.get(i).setId(saves.get(i).getId());
+            }
+            // One rebuild and one version bump for the whole batch
+            menuSnapshotService.refreshAfterCommit();
+            return true;
+        });
+        return new BulkResponse(Boolean.TRUE.equals(applied), results);
+    }
+
+    private BulkResult reorder(int index, List<Long> order, Map<Long, MenuCategory> categories,
+                               Set<MenuCategory> deletes, List<MenuCategory> saves) {
+        Set<MenuCategory> listed = new HashSet<>();
+        for (Long id : order) {
+            MenuCategory category = categories.get(id);
+            if (category == null || deletes.contains(category)) {
+                return new BulkResult(index, "reorder", id, 404, "Category not found");
+            }
+            if (!listed.add(category)) {
+                return new BulkResult(index, "reorder", id, 400, "Category listed twice");
+            }
+        }
+        List<MenuCategory> rest = new ArrayList<>();
+        for (MenuCategory category : categories.values()) {
+            if (!listed.contains(category) && !deletes.contains(category)) {
+                rest.add(category);
+            }
+        }
+        for (MenuCategory category : saves) {
+            if (category.getId() == null && !rest.contains(category)) {
+                rest.add(category);
+            }
+        }
+        rest.sort(Comparator.comparing(MenuCategory::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        int sortOrder = 1;
+        for (Long id : order) {
+            categories.get(id).setSortOrder(sortOrder++);
+        }
+        for (MenuCategory category : rest) {
+            category.setSortOrder(sortOrder++);
+        }
+        return new BulkResult(index, "reorder", null, 200, null);
+    }
+
+    /** Run by {@link DatabaseInitializer} once the database is reachable. */
     public void ensureDefaultCategories() {
         if (menuCategoryRepository.count() == 0) {
             List<String> defaults = Arrays.asList(
                 "Breakfast", "Drinks", "Desserts", "Sandwiches",
                 "Extras", "Sides", "Dinner", "Kids", "Salads"
             );
+            List<MenuCategory> categories = new ArrayList<>();
             int order = 1;
             for (String name : defaults) {
-                MenuCategory category = new MenuCategory(name, order++);
-                menuCategoryRepository.save(category);
+                categories.add(new MenuCategory(name, order++));
             }
+            batchInsert.insert(MenuCategory.class, categories);
         }
     }
 }
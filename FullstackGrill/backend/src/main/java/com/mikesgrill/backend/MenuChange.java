@@ -0,0 +1,47 @@
+package com.mikesgrill.backend;
+
+/**
+ * One entry of the {@link MenuChangeLog}: the latest thing that happened to
+ * a menu item or category. value is the item or category as of that
+ * version, or null for a deletion (a tombstone). Clients apply created and
+ * updated the same way, as an upsert by id.
+ */
+public class MenuChange {
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+
+    private final long version;
+    private final String type;
+    private final Long id;
+    private final String op;
+    private final Object value;
+
+    public MenuChange(long version, String type, Long id, String op, Object value) {
+        this.version = version;
+        this.type = type;
+        this.id = id;
+        this.op = op;
+        this.value = value;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,209 @@
+package com.mikesgrill.backend;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Change log of menu items and categories, so a client holding the menu can
+ * fetch just what changed since its version. Entries are derived by diffing
+ * each new {@link MenuSnapshot} against the previous one, which covers every
+ * write path (single edits, bulk, reorders) without hooks in the services.
+ *
+ * <p>The log is compacted: only the latest change per item or category is
+ * kept, which is all a client needs to catch up, so it never grows past the
+ * menu plus its tombstones. The oldest tombstones are dropped beyond
+ * {@code menu.changes.max-tombstones}; a client whose cursor is older than
+ * a dropped tombstone (or from before this JVM started) gets the full menu.
+ */
+@Component
+public class MenuChangeLog {
+
+    private final MenuSnapshotService menuSnapshotService;
+    private final ContentVersions contentVersions;
+    private final int maxTombstones;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock. Sequence numbers order entries; several share a version
+    private final TreeMap<Long, MenuChange> bySequence = new TreeMap<>();
+    private final Map<String, Long> sequenceByKey = new HashMap<>();
+    private long lastSequence;
+    private int tombstones;
+    private MenuSnapshot logged;
+    private long oldestServable;
+
+    public MenuChangeLog(MenuSnapshotService menuSnapshotService, ContentVersions contentVersions,
+                         @Value("${menu.changes.max-tombstones:1000}") int maxTombstones) {
+        this.menuSnapshotService = menuSnapshotService;
+        this.contentVersions = contentVersions;
+        this.maxTombstones = maxTombstones;
+    }
+
+    @EventListener
+    public void onContentChanged(ContentChangedEvent event) {
+        if (ContentVersions.MENU.equals(event.getResource())) {
+            sync(menuSnapshotService.current());
+        }
+    }
+
+    /**
+     * Changes after the given cursor in the order they happened, or the full
+     * menu when the cursor is missing, malformed, from another run or
+     * compacted away.
+     */
+    public MenuChanges changesSince(String since) {
+        sync(menuSnapshotService.current());
+        lock.readLock().lock();
+        try {
+            String version = contentVersions.getEpoch() + "." + logged.getVersion();
+            Long from = parseCursor(since);
+            if (from == null || from < oldestServable || from > logged.getVersion()) {
+                return MenuChanges.full(version, logged);
+            }
+            List<MenuChange> changes = new ArrayList<>();
+            for (MenuChange change : bySequence.descendingMap().values()) {
+                if (change.getVersion() <= from) {
+                    break;
+                }
+                changes.add(change);
+            }
+            Collections.reverse(changes);
+            return MenuChanges.delta(version, changes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Long parseCursor(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        int dot = cursor.indexOf('.');
+        if (dot < 0 || !cursor.substring(0, dot).equals(contentVersions.getEpoch())) {
+            return null;
+        }
+        try {
+            return Long.parseLong(cursor.substring(dot + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    void sync(MenuSnapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            if (logged == null) {
+                logged = snapshot;
+                oldestServable = snapshot.getVersion();
+                return;
+            }
+            if (snapshot.getVersion() <= logged.getVersion()) {
+                return;
+            }
+            long version = snapshot.getVersion();
+
+            Map<Long, MenuCategory> previousCategories = new LinkedHashMap<>();
+            logged.getCategories().forEach(category -> previousCategories.put(category.getId(), category));
+            for (MenuCategory category : snapshot.getCategories()) {
+                MenuCategory previous = previousCategories.remove(category.getId());
+                if (previous == null) {
+                    record(version, ContentVersions.MENU_CATEGORY, category.getId(), MenuChange.CREATED, category);
+                } else if (!sameCategory(previous, category)) {
+                    record(version, ContentVersions.MENU_CATEGORY, category.getId(), MenuChange.UPDATED, category);
+                }
+            }
+            for (Long id : previousCategories.keySet()) {
+                record(version, ContentVersions.MENU_CATEGORY, id, MenuChange.DELETED, null);
+            }
+
+            Map<Long, MenuItem> previousItems = new LinkedHashMap<>();
+            logged.getItems().forEach(item -> previousItems.put(item.getId(), item));
+            for (MenuItem item : snapshot.getItems()) {
+                MenuItem previous = previousItems.remove(item.getId());
+                if (previous == null) {
+                    record(version, ContentVersions.MENU_ITEM, item.getId(), MenuChange.CREATED, item);
+                } else if (!sameItem(previous, item)) {
+                    record(version, ContentVersions.MENU_ITEM, item.getId(), MenuChange.UPDATED, item);
+                }
+            }
+            for (Long id : previousItems.keySet()) {
+                record(version, ContentVersions.MENU_ITEM, id, MenuChange.DELETED, null);
+            }
+
+            logged = snapshot;
+            dropOldTombstones();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the entity's previous entry. An item created and then edited
+     * since a cursor is still new to that client, so it stays "created".
+     */
+    private void record(long version, String type, Long id, String op, Object value) {
+        String key = type + ":" + id;
+        Long previousSequence = sequenceByKey.remove(key);
+        if (previousSequence != null) {
+            MenuChange previous = bySequence.remove(previousSequence);
+            if (MenuChange.DELETED.equals(previous.getOp())) {
+                tombstones--;
+            } else if (MenuChange.CREATED.equals(previous.getOp()) && MenuChange.UPDATED.equals(op)) {
+                op = MenuChange.CREATED;
+            }
+        }
+        if (MenuChange.DELETED.equals(op)) {
+            tombstones++;
+        }
+        long sequence = ++lastSequence;
+        bySequence.put(sequence, new MenuChange(version, type, id, op, value));
+        sequenceByKey.put(key, sequence);
+    }
+
+    private void dropOldTombstones() {
+        Iterator<MenuChange> entries = bySequence.values().iterator();
+        while (tombstones > maxTombstones && entries.hasNext()) {
+            MenuChange change = entries.next();
+            if (MenuChange.DELETED.equals(change.getOp())) {
+                entries.remove();
+                sequenceByKey.remove(change.getType() + ":" + change.getId());
+                tombstones--;
+                // Cursors before this deletion would never hear about it
+                oldestServable = Math.max(oldestServable, change.getVersion());
+            }
+        }
+    }
+
+    private static boolean sameCategory(MenuCategory a, MenuCategory b) {
+        return Objects.equals(a.getName(), b.getName()) && Objects.equals(a.getSortOrder(), b.getSortOrder());
+    }
+
+    /**
+     * Items carry their category, so a renamed category also changes its
+     * items.
+     */
+    private static boolean sameItem(MenuItem a, MenuItem b) {
+        return Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && Objects.equals(a.getPrice(), b.getPrice())
+                && Objects.equals(a.getImageUrl(), b.getImageUrl())
+                && a.isFeatured() == b.isFeatured()
+                && Objects.equals(a.getImagePlaceholder(), b.getImagePlaceholder())
+                && Objects.equals(a.getImageWidth(), b.getImageWidth())
+                && Objects.equals(a.getImageHeight(), b.getImageHeight())
+                && (a.getCategory() == null ? b.getCategory() == null
+                    : b.getCategory() != null && Objects.equals(a.getCategory().getId(), b.getCategory().getId())
+                        && sameCategory(a.getCategory(), b.getCategory()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.mikesgrill.backend;
+
+import java.util.List;
+
+/**
+ * Response of {@code /api/public/menu/changes}. Either the changes since the
+ * client's cursor, or (full) the whole menu when the cursor can't be served
+ * from the log. version is the cursor to send next time.
+ */
+public class MenuChanges {
+    private final String version;
+    private final boolean full;
+    private final List<MenuChange> changes;
+    private final List<MenuCategory> categories;
+    private final List<MenuItem> items;
+
+    private MenuChanges(String version, boolean full, List<MenuChange> changes, List<MenuCategory> categories,
+                        List<MenuItem> items) {
+        this.version = version;
+        this.full = full;
+        this.changes = changes;
+        this.categories = categories;
+        this.items = items;
+    }
+
+    public static MenuChanges delta(String version, List<MenuChange> changes) {
+        return new MenuChanges(version, false, changes, null, null);
+    }
+
+    public static MenuChanges full(String version, MenuSnapshot snapshot) {
+        return new MenuChanges(version, true, null, snapshot.getCategories(), snapshot.getItems());
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public List<MenuChange> getChanges() {
+        return changes;
+    }
+
+    public List<MenuCategory> getCategories() {
+        return categories;
+    }
+
+    public List<MenuItem> getItems() {
+        return items;
+    }
+}
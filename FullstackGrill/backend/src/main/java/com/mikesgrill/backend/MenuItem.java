@@ -1,5 +1,6 @@
 package com.mikesgrill.backend;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -27,6 +28,12 @@ public class MenuItem {
     
     private boolean featured;
 
+    // Filled in in the background by ImagePlaceholderService after imageUrl changes
+    @Column(length = 2048)
+    private String imagePlaceholder;
+    private Integer imageWidth;
+    private Integer imageHeight;
+
     // Constructors
     public MenuItem() {}
 
@@ -95,4 +102,28 @@ public class MenuItem {
     public void setFeatured(boolean featured) {
         this.featured = featured;
     }
-}
\ No newline at end of file
+
+    public String getImagePlaceholder() {
+        return imagePlaceholder;
+    }
+
+    public void setImagePlaceholder(String imagePlaceholder) {
+        this.imagePlaceholder = imagePlaceholder;
+    }
+
+    public Integer getImageWidth() {
+        return imageWidth;
+    }
+
+    public void setImageWidth(Integer imageWidth) {
+        this.imageWidth = imageWidth;
+    }
+
+    public Integer getImageHeight() {
+        return imageHeight;
+    }
+
+    public void setImageHeight(Integer imageHeight) {
+        this.imageHeight = imageHeight;
+    }
+}
@@ -1,12 +1,54 @@
 package com.mikesgrill.backend;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+// Every read pulls the category in the same select; without the entity graph
+// the eager @ManyToOne costs one extra query per distinct category.
 @Repository
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<MenuItem> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Optional<MenuItem> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<MenuItem> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(attributePaths = "category")
     List<MenuItem> findByCategoryId(Long categoryId);
+
+    @EntityGraph(attributePaths = "category")
     List<MenuItem> findByFeatured(boolean featured);
+
+    @Query("select distinct m.category.id from MenuItem m where m.category.id in :categoryIds")
+    List<Long> findCategoryIdsInUse(@Param("categoryIds") Collection<Long> categoryIds);
+
+    @Query("select m.imageUrl from MenuItem m where m.imageUrl is not null")
+    List<String> findAllImageUrls();
+
+    @Query("select distinct m.imageUrl from MenuItem m where m.imageUrl is not null and m.imagePlaceholder is null")
+    List<String> findImageUrlsWithoutPlaceholder();
+
+    // Keyed on the URL rather than the item, so items sharing an image are
+    // updated together and an item whose image changed meanwhile is skipped
+    @Transactional
+    @Modifying
+    @Query("update MenuItem m set m.imagePlaceholder = :placeholder, m.imageWidth = :width, m.imageHeight = :height"
+            + " where m.imageUrl = :imageUrl")
+    int updateImageMetadata(@Param("imageUrl") String imageUrl, @Param("placeholder") String placeholder,
+                            @Param("width") Integer width, @Param("height") Integer height);
 }
@@ -2,9 +2,16 @@ package com.mikesgrill.backend;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class MenuItemService {
@@ -12,6 +19,21 @@ public class MenuItemService {
     @Autowired
     private MenuItemRepository menuItemRepository;
 
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
+    @Autowired
+    private ImagePlaceholderService imagePlaceholderService;
+
+    @Autowired
+    private MenuCategoryRepository menuCategoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BatchInsert batchInsert;
+
     public List<MenuItem> getAllMenuItems() {
         return menuItemRepository.findAll();
     }
@@ -29,31 +51,169 @@ public class MenuItemService {
     }
 
     public MenuItem saveMenuItem(MenuItem menuItem) {
-        return menuItemRepository.save(menuItem);
+        clearImageMetadata(menuItem);
+        MenuItem saved = menuItemRepository.save(menuItem);
+        menuSnapshotService.refreshAfterCommit(ContentVersions.MENU_ITEM, saved.getId());
+        imagePlaceholderService.schedule(saved.getImageUrl());
+        return saved;
     }
 
     public MenuItem addMenuItem(MenuItem menuItem) {
-        return menuItemRepository.save(menuItem);
+        clearImageMetadata(menuItem);
+        MenuItem saved = menuItemRepository.save(menuItem);
+        menuSnapshotService.refreshAfterCommit(ContentVersions.MENU_ITEM, saved.getId());
+        imagePlaceholderService.schedule(saved.getImageUrl());
+        return saved;
     }
 
     public Optional<MenuItem> updateMenuItem(Long id, MenuItem newItem) {
-        return menuItemRepository.findById(id)
+        Optional<MenuItem> updated = menuItemRepository.findById(id)
                 .map(existingItem -> {
                     existingItem.setName(newItem.getName());
                     existingItem.setDescription(newItem.getDescription());
                     existingItem.setPrice(newItem.getPrice());
+                    if (!Objects.equals(existingItem.getImageUrl(), newItem.getImageUrl())) {
+                        clearImageMetadata(existingItem);
+                    }
                     existingItem.setImageUrl(newItem.getImageUrl());
                     existingItem.setCategory(newItem.getCategory());
                     existingItem.setFeatured(newItem.isFeatured());
                     return menuItemRepository.save(existingItem);
                 });
+        updated.ifPresent(item -> {
+            menuSnapshotService.refreshAfterCommit(ContentVersions.MENU_ITEM, item.getId());
+            if (item.getImagePlaceholder() == null) {
+                imagePlaceholderService.schedule(item.getImageUrl());
+            }
+        });
+        return updated;
+    }
+
+    /**
+     * Applies every operation in one transaction, or none of them when any
+     * fails. Rows are loaded with one query per table; creates go out as one
+     * {@link BatchInsert}, updates as Hibernate JDBC batches at flush, and the
+     * menu snapshot is rebuilt once after commit.
+     */
+    public BulkResponse applyBulk(List<BulkOperation<MenuItem>> operations) {
+        List<BulkResult> results = new ArrayList<>(operations.size());
+        Boolean applied = transactionTemplate.execute(status -> {
+            Set<Long> itemIds = new HashSet<>();
+            Set<Long> categoryIds = new HashSet<>();
+            for (BulkOperation<MenuItem> operation : operations) {
+                if (operation.getId() != null) {
+                    itemIds.add(operation.getId());
+                }
+                if (operation.getValue() != null && operation.getValue().getCategory() != null) {
+                    categoryIds.add(operation.getValue().getCategory().getId());
+                }
+            }
+            Map<Long, MenuItem> items = new HashMap<>();
+            for (MenuItem item : menuItemRepository.findAllById(itemIds)) {
+                items.put(item.getId(), item);
+            }
+            Map<Long, MenuCategory> categories = new HashMap<>();
+            for (MenuCategory category : menuCategoryRepository.findAllById(categoryIds)) {
+                categories.put(category.getId(), category);
+            }
+
+            List<MenuItem> saves = new ArrayList<>();
+            List<BulkResult> saveResults = new ArrayList<>();
+            Set<MenuItem> deletes = new HashSet<>();
+            boolean failed = false;
+            for (int i = 0; i < operations.size(); i++) {
+                BulkOperation<MenuItem> operation = operations.get(i);
+                String op = operation.getOp();
+                MenuItem existing = operation.getId() == null ? null : items.get(operation.getId());
+                BulkResult result;
+                String error;
+                if (!BulkOperation.CREATE.equals(op) && !BulkOperation.UPDATE.equals(op)
+                        && !BulkOperation.DELETE.equals(op)) {
+                    result = new BulkResult(i, op, operation.getId(), 400, "Unknown operation");
+                } else if (BulkOperation.CREATE.equals(op) && operation.getId() != null) {
+                    // Never turn a retried or stale create into an overwrite
+                    result = new BulkResult(i, op, operation.getId(), 400, "Id not allowed on create");
+                } else if (!BulkOperation.CREATE.equals(op) && existing == null) {
+                    result = new BulkResult(i, op, operation.getId(), 404, "Menu item not found");
+                } else if (deletes.contains(existing) || BulkOperation.DELETE.equals(op) && saves.contains(existing)) {
+                    result = new BulkResult(i, op, operation.getId(), 409, "Menu item is also deleted in this request");
+                } else if (BulkOperation.DELETE.equals(op)) {
+                    deletes.add(existing);
+                    result = new BulkResult(i, op, operation.getId(), 204, null);
+                } else if ((error = invalid(operation.getValue(), categories)) != null) {
+                    result = new BulkResult(i, op, operation.getId(), 400, error);
+                } else {
+                    MenuItem target = existing != null ? existing : new MenuItem();
+                    copy(operation.getValue(), target, categories);
+                    result = new BulkResult(i, op, operation.getId(), existing != null ? 200 : 201, null);
+                    saves.add(target);
+                    saveResults.add(result);
+                }
+                failed |= result.failed();
+                results.add(result);
+            }
+            if (failed) {
+                status.setRollbackOnly();
+                return false;
+            }
+
+            batchInsert.insert(MenuItem.class, saves.stream().filter(item -> item.getId() == null).toList());
+            menuItemRepository.deleteAllInBatch(deletes);
+            for (int i = 0; i < saves.size(); i++) {
+                MenuItem item = saves.get(i);
+                saveResults.get(i).setId(item.getId());
+                if (item.getImagePlaceholder() == null) {
+                    imagePlaceholderService.schedule(item.getImageUrl());
+                }
+            }
+            // One rebuild and one version bump for the whole batch
+            menuSnapshotService.refreshAfterCommit();
+            return true;
+        });
+        return new BulkResponse(Boolean.TRUE.equals(applied), results);
+    }
+
+    private static String invalid(MenuItem value, Map<Long, MenuCategory> categories) {
+        if (value == null) {
+            return "Missing value";
+        }
+        if (value.getName() == null || value.getName().isBlank()) {
+            return "Name is required";
+        }
+        if (value.getPrice() == null || value.getPrice() < 0) {
+            return "Price is required";
+        }
+        if (value.getCategory() == null || !categories.containsKey(value.getCategory().getId())) {
+            return "Unknown category";
+        }
+        return null;
+    }
+
+    private void copy(MenuItem from, MenuItem to, Map<Long, MenuCategory> categories) {
+        if (!Objects.equals(to.getImageUrl(), from.getImageUrl())) {
+            clearImageMetadata(to);
+        }
+        to.setName(from.getName());
+        to.setDescription(from.getDescription());
+        to.setPrice(from.getPrice());
+        to.setImageUrl(from.getImageUrl());
+        to.setCategory(categories.get(from.getCategory().getId()));
+        to.setFeatured(from.isFeatured());
     }
 
     public boolean deleteMenuItem(Long id) {
         if (menuItemRepository.existsById(id)) {
             menuItemRepository.deleteById(id);
+            menuSnapshotService.refreshAfterCommit(ContentVersions.MENU_ITEM, id);
             return true;
         }
         return false;
     }
-}
\ No newline at end of file
+
+    // Placeholder and size always come from ImagePlaceholderService, never the client
+    private void clearImageMetadata(MenuItem menuItem) {
+        menuItem.setImagePlaceholder(null);
+        menuItem.setImageWidth(null);
+        menuItem.setImageHeight(null);
+    }
+}
@@ -0,0 +1,91 @@
+package com.mikesgrill.backend;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Serialized public menu bodies for the current {@link MenuSnapshot}. Each
+ * body is produced at most once per snapshot version; a new version simply
+ * replaces the whole table.
+ */
+@Component
+public class MenuPayloadCache {
+
+    private final ObjectMapper objectMapper;
+    private final ContentVersions contentVersions;
+
+    private volatile VersionedPayloads payloads = new VersionedPayloads(-1);
+
+    public MenuPayloadCache(ObjectMapper objectMapper, ContentVersions contentVersions) {
+        this.objectMapper = objectMapper;
+        this.contentVersions = contentVersions;
+    }
+
+    public SerializedPayload items(MenuSnapshot snapshot) {
+        return payload(snapshot, ContentVersions.MENU, snapshot.getItems());
+    }
+
+    /** The items in {@link CompactMenuCodec} form rather than JSON. */
+    public SerializedPayload compactItems(MenuSnapshot snapshot) {
+        String key = "menu-compact";
+        return cached(snapshot, key, () -> SerializedPayload.of(CompactMenuCodec.encode(snapshot),
+                contentVersions.etag(key, snapshot.getVersion()), CompactMenuCodec.MEDIA_TYPE));
+    }
+
+    public SerializedPayload featured(MenuSnapshot snapshot) {
+        return payload(snapshot, "featured", snapshot.getFeatured());
+    }
+
+    public SerializedPayload categories(MenuSnapshot snapshot) {
+        return payload(snapshot, "categories", snapshot.getCategories());
+    }
+
+    public SerializedPayload category(MenuSnapshot snapshot, Long categoryId) {
+        List<MenuItem> items = snapshot.getItemsByCategory(categoryId);
+        String key = "category-" + categoryId;
+        if (items.isEmpty()) {
+            // Unknown ids are not cached so arbitrary paths cannot grow the table
+            return serialize(key, snapshot.getVersion(), items);
+        }
+        return payload(snapshot, key, items);
+    }
+
+    private SerializedPayload payload(MenuSnapshot snapshot, String key, Object body) {
+        return cached(snapshot, key, () -> serialize(key, snapshot.getVersion(), body));
+    }
+
+    private SerializedPayload cached(MenuSnapshot snapshot, String key, Supplier<SerializedPayload> build) {
+        VersionedPayloads table = payloads;
+        if (table.version < snapshot.getVersion()) {
+            table = new VersionedPayloads(snapshot.getVersion());
+            payloads = table;
+        } else if (table.version > snapshot.getVersion()) {
+            // A reader still holding an older snapshot; answer it without caching
+            return build.get();
+        }
+        return table.entries.computeIfAbsent(key, k -> build.get());
+    }
+
+    private SerializedPayload serialize(String key, long version, Object body) {
+        try {
+            return SerializedPayload.of(objectMapper.writeValueAsBytes(body), contentVersions.etag(key, version));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize menu payload " + key, e);
+        }
+    }
+
+    private static final class VersionedPayloads {
+        private final long version;
+        private final Map<String, SerializedPayload> entries = new ConcurrentHashMap<>();
+
+        private VersionedPayloads(long version) {
+            this.version = version;
+        }
+    }
+}
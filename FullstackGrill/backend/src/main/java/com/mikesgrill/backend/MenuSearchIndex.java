@@ -0,0 +1,440 @@
+package com.mikesgrill.backend;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over menu item names and descriptions for the public
+ * search. Terms are case- and accent-folded; a query term matches a
+ * document term exactly, as a prefix, or within one edit (looked up through
+ * a deletion index, so typo matching never scans the vocabulary). Every
+ * query term has to match; name hits outrank description hits and exact
+ * hits outrank prefix and typo hits.
+ *
+ * <p>The index follows the {@link MenuSnapshot}: when a new menu version is
+ * announced it diffs the snapshot against what it holds and only
+ * re-tokenizes items whose text changed, so an admin edit costs one item.
+ */
+@Component
+public class MenuSearchIndex {
+
+    public static final int MAX_RESULTS = 50;
+    static final int MAX_QUERY_LENGTH = 100;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NAME = 1;
+    private static final int DESCRIPTION = 2;
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_TYPO_LENGTH = 4;
+
+    private final MenuSnapshotService menuSnapshotService;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock. Documents live in dense slots so scoring runs over
+    // plain arrays instead of hashing boxed ids
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private Document[] documents = new Document[64];
+    private int slotCount;
+    private final TreeMap<String, Posting> postings = new TreeMap<>();
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+    private long indexedVersion = -1;
+
+    public MenuSearchIndex(MenuSnapshotService menuSnapshotService) {
+        this.menuSnapshotService = menuSnapshotService;
+    }
+
+    @EventListener
+    public void onContentChanged(ContentChangedEvent event) {
+        if (ContentVersions.MENU.equals(event.getResource())) {
+            sync(menuSnapshotService.current());
+        }
+    }
+
+    public List<MenuItem> search(String query, int limit) {
+        List<String> terms = tokenize(query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        MenuSnapshot snapshot = menuSnapshotService.current();
+        if (snapshot.getVersion() != indexedVersion()) {
+            sync(snapshot);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<List<Expansion>> matches = new ArrayList<>();
+            for (String term : new LinkedHashSet<>(terms)) {
+                List<Expansion> expansions = expand(term);
+                if (expansions.isEmpty()) {
+                    return List.of();
+                }
+                matches.add(expansions);
+            }
+            // Start from the rarest term; the others only add to its candidates
+            matches.sort(Comparator.comparingInt(MenuSearchIndex::postingCount));
+
+            float[] scores = new float[slotCount];
+            int[] candidates = new int[Math.min(slotCount, postingCount(matches.get(0)))];
+            int candidateCount = 0;
+            for (Expansion expansion : matches.get(0)) {
+                Posting posting = expansion.posting;
+                for (int i = 0; i < posting.size; i++) {
+                    int slot = posting.slots[i];
+                    float score = expansion.score(posting.fields[i]);
+                    if (scores[slot] == 0) {
+                        candidates[candidateCount++] = slot;
+                        scores[slot] = score;
+                    } else if (score > scores[slot]) {
+                        scores[slot] = score;
+                    }
+                }
+            }
+            float[] best = new float[slotCount];
+            for (List<Expansion> expansions : matches.subList(1, matches.size())) {
+                for (Expansion expansion : expansions) {
+                    Posting posting = expansion.posting;
+                    for (int i = 0; i < posting.size; i++) {
+                        int slot = posting.slots[i];
+                        if (scores[slot] > 0) {
+                            best[slot] = Math.max(best[slot], expansion.score(posting.fields[i]));
+                        }
+                    }
+                }
+                int kept = 0;
+                for (int c = 0; c < candidateCount; c++) {
+                    int slot = candidates[c];
+                    if (best[slot] == 0) {
+                        scores[slot] = 0;
+                    } else {
+                        scores[slot] += best[slot];
+                        best[slot] = 0;
+                        candidates[kept++] = slot;
+                    }
+                }
+                candidateCount = kept;
+                if (candidateCount == 0) {
+                    return List.of();
+                }
+            }
+            return top(candidates, candidateCount, scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every indexed term a query term stands for, weighted exact 1.0,
+     * prefix 0.7 and one edit 0.5.
+     */
+    private List<Expansion> expand(String term) {
+        List<Expansion> expansions = new ArrayList<>();
+        Posting exact = postings.get(term);
+        if (exact != null) {
+            expansions.add(new Expansion(exact, 1.0f));
+        }
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            int expanded = 0;
+            for (Posting posting : postings.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+                if (++expanded > MAX_PREFIX_TERMS) {
+                    break;
+                }
+                expansions.add(new Expansion(posting, 0.7f));
+            }
+        }
+        if (term.length() >= MIN_TYPO_LENGTH) {
+            Set<String> candidates = new HashSet<>();
+            for (String variant : deletionsOf(term)) {
+                candidates.addAll(deletions.getOrDefault(variant, Set.of()));
+            }
+            for (String candidate : candidates) {
+                // Longer terms sharing the prefix were already taken at the prefix weight
+                if (!candidate.startsWith(term) && withinOneEdit(term, candidate)) {
+                    expansions.add(new Expansion(postings.get(candidate), 0.5f));
+                }
+            }
+        }
+        return expansions;
+    }
+
+    private static int postingCount(List<Expansion> expansions) {
+        int count = 0;
+        for (Expansion expansion : expansions) {
+            count += expansion.posting.size;
+        }
+        return count;
+    }
+
+    /**
+     * Best matches first, ties by name; keeps a heap of the limit instead of
+     * sorting every match.
+     */
+    private List<MenuItem> top(int[] candidates, int candidateCount, float[] scores, int limit) {
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, (a, b) -> rank(b, a));
+        for (int c = 0; c < candidateCount; c++) {
+            int slot = candidates[c];
+            Hit hit = new Hit(documents[slot], scores[slot]);
+            if (best.size() == limit && rank(hit, best.peek()) >= 0) {
+                continue;
+            }
+            best.offer(hit);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        MenuItem[] results = new MenuItem[best.size()];
+        for (int i = results.length - 1; i >= 0; i--) {
+            results[i] = best.poll().document.item;
+        }
+        return Arrays.asList(results);
+    }
+
+    /** Higher score first, then by name with unnamed items last. */
+    private static int rank(Hit a, Hit b) {
+        int byScore = Float.compare(b.score, a.score);
+        if (byScore != 0) {
+            return byScore;
+        }
+        if (a.document.name == null || b.document.name == null) {
+            return a.document.name == null ? (b.document.name == null ? 0 : 1) : -1;
+        }
+        return a.document.name.compareTo(b.document.name);
+    }
+
+    private long indexedVersion() {
+        lock.readLock().lock();
+        try {
+            return indexedVersion;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Brings the index up to the snapshot, re-tokenizing only new or edited
+     * items. Unchanged items still pick up the snapshot's copy, so results
+     * carry current category names.
+     */
+    void sync(MenuSnapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            if (snapshot.getVersion() <= indexedVersion) {
+                return;
+            }
+            Set<Long> seen = new HashSet<>();
+            for (MenuItem item : snapshot.getItems()) {
+                seen.add(item.getId());
+                Integer slot = slotsById.get(item.getId());
+                Document existing = slot == null ? null : documents[slot];
+                if (existing != null && Objects.equals(existing.name, item.getName())
+                        && Objects.equals(existing.description, item.getDescription())) {
+                    existing.item = item;
+                    continue;
+                }
+                if (existing != null) {
+                    unindex(existing);
+                }
+                index(item);
+            }
+            for (Long id : new ArrayList<>(slotsById.keySet())) {
+                if (!seen.contains(id)) {
+                    unindex(documents[slotsById.get(id)]);
+                }
+            }
+            indexedVersion = snapshot.getVersion();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(MenuItem item) {
+        int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+        if (slot == documents.length) {
+            documents = Arrays.copyOf(documents, documents.length * 2);
+        }
+        Document document = new Document(item, slot);
+        Map<String, Integer> fields = new HashMap<>();
+        for (String term : tokenize(item.getName())) {
+            fields.merge(term, NAME, (a, b) -> a | b);
+        }
+        for (String term : tokenize(item.getDescription())) {
+            fields.merge(term, DESCRIPTION, (a, b) -> a | b);
+        }
+        fields.forEach((term, mask) -> {
+            Posting posting = postings.get(term);
+            if (posting == null) {
+                posting = new Posting();
+                postings.put(term, posting);
+                for (String variant : deletionsOf(term)) {
+                    deletions.computeIfAbsent(variant, key -> new HashSet<>()).add(term);
+                }
+            }
+            posting.add(slot, mask);
+        });
+        document.terms = fields.keySet();
+        documents[slot] = document;
+        slotsById.put(item.getId(), slot);
+    }
+
+    private void unindex(Document document) {
+        for (String term : document.terms) {
+            Posting posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            posting.remove(document.slot);
+            if (posting.size == 0) {
+                postings.remove(term);
+                for (String variant : deletionsOf(term)) {
+                    Set<String> terms = deletions.get(variant);
+                    if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                        deletions.remove(variant);
+                    }
+                }
+            }
+        }
+        documents[document.slot] = null;
+        slotsById.remove(document.item.getId());
+        freeSlots.push(document.slot);
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(folded)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * The term and every string one deletion away from it. Two terms within
+     * one edit (insert, delete, substitute or swap) always share an entry.
+     * Terms too short to ever be a typo match get none.
+     */
+    private static Set<String> deletionsOf(String term) {
+        if (term.length() < MIN_TYPO_LENGTH - 1) {
+            return Collections.emptySet();
+        }
+        Set<String> variants = new HashSet<>();
+        variants.add(term);
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    /**
+     * Optimal string alignment distance of at most one.
+     */
+    static boolean withinOneEdit(String a, String b) {
+        int lengthDifference = a.length() - b.length();
+        if (Math.abs(lengthDifference) > 1) {
+            return false;
+        }
+        int start = 0;
+        while (start < a.length() && start < b.length() && a.charAt(start) == b.charAt(start)) {
+            start++;
+        }
+        if (lengthDifference > 0) {
+            return a.substring(start + 1).equals(b.substring(start));
+        }
+        if (lengthDifference < 0) {
+            return a.substring(start).equals(b.substring(start + 1));
+        }
+        if (start == a.length() || a.substring(start + 1).equals(b.substring(start + 1))) {
+            return true;
+        }
+        return start + 1 < a.length()
+                && a.charAt(start) == b.charAt(start + 1) && a.charAt(start + 1) == b.charAt(start)
+                && a.substring(start + 2).equals(b.substring(start + 2));
+    }
+
+    private static final class Hit {
+        private final Document document;
+        private final float score;
+
+        private Hit(Document document, float score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+
+    private record Expansion(Posting posting, float weight) {
+
+        /** Name hits count double. */
+        float score(int fields) {
+            return weight * ((fields & NAME) != 0 ? 2 : 1);
+        }
+    }
+
+    /** Slots holding a term, each with the fields it appears in. */
+    private static final class Posting {
+        private int[] slots = new int[4];
+        private byte[] fields = new byte[4];
+        private int size;
+
+        private void add(int slot, int mask) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            slots[size] = slot;
+            fields[size] = (byte) mask;
+            size++;
+        }
+
+        private void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    fields[i] = fields[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Document {
+        private MenuItem item;
+        private final int slot;
+        private final String name;
+        private final String description;
+        private Set<String> terms = Set.of();
+
+        private Document(MenuItem item, int slot) {
+            this.item = item;
+            this.slot = slot;
+            this.name = item.getName();
+            this.description = item.getDescription();
+        }
+    }
+}
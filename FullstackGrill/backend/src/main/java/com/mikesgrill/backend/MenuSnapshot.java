@@ -0,0 +1,129 @@
+package com.mikesgrill.backend;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, versioned view of the public menu. Built from the database by
+ * {@link MenuSnapshotService} and shared by every public read until the next
+ * admin change replaces it.
+ */
+public final class MenuSnapshot {
+
+    private final long version;
+    private final boolean stale;
+    private final Instant builtAt;
+    private final List<MenuCategory> categories;
+    private final List<MenuItem> items;
+    private final List<MenuItem> featured;
+    private final Map<Long, List<MenuItem>> itemsByCategory;
+
+    private MenuSnapshot(long version, boolean stale, Instant builtAt, List<MenuCategory> categories,
+                         List<MenuItem> items, List<MenuItem> featured, Map<Long, List<MenuItem>> itemsByCategory) {
+        this.version = version;
+        this.stale = stale;
+        this.builtAt = builtAt;
+        this.categories = categories;
+        this.items = items;
+        this.featured = featured;
+        this.itemsByCategory = itemsByCategory;
+    }
+
+    /**
+     * Copies the given entities so the snapshot never shares instances with a
+     * persistence context that might still mutate them.
+     */
+    public static MenuSnapshot of(long version, List<MenuCategory> categories, List<MenuItem> items) {
+        return of(version, false, categories, items);
+    }
+
+    /**
+     * A snapshot restored from the local fallback file rather than the
+     * database; it may be behind the last admin change.
+     */
+    public static MenuSnapshot fallback(long version, List<MenuCategory> categories, List<MenuItem> items) {
+        return of(version, true, categories, items);
+    }
+
+    private static MenuSnapshot of(long version, boolean stale, List<MenuCategory> categories, List<MenuItem> items) {
+        Map<Long, MenuCategory> categoryCopies = new LinkedHashMap<>();
+        List<MenuCategory> categoryList = new ArrayList<>(categories.size());
+        for (MenuCategory category : categories) {
+            MenuCategory copy = copyOf(category);
+            categoryCopies.put(category.getId(), copy);
+            categoryList.add(copy);
+        }
+
+        List<MenuItem> itemCopies = new ArrayList<>(items.size());
+        List<MenuItem> featured = new ArrayList<>();
+        Map<Long, List<MenuItem>> byCategory = new LinkedHashMap<>();
+        for (MenuItem item : items) {
+            MenuCategory category = null;
+            if (item.getCategory() != null) {
+                category = categoryCopies.computeIfAbsent(item.getCategory().getId(), id -> copyOf(item.getCategory()));
+            }
+            MenuItem copy = copyOf(item, category);
+            itemCopies.add(copy);
+            if (copy.isFeatured()) {
+                featured.add(copy);
+            }
+            if (category != null) {
+                byCategory.computeIfAbsent(category.getId(), id -> new ArrayList<>()).add(copy);
+            }
+        }
+
+        Map<Long, List<MenuItem>> frozenByCategory = new LinkedHashMap<>();
+        byCategory.forEach((id, list) -> frozenByCategory.put(id, List.copyOf(list)));
+
+        return new MenuSnapshot(version, stale, Instant.now(), List.copyOf(categoryList), List.copyOf(itemCopies),
+                List.copyOf(featured), Collections.unmodifiableMap(frozenByCategory));
+    }
+
+    private static MenuCategory copyOf(MenuCategory source) {
+        MenuCategory copy = new MenuCategory(source.getName(), source.getSortOrder());
+        copy.setId(source.getId());
+        return copy;
+    }
+
+    private static MenuItem copyOf(MenuItem source, MenuCategory category) {
+        MenuItem copy = new MenuItem(source.getName(), source.getDescription(), source.getPrice(),
+                source.getImageUrl(), category, source.isFeatured());
+        copy.setId(source.getId());
+        copy.setImagePlaceholder(source.getImagePlaceholder());
+        copy.setImageWidth(source.getImageWidth());
+        copy.setImageHeight(source.getImageHeight());
+        return copy;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    public List<MenuCategory> getCategories() {
+        return categories;
+    }
+
+    public List<MenuItem> getItems() {
+        return items;
+    }
+
+    public List<MenuItem> getFeatured() {
+        return featured;
+    }
+
+    public List<MenuItem> getItemsByCategory(Long categoryId) {
+        return itemsByCategory.getOrDefault(categoryId, List.of());
+    }
+}
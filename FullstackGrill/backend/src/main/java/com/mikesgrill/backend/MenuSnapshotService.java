@@ -0,0 +1,151 @@
+package com.mikesgrill.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link MenuSnapshot} so public menu reads are served from
+ * memory instead of queueing on the (single connection) datasource. Admin
+ * writes in {@link MenuItemService} and {@link MenuCategoryService} call
+ * {@link #refreshAfterCommit()} and the snapshot is swapped in one step.
+ * When there is no snapshot yet and the database cannot build one, the menu
+ * from the local {@link PublicDataSnapshotStore} file is served instead.
+ */
+@Service
+public class MenuSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(MenuSnapshotService.class);
+
+    private final MenuItemRepository menuItemRepository;
+    private final MenuCategoryRepository menuCategoryRepository;
+    private final ContentVersions contentVersions;
+    private final PublicDataSnapshotStore snapshotStore;
+
+    private final AtomicReference<MenuSnapshot> current = new AtomicReference<>();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private final AtomicLong totalRebuildNanos = new AtomicLong();
+    private final AtomicLong lastRebuildNanos = new AtomicLong();
+
+    public MenuSnapshotService(MenuItemRepository menuItemRepository,
+                               MenuCategoryRepository menuCategoryRepository,
+                               ContentVersions contentVersions,
+                               PublicDataSnapshotStore snapshotStore) {
+        this.menuItemRepository = menuItemRepository;
+        this.menuCategoryRepository = menuCategoryRepository;
+        this.contentVersions = contentVersions;
+        this.snapshotStore = snapshotStore;
+    }
+
+    public MenuSnapshot current() {
+        MenuSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            hits.incrementAndGet();
+            return snapshot;
+        }
+        misses.incrementAndGet();
+        return rebuildOrFallback();
+    }
+
+    /**
+     * Rebuilds the snapshot once the surrounding transaction commits, or
+     * immediately when called outside of one (repository saves auto-commit).
+     */
+    public void refreshAfterCommit() {
+        refreshAfterCommit(ContentVersions.MENU, null);
+    }
+
+    /**
+     * As {@link #refreshAfterCommit()}, announcing the new version as a change
+     * to one menu item or category.
+     */
+    public void refreshAfterCommit(String entityType, Long entityId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild(entityType, entityId);
+                }
+            });
+        } else {
+            rebuild(entityType, entityId);
+        }
+    }
+
+    public MenuSnapshot rebuild() {
+        return rebuild(ContentVersions.MENU, null);
+    }
+
+    private MenuSnapshot rebuild(String entityType, Long entityId) {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            List<MenuCategory> categories = menuCategoryRepository.findAllByOrderBySortOrderAsc();
+            List<MenuItem> items = menuItemRepository.findAll();
+            long version = contentVersions.reserve(ContentVersions.MENU);
+            MenuSnapshot snapshot = MenuSnapshot.of(version, categories, items);
+            current.set(snapshot);
+            contentVersions.announce(ContentVersions.MENU, version, entityType, entityId);
+
+            long elapsed = System.nanoTime() - start;
+            rebuilds.incrementAndGet();
+            totalRebuildNanos.addAndGet(elapsed);
+            lastRebuildNanos.set(elapsed);
+            log.debug("Menu snapshot v{} rebuilt with {} items in {} ms",
+                    snapshot.getVersion(), snapshot.getItems().size(), elapsed / 1_000_000);
+            return snapshot;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private MenuSnapshot rebuildOrFallback() {
+        try {
+            return rebuild();
+        } catch (DataAccessException e) {
+            PublicDataSnapshot saved = snapshotStore.getFallback().orElseThrow(() -> e);
+            MenuSnapshot fallback = MenuSnapshot.fallback(contentVersions.reserve(ContentVersions.MENU),
+                    saved.getCategories(), saved.getItems());
+            snapshotStore.markStale();
+            // A rebuild that succeeded meanwhile wins over the file
+            return current.compareAndSet(null, fallback) ? fallback : current.get();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuildOrFallback();
+        } catch (RuntimeException e) {
+            log.warn("Unable to warm menu snapshot, it will be built on first read", e);
+        }
+    }
+
+    public MenuSnapshotStats getStats() {
+        MenuSnapshot snapshot = current.get();
+        long rebuildCount = rebuilds.get();
+        return new MenuSnapshotStats(
+                snapshot != null ? snapshot.getVersion() : 0,
+                snapshot != null ? snapshot.getBuiltAt() : null,
+                snapshot != null ? snapshot.getItems().size() : 0,
+                hits.get(),
+                misses.get(),
+                rebuildCount,
+                lastRebuildNanos.get() / 1_000_000.0,
+                rebuildCount == 0 ? 0 : totalRebuildNanos.get() / 1_000_000.0 / rebuildCount);
+    }
+}
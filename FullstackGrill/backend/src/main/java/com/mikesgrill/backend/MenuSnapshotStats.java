@@ -0,0 +1,58 @@
+package com.mikesgrill.backend;
+
+import java.time.Instant;
+
+public class MenuSnapshotStats {
+    private final long version;
+    private final Instant builtAt;
+    private final int itemCount;
+    private final long hits;
+    private final long misses;
+    private final long rebuilds;
+    private final double lastRebuildMillis;
+    private final double averageRebuildMillis;
+
+    public MenuSnapshotStats(long version, Instant builtAt, int itemCount, long hits, long misses,
+                             long rebuilds, double lastRebuildMillis, double averageRebuildMillis) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.itemCount = itemCount;
+        this.hits = hits;
+        this.misses = misses;
+        this.rebuilds = rebuilds;
+        this.lastRebuildMillis = lastRebuildMillis;
+        this.averageRebuildMillis = averageRebuildMillis;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getRebuilds() {
+        return rebuilds;
+    }
+
+    public double getLastRebuildMillis() {
+        return lastRebuildMillis;
+    }
+
+    public double getAverageRebuildMillis() {
+        return averageRebuildMillis;
+    }
+}
@@ -0,0 +1,44 @@
+package com.mikesgrill.backend;
+
+import java.util.List;
+
+/**
+ * Everything the public pages need on first paint, returned by
+ * {@code /api/public/bootstrap} in a single response.
+ */
+public class PublicBootstrap {
+    private final List<RestaurantHours> hours;
+    private final SiteSettings settings;
+    private final List<MenuCategory> categories;
+    private final List<MenuItem> featured;
+    private final long menuVersion;
+
+    public PublicBootstrap(List<RestaurantHours> hours, SiteSettings settings, List<MenuCategory> categories,
+                           List<MenuItem> featured, long menuVersion) {
+        this.hours = hours;
+        this.settings = settings;
+        this.categories = categories;
+        this.featured = featured;
+        this.menuVersion = menuVersion;
+    }
+
+    public List<RestaurantHours> getHours() {
+        return hours;
+    }
+
+    public SiteSettings getSettings() {
+        return settings;
+    }
+
+    public List<MenuCategory> getCategories() {
+        return categories;
+    }
+
+    public List<MenuItem> getFeatured() {
+        return featured;
+    }
+
+    public long getMenuVersion() {
+        return menuVersion;
+    }
+}
@@ -0,0 +1,47 @@
+package com.mikesgrill.backend;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class PublicBootstrapController {
+
+    private final MenuSnapshotService menuSnapshotService;
+    private final RestaurantHoursService restaurantHoursService;
+    private final SiteSettingsService siteSettingsService;
+    private final ContentVersions contentVersions;
+
+    public PublicBootstrapController(MenuSnapshotService menuSnapshotService,
+                                     RestaurantHoursService restaurantHoursService,
+                                     SiteSettingsService siteSettingsService,
+                                     ContentVersions contentVersions) {
+        this.menuSnapshotService = menuSnapshotService;
+        this.restaurantHoursService = restaurantHoursService;
+        this.siteSettingsService = siteSettingsService;
+        this.contentVersions = contentVersions;
+    }
+
+    /**
+     * Hours, settings, categories and featured items for the home and menu
+     * pages. Everything is served from the in-memory caches, so a cold
+     * visitor costs at most one connection checkout per stale resource.
+     */
+    @GetMapping("/api/public/bootstrap")
+    public ResponseEntity<PublicBootstrap> getBootstrap(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Versions are read before the data so the tag can only lag, never lead, the body
+        long hoursVersion = contentVersions.current(ContentVersions.HOURS);
+        long settingsVersion = contentVersions.current(ContentVersions.SETTINGS);
+        MenuSnapshot snapshot = menuSnapshotService.current();
+        String etag = contentVersions.compositeEtag("bootstrap", snapshot.getVersion(), hoursVersion, settingsVersion);
+        return ConditionalGet.respond(ifNoneMatch, etag, ConditionalGet.BOOTSTRAP_POLICY, () -> new PublicBootstrap(
+                restaurantHoursService.getPublicHours(),
+                siteSettingsService.getPublicSettings(),
+                snapshot.getCategories(),
+                snapshot.getFeatured(),
+                snapshot.getVersion()));
+    }
+}
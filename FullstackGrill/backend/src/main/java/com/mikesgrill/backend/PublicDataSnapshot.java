@@ -0,0 +1,69 @@
+package com.mikesgrill.backend;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The public data written to the local snapshot file by
+ * {@link PublicDataSnapshotWriter} and served by the public endpoints while
+ * the database is unreachable.
+ */
+public class PublicDataSnapshot {
+    private Instant savedAt;
+    private List<MenuCategory> categories;
+    private List<MenuItem> items;
+    private List<RestaurantHours> hours;
+    private SiteSettings settings;
+
+    public PublicDataSnapshot() {
+    }
+
+    public PublicDataSnapshot(Instant savedAt, List<MenuCategory> categories, List<MenuItem> items,
+                              List<RestaurantHours> hours, SiteSettings settings) {
+        this.savedAt = savedAt;
+        this.categories = categories;
+        this.items = items;
+        this.hours = hours;
+        this.settings = settings;
+    }
+
+    public Instant getSavedAt() {
+        return savedAt;
+    }
+
+    public void setSavedAt(Instant savedAt) {
+        this.savedAt = savedAt;
+    }
+
+    public List<MenuCategory> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<MenuCategory> categories) {
+        this.categories = categories;
+    }
+
+    public List<MenuItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<MenuItem> items) {
+        this.items = items;
+    }
+
+    public List<RestaurantHours> getHours() {
+        return hours;
+    }
+
+    public void setHours(List<RestaurantHours> hours) {
+        this.hours = hours;
+    }
+
+    public SiteSettings getSettings() {
+        return settings;
+    }
+
+    public void setSettings(SiteSettings settings) {
+        this.settings = settings;
+    }
+}
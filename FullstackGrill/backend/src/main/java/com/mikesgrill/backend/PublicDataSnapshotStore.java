@@ -0,0 +1,114 @@
+package com.mikesgrill.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Local copy of the public data, used when the database cannot answer. The
+ * file is read once at construction, before any repository is touched, and
+ * replaced atomically on every write so a crash never leaves it torn.
+ *
+ * <p>Also tracks whether public responses are currently coming from the
+ * fallback, which {@link StaleDataResponseAdvice} reports to clients.
+ * Switching between the two bumps the hours and settings versions, so a
+ * body cached from one side is never revalidated by the other; the menu
+ * gets a new snapshot version either way.
+ */
+@Component
+public class PublicDataSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicDataSnapshotStore.class);
+
+    private final ObjectMapper objectMapper;
+    private final ContentVersions contentVersions;
+    private final Path file;
+    private final AtomicBoolean servingStale = new AtomicBoolean();
+    private volatile PublicDataSnapshot fallback;
+
+    public PublicDataSnapshotStore(ObjectMapper objectMapper,
+                                   ContentVersions contentVersions,
+                                   @Value("${public-data.snapshot.path:data/public-snapshot.json}") String path) {
+        this.objectMapper = objectMapper;
+        this.contentVersions = contentVersions;
+        this.file = Paths.get(path).toAbsolutePath().normalize();
+        this.fallback = load();
+    }
+
+    public Optional<PublicDataSnapshot> getFallback() {
+        return Optional.ofNullable(fallback);
+    }
+
+    public synchronized void write(PublicDataSnapshot snapshot) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(objectMapper.writeValueAsBytes(snapshot));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        fallback = snapshot;
+    }
+
+    public boolean isServingStale() {
+        return servingStale.get();
+    }
+
+    public void markStale() {
+        if (servingStale.compareAndSet(false, true)) {
+            PublicDataSnapshot saved = fallback;
+            log.warn("Database unavailable, serving public data from snapshot saved at {}",
+                    saved != null ? saved.getSavedAt() : null);
+            bumpFallbackResources();
+        }
+    }
+
+    public void markFresh() {
+        if (servingStale.compareAndSet(true, false)) {
+            log.info("Database available again, serving live public data");
+            bumpFallbackResources();
+        }
+    }
+
+    private void bumpFallbackResources() {
+        contentVersions.bump(ContentVersions.HOURS);
+        contentVersions.bump(ContentVersions.SETTINGS);
+    }
+
+    private PublicDataSnapshot load() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try (InputStream in = new ByteBufferBackedInputStream(buffer)) {
+                PublicDataSnapshot snapshot = objectMapper.readValue(in, PublicDataSnapshot.class);
+                log.info("Loaded public data snapshot saved at {} from {}", snapshot.getSavedAt(), file);
+                return snapshot;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable public data snapshot {}", file, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.mikesgrill.backend;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rewrites the local public data snapshot after every content change. Writes
+ * run on one background thread and coalesce, so a burst of admin edits costs
+ * one file write rather than one each.
+ */
+@Component
+public class PublicDataSnapshotWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicDataSnapshotWriter.class);
+
+    private final PublicDataSnapshotStore snapshotStore;
+    private final MenuSnapshotService menuSnapshotService;
+    private final RestaurantHoursService restaurantHoursService;
+    private final SiteSettingsService siteSettingsService;
+
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "public-snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PublicDataSnapshotWriter(PublicDataSnapshotStore snapshotStore,
+                                    MenuSnapshotService menuSnapshotService,
+                                    RestaurantHoursService restaurantHoursService,
+                                    SiteSettingsService siteSettingsService) {
+        this.snapshotStore = snapshotStore;
+        this.menuSnapshotService = menuSnapshotService;
+        this.restaurantHoursService = restaurantHoursService;
+        this.siteSettingsService = siteSettingsService;
+    }
+
+    @EventListener
+    public void onContentChanged(ContentChangedEvent event) {
+        schedule();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        schedule();
+    }
+
+    private void schedule() {
+        if (pending.compareAndSet(false, true)) {
+            executor.execute(this::write);
+        }
+    }
+
+    private void write() {
+        pending.set(false);
+        if (snapshotStore.isServingStale()) {
+            return;
+        }
+        try {
+            MenuSnapshot menu = menuSnapshotService.current();
+            PublicDataSnapshot snapshot = new PublicDataSnapshot(Instant.now(), menu.getCategories(),
+                    menu.getItems(), restaurantHoursService.getPublicHours(), siteSettingsService.getPublicSettings());
+            // Never overwrite the file with data that came from it
+            if (menu.isStale() || snapshotStore.isServingStale()) {
+                return;
+            }
+            snapshotStore.write(snapshot);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to write public data snapshot", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+}
@@ -1,6 +1,8 @@
 package com.mikesgrill.backend;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -10,20 +12,69 @@ import java.util.List;
 public class PublicMenuController {
 
     @Autowired
-    private MenuItemService menuItemService;
+    private MenuSnapshotService menuSnapshotService;
 
+    @Autowired
+    private MenuPayloadCache menuPayloadCache;
+
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+
+    @Autowired
+    private MenuChangeLog menuChangeLog;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    /**
+     * JSON by default; clients that send {@code Accept:
+     * application/vnd.mikesgrill.menu-compact} get the same snapshot in
+     * {@link CompactMenuCodec} form.
+     */
     @GetMapping
-    public List<MenuItem> getAllMenuItems() {
-        return menuItemService.getAllMenuItems();
+    public ResponseEntity<byte[]> getAllMenuItems(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MenuSnapshot snapshot = menuSnapshotService.current();
+        SerializedPayload payload = CompactMenuCodec.isAccepted(accept)
+                ? menuPayloadCache.compactItems(snapshot)
+                : menuPayloadCache.items(snapshot);
+        return ConditionalGet.respondNegotiated(ifNoneMatch, acceptEncoding, payload, ConditionalGet.MENU_POLICY);
     }
 
     @GetMapping("/featured")
-    public List<MenuItem> getFeaturedMenuItems() {
-        return menuItemService.getFeaturedMenuItems();
+    public ResponseEntity<byte[]> getFeaturedMenuItems(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        SerializedPayload payload = menuPayloadCache.featured(menuSnapshotService.current());
+        return ConditionalGet.respond(ifNoneMatch, acceptEncoding, payload, ConditionalGet.MENU_POLICY);
     }
 
     @GetMapping("/category/{id}")
-    public List<MenuItem> getMenuItemsByCategory(@PathVariable Long id) {
-        return menuItemService.getMenuItemsByCategoryId(id);
+    public ResponseEntity<byte[]> getMenuItemsByCategory(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        SerializedPayload payload = menuPayloadCache.category(menuSnapshotService.current(), id);
+        return ConditionalGet.respond(ifNoneMatch, acceptEncoding, payload, ConditionalGet.MENU_POLICY);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<MenuItem>> searchMenuItems(@RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<MenuItem> results = menuSearchIndex.search(query, Math.min(limit, MenuSearchIndex.MAX_RESULTS));
+        return ResponseEntity.ok().cacheControl(ConditionalGet.MENU_POLICY).body(results);
+    }
+
+    /**
+     * Items and categories changed since the {@code version} of an earlier
+     * response, or the full menu when that can't be answered from the log.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<MenuChanges> getMenuChanges(@RequestParam(required = false) String since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = contentVersions.etag(ContentVersions.MENU, menuSnapshotService.current().getVersion());
+        return ConditionalGet.respond(ifNoneMatch, etag, ConditionalGet.CHANGES_POLICY,
+                () -> menuChangeLog.changesSince(since));
     }
-}
\ No newline at end of file
+}
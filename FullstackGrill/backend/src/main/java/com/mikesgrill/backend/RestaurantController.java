@@ -1,13 +1,35 @@
 package com.mikesgrill.backend;
 
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class RestaurantController {
 
+    private final ApplicationAvailability applicationAvailability;
+
+    public RestaurantController(ApplicationAvailability applicationAvailability) {
+        this.applicationAvailability = applicationAvailability;
+    }
+
     @GetMapping("/api/public/restaurant")
     public String getRestaurantInfo() {
         return "Welcome to Mike's Grill API";
     }
-}
\ No newline at end of file
+
+    /**
+     * Readiness for the load balancer: ready while the database or the local
+     * public data snapshot can answer (see {@link DataAvailabilityMonitor}).
+     */
+    @GetMapping("/api/public/ready")
+    public ResponseEntity<String> getReadiness() {
+        if (applicationAvailability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            return ResponseEntity.ok("{\"status\": \"ready\"}");
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("{\"status\": \"unavailable\"}");
+    }
+}
@@ -1,26 +1,53 @@
 package com.mikesgrill.backend;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
 public class RestaurantHoursController {
 
     private final RestaurantHoursService restaurantHoursService;
+    private final ContentVersions contentVersions;
 
-    public RestaurantHoursController(RestaurantHoursService restaurantHoursService) {
+    public RestaurantHoursController(RestaurantHoursService restaurantHoursService, ContentVersions contentVersions) {
         this.restaurantHoursService = restaurantHoursService;
+        this.contentVersions = contentVersions;
     }
 
     @GetMapping("/api/public/hours")
-    public List<RestaurantHours> getPublicHours() {
-        return restaurantHoursService.getAllHours();
+    public ResponseEntity<List<RestaurantHours>> getPublicHours(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.respond(ifNoneMatch, contentVersions.etag(ContentVersions.HOURS),
+                ConditionalGet.HOURS_POLICY, restaurantHoursService::getPublicHours);
+    }
+
+    /**
+     * Cacheable until the status next changes, but never longer than the
+     * hours list itself, so an admin edit shows up as quickly.
+     */
+    @GetMapping("/api/public/hours/status")
+    public ResponseEntity<HoursStatus> getStatus() {
+        HoursStatus status = restaurantHoursService.getStatus();
+        long maxAge = ConditionalGet.HOURS_POLICY_SECONDS;
+        if (status.getNextChange() != null) {
+            long untilChange = Duration.between(Instant.now(), status.getNextChange().toInstant()).getSeconds();
+            maxAge = Math.max(0, Math.min(maxAge, untilChange));
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePublic())
+                .body(status);
     }
 
     @GetMapping("/api/admin/hours")
@@ -29,15 +56,51 @@ public class RestaurantHoursController {
     }
 
     @PutMapping("/api/admin/hours")
-    public ResponseEntity<List<RestaurantHours>> updateAllHours(@RequestBody List<RestaurantHours> hoursList) {
-        List<RestaurantHours> updatedHours = restaurantHoursService.saveAllHours(hoursList);
-        return ResponseEntity.ok(updatedHours);
+    public ResponseEntity<Object> updateAllHours(@RequestBody List<RestaurantHours> hoursList) {
+        try {
+            return ResponseEntity.ok(restaurantHoursService.saveAllHours(hoursList));
+        } catch (IllegalArgumentException e) {
+            return invalid(e);
+        }
     }
 
     @PutMapping("/api/admin/hours/{id}")
-    public ResponseEntity<RestaurantHours> updateHours(@PathVariable Long id, @RequestBody RestaurantHours hours) {
-        return restaurantHoursService.updateHours(id, hours)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Object> updateHours(@PathVariable Long id, @RequestBody RestaurantHours hours) {
+        try {
+            return restaurantHoursService.updateHours(id, hours)
+                    .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return invalid(e);
+        }
+    }
+
+    @GetMapping("/api/admin/hours/overrides")
+    public List<HoursOverride> getOverrides() {
+        return restaurantHoursService.getOverrides();
+    }
+
+    @PutMapping("/api/admin/hours/overrides")
+    public ResponseEntity<Object> saveOverride(@RequestBody HoursOverride override) {
+        try {
+            return ResponseEntity.ok(restaurantHoursService.saveOverride(override));
+        } catch (IllegalArgumentException e) {
+            return invalid(e);
+        }
+    }
+
+    @DeleteMapping("/api/admin/hours/overrides/{id}")
+    public ResponseEntity<Void> deleteOverride(@PathVariable Long id) {
+        return restaurantHoursService.deleteOverride(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * The messages only name a day or a date, never the submitted text, so
+     * they are safe to drop into the JSON as is.
+     */
+    private static ResponseEntity<Object> invalid(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body("{\"error\": \"" + e.getMessage() + "\"}");
     }
 }
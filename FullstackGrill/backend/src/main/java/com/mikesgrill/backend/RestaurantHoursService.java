@@ -1,59 +1,227 @@
 package com.mikesgrill.backend;
 
-import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class RestaurantHoursService {
 
     private final RestaurantHoursRepository restaurantHoursRepository;
+    private final HoursOverrideRepository hoursOverrideRepository;
+    private final ContentVersions contentVersions;
+    private final PublicDataSnapshotStore snapshotStore;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchInsert batchInsert;
+    private final ZoneId zone;
+    private final VersionedCache<List<RestaurantHours>> publicHours;
+    private final VersionedCache<WeeklySchedule> schedule;
 
-    public RestaurantHoursService(RestaurantHoursRepository restaurantHoursRepository) {
+    private volatile CachedStatus cachedStatus;
+
+    public RestaurantHoursService(RestaurantHoursRepository restaurantHoursRepository,
+                                  HoursOverrideRepository hoursOverrideRepository,
+                                  ContentVersions contentVersions,
+                                  PublicDataSnapshotStore snapshotStore,
+                                  TransactionTemplate transactionTemplate,
+                                  BatchInsert batchInsert,
+                                  @Value("${hours.time-zone:America/Chicago}") String timeZone) {
         this.restaurantHoursRepository = restaurantHoursRepository;
+        this.hoursOverrideRepository = hoursOverrideRepository;
+        this.contentVersions = contentVersions;
+        this.snapshotStore = snapshotStore;
+        this.transactionTemplate = transactionTemplate;
+        this.batchInsert = batchInsert;
+        this.publicHours = new VersionedCache<>(contentVersions, ContentVersions.HOURS,
+                () -> List.copyOf(restaurantHoursRepository.findAllByOrderBySortOrderAsc()));
+        this.zone = ZoneId.of(timeZone);
+        this.schedule = new VersionedCache<>(contentVersions, ContentVersions.HOURS,
+                () -> WeeklySchedule.compile(publicHours.get(), getOverrides(), zone));
     }
 
     public List<RestaurantHours> getAllHours() {
         return restaurantHoursRepository.findAllByOrderBySortOrderAsc();
     }
 
+    /**
+     * Served from the local snapshot while the database is known to be down,
+     * or when this read is the one that finds out.
+     */
+    public List<RestaurantHours> getPublicHours() {
+        PublicDataSnapshot saved = snapshotStore.getFallback().orElse(null);
+        if (saved != null && snapshotStore.isServingStale()) {
+            return saved.getHours();
+        }
+        try {
+            return publicHours.get();
+        } catch (DataAccessException e) {
+            if (saved == null) {
+                throw e;
+            }
+            snapshotStore.markStale();
+            return saved.getHours();
+        }
+    }
+
     public Optional<RestaurantHours> getHoursById(Long id) {
         return restaurantHoursRepository.findById(id);
     }
 
+    /**
+     * Open or closed right now. The answer is reused until its next change
+     * (or an hours edit), so requests in between only compare two instants.
+     */
+    public HoursStatus getStatus() {
+        return getStatus(Instant.now());
+    }
+
+    HoursStatus getStatus(Instant now) {
+        WeeklySchedule current = currentSchedule();
+        CachedStatus cached = cachedStatus;
+        if (cached != null && cached.schedule == current
+                && !now.isBefore(cached.computedAt) && now.isBefore(cached.validUntil)) {
+            return cached.status;
+        }
+        HoursStatus status = current.status(now);
+        // With no change in sight, look again tomorrow
+        Instant validUntil = status.getNextChange() != null
+                ? status.getNextChange().toInstant() : now.plus(1, ChronoUnit.DAYS);
+        cachedStatus = new CachedStatus(current, status, now, validUntil);
+        return status;
+    }
+
+    /**
+     * Without the database the weekly hours still give an answer, but that
+     * schedule lacks the overrides and is never cached, so they count again
+     * as soon as the database is back.
+     */
+    private WeeklySchedule currentSchedule() {
+        if (!snapshotStore.isServingStale()) {
+            try {
+                return schedule.get();
+            } catch (DataAccessException e) {
+                // Fall through to the weekly hours alone
+            }
+        }
+        return WeeklySchedule.compile(getPublicHours(), List.of(), zone);
+    }
+
+    /**
+     * Overrides only need to be known from yesterday on (a late night can
+     * close after midnight).
+     */
+    public List<HoursOverride> getOverrides() {
+        return hoursOverrideRepository.findByDateGreaterThanEqualOrderByDateAsc(LocalDate.now(zone).minusDays(1));
+    }
+
+    /**
+     * Creates or replaces the override for the incoming date.
+     */
+    public HoursOverride saveOverride(HoursOverride incoming) {
+        if (incoming.getDate() == null) {
+            throw new IllegalArgumentException("Date is required");
+        }
+        HoursOverride override = hoursOverrideRepository.findByDate(incoming.getDate())
+                .orElseGet(() -> new HoursOverride(incoming.getDate(), null, null, false, null));
+        override.setClosed(incoming.isClosed());
+        override.setOpenTime(checkedTime(incoming.isClosed(), incoming.getOpenTime(),
+                "opening time for " + incoming.getDate()));
+        override.setCloseTime(checkedTime(incoming.isClosed(), incoming.getCloseTime(),
+                "closing time for " + incoming.getDate()));
+        override.setNote(incoming.getNote());
+        HoursOverride saved = hoursOverrideRepository.save(override);
+        contentVersions.bump(ContentVersions.HOURS, ContentVersions.HOURS_OVERRIDE, saved.getId());
+        return saved;
+    }
+
+    public boolean deleteOverride(Long id) {
+        if (!hoursOverrideRepository.existsById(id)) {
+            return false;
+        }
+        hoursOverrideRepository.deleteById(id);
+        contentVersions.bump(ContentVersions.HOURS, ContentVersions.HOURS_OVERRIDE, id);
+        return true;
+    }
+
     public RestaurantHours saveHours(RestaurantHours restaurantHours) {
-        return restaurantHoursRepository.save(restaurantHours);
+        applyTimes(restaurantHours, restaurantHours);
+        RestaurantHours saved = restaurantHoursRepository.save(restaurantHours);
+        contentVersions.bump(ContentVersions.HOURS, ContentVersions.HOURS, saved.getId());
+        return saved;
     }
 
+    /**
+     * Loads the week once and lets the commit flush the changed days as one
+     * JDBC update batch.
+     */
     public List<RestaurantHours> saveAllHours(List<RestaurantHours> restaurantHoursList) {
+        Map<Long, RestaurantHours> incomingById = new HashMap<>();
         for (RestaurantHours incoming : restaurantHoursList) {
-            if (incoming.getId() == null) {
-                continue;
+            if (incoming.getId() != null) {
+                incomingById.put(incoming.getId(), incoming);
             }
-
-            restaurantHoursRepository.findById(incoming.getId()).ifPresent(existing -> {
-                existing.setOpenTime(incoming.getOpenTime());
-                existing.setCloseTime(incoming.getCloseTime());
-                existing.setClosed(incoming.isClosed());
-                restaurantHoursRepository.save(existing);
-            });
         }
-        return restaurantHoursRepository.findAllByOrderBySortOrderAsc();
+
+        List<RestaurantHours> saved = transactionTemplate.execute(status -> {
+            List<RestaurantHours> week = restaurantHoursRepository.findAllByOrderBySortOrderAsc();
+            for (RestaurantHours existing : week) {
+                RestaurantHours incoming = incomingById.get(existing.getId());
+                if (incoming != null) {
+                    applyTimes(existing, incoming);
+                }
+            }
+            return week;
+        });
+        contentVersions.bump(ContentVersions.HOURS);
+        return saved;
     }
 
     public Optional<RestaurantHours> updateHours(Long id, RestaurantHours updatedHours) {
-        return restaurantHoursRepository.findById(id).map(existing -> {
-            existing.setOpenTime(updatedHours.getOpenTime());
-            existing.setCloseTime(updatedHours.getCloseTime());
-            existing.setClosed(updatedHours.isClosed());
+        Optional<RestaurantHours> updated = restaurantHoursRepository.findById(id).map(existing -> {
+            applyTimes(existing, updatedHours);
             return restaurantHoursRepository.save(existing);
         });
+        updated.ifPresent(hours -> contentVersions.bump(ContentVersions.HOURS, ContentVersions.HOURS, hours.getId()));
+        return updated;
+    }
+
+    /**
+     * Copies the times over in their stored form ("9:00 PM"), rejecting
+     * anything {@link WeeklySchedule#parseTime} can't read. Closed days keep
+     * no times.
+     */
+    private static void applyTimes(RestaurantHours target, RestaurantHours incoming) {
+        boolean closed = incoming.isClosed();
+        String openTime = checkedTime(closed, incoming.getOpenTime(), "opening time for " + target.getDayOfWeek());
+        String closeTime = checkedTime(closed, incoming.getCloseTime(), "closing time for " + target.getDayOfWeek());
+        target.setClosed(closed);
+        target.setOpenTime(openTime);
+        target.setCloseTime(closeTime);
     }
 
-    @PostConstruct
+    private static String checkedTime(boolean closed, String value, String label) {
+        if (closed) {
+            return "";
+        }
+        try {
+            return WeeklySchedule.formatTime(WeeklySchedule.parseTime(value));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + label, e);
+        }
+    }
+
+    /** Run by {@link DatabaseInitializer} once the database is reachable. */
     public void initializeDefaultHours() {
         if (restaurantHoursRepository.count() > 0) {
             return;
@@ -69,6 +237,11 @@ public class RestaurantHoursService {
                 new RestaurantHours("Sunday", "", "", true, 7)
         );
 
-        restaurantHoursRepository.saveAll(defaultHours);
+        batchInsert.insert(RestaurantHours.class, defaultHours);
+        contentVersions.bump(ContentVersions.HOURS);
+    }
+
+    private record CachedStatus(WeeklySchedule schedule, HoursStatus status, Instant computedAt,
+                                Instant validUntil) {
     }
 }
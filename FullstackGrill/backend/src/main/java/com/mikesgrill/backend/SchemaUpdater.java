@@ -0,0 +1,73 @@
+package com.mikesgrill.backend;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Takes {@code ddl-auto=update} out of Hibernate's boot, where it needs a
+ * connection and fails startup without one, and runs the same update when
+ * {@link DatabaseInitializer} first reaches the database. Other ddl-auto
+ * values (create-drop in tests) are left to Hibernate.
+ */
+@Component
+public class SchemaUpdater implements HibernatePropertiesCustomizer, Integrator {
+
+    private volatile boolean deferred;
+    private volatile Metadata metadata;
+    private volatile ServiceRegistry serviceRegistry;
+    private volatile Map<String, Object> settings;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if ("update".equals(String.valueOf(hibernateProperties.get(AvailableSettings.HBM2DDL_AUTO)))) {
+            hibernateProperties.put(AvailableSettings.HBM2DDL_AUTO, "none");
+            deferred = true;
+        }
+        hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(this));
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.serviceRegistry = sessionFactory.getServiceRegistry();
+        this.settings = sessionFactory.getProperties();
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        this.metadata = null;
+        this.serviceRegistry = null;
+        this.settings = null;
+    }
+
+    /**
+     * Adds missing tables and columns, if the update was deferred.
+     *
+     * @throws org.hibernate.tool.schema.spi.SchemaManagementException if the update fails
+     */
+    public void update() {
+        if (!deferred || metadata == null) {
+            return;
+        }
+        Map<String, Object> update = new HashMap<>(settings);
+        update.put(AvailableSettings.HBM2DDL_AUTO, "update");
+        update.put(AvailableSettings.HBM2DDL_HALT_ON_ERROR, true);
+        SchemaManagementToolCoordinator.process(metadata, serviceRegistry, update, action -> { });
+        deferred = false;
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 
 
@@ -25,7 +26,8 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, CustomUserDetailsService userDetailsService,
+                                           AuthTokenService authTokenService) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
@@ -41,15 +43,24 @@ public class SecurityConfig {
                 .requestMatchers("/menu", "/contact", "/admin", "/admin/**").permitAll()
                 .anyRequest().permitAll()
             )
+            // auth.mode=token keeps no server-side session; see AuthTokenService
             .sessionManagement(session -> session
-                .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
+                .sessionCreationPolicy(authTokenService.isEnabled()
+                    ? SessionCreationPolicy.STATELESS
+                    : SessionCreationPolicy.IF_REQUIRED)
             )
+            .addFilterBefore(new ActiveAdminFilter(userDetailsService), AuthorizationFilter.class)
             .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
             .logout(logout -> logout
                 .logoutUrl("/api/admin/logout")
+                .addLogoutHandler(authTokenService::logout)
                 .logoutSuccessHandler((request, response, authentication) -> response.setStatus(HttpStatus.OK.value()))
             );
 
+        if (authTokenService.isEnabled()) {
+            http.addFilterBefore(new TokenAuthenticationFilter(authTokenService), ActiveAdminFilter.class);
+        }
+
         return http.build();
     }
 
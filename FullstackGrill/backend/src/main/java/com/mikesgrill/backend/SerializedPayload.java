@@ -0,0 +1,78 @@
+package com.mikesgrill.backend;
+
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body serialized once, kept next to its gzip variant so responses
+ * can be written straight from memory. The gzip variant is dropped when it would
+ * not be smaller than the original.
+ */
+public final class SerializedPayload {
+
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final String etag;
+    private final MediaType contentType;
+
+    private SerializedPayload(byte[] identity, byte[] gzip, String etag, MediaType contentType) {
+        this.identity = identity;
+        this.gzip = gzip;
+        this.etag = etag;
+        this.contentType = contentType;
+    }
+
+    public static SerializedPayload of(byte[] json, String etag) {
+        return of(json, etag, MediaType.APPLICATION_JSON);
+    }
+
+    public static SerializedPayload of(byte[] body, String etag, MediaType contentType) {
+        byte[] compressed = gzip(body);
+        return new SerializedPayload(body, compressed.length < body.length ? compressed : null, etag, contentType);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public byte[] getIdentity() {
+        return identity;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Strong ETag of the identity representation.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Strong ETag of the gzip representation; it must differ from the
+     * identity tag because the bytes differ.
+     */
+    public String getGzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+}
@@ -1,10 +1,12 @@
 package com.mikesgrill.backend;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
@@ -13,14 +15,18 @@ import org.springframework.web.multipart.MultipartFile;
 public class SiteSettingsController {
 
     private final SiteSettingsService siteSettingsService;
+    private final ContentVersions contentVersions;
 
-    public SiteSettingsController(SiteSettingsService siteSettingsService) {
+    public SiteSettingsController(SiteSettingsService siteSettingsService, ContentVersions contentVersions) {
         this.siteSettingsService = siteSettingsService;
+        this.contentVersions = contentVersions;
     }
 
     @GetMapping("/api/public/settings")
-    public SiteSettings getPublicSettings() {
-        return siteSettingsService.getSettings();
+    public ResponseEntity<SiteSettings> getPublicSettings(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.respond(ifNoneMatch, contentVersions.etag(ContentVersions.SETTINGS),
+                ConditionalGet.SETTINGS_POLICY, siteSettingsService::getPublicSettings);
     }
 
     @GetMapping("/api/admin/settings")
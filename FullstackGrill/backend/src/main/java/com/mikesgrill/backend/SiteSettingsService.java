@@ -1,30 +1,42 @@
 package com.mikesgrill.backend;
 
-import jakarta.annotation.PostConstruct;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.io.InputStream;
 
 @Service
 public class SiteSettingsService {
 
     private final SiteSettingsRepository siteSettingsRepository;
-    private final Path uploadsDirectory = Paths.get("uploads").toAbsolutePath().normalize();
+    private final ContentVersions contentVersions;
+    private final PublicDataSnapshotStore snapshotStore;
+    private final UploadStore uploadStore;
+    private final VersionedCache<SiteSettings> publicSettings;
+    private final DistributionSummary uploadSizes;
+    private final Timer uploadDurations;
 
-    public SiteSettingsService(SiteSettingsRepository siteSettingsRepository) {
+    public SiteSettingsService(SiteSettingsRepository siteSettingsRepository, ContentVersions contentVersions,
+                               PublicDataSnapshotStore snapshotStore, UploadStore uploadStore,
+                               MeterRegistry meterRegistry) {
         this.siteSettingsRepository = siteSettingsRepository;
-        try {
-            Files.createDirectories(uploadsDirectory);
-        } catch (IOException e) {
-            throw new RuntimeException("Unable to create uploads directory", e);
-        }
+        this.contentVersions = contentVersions;
+        this.snapshotStore = snapshotStore;
+        this.uploadStore = uploadStore;
+        this.uploadSizes = DistributionSummary.builder("uploads.size")
+                .baseUnit("bytes")
+                .tag("target", "hero-image")
+                .register(meterRegistry);
+        this.uploadDurations = Timer.builder("uploads.duration")
+                .description("Time to store an upload and save the setting that points at it")
+                .tag("target", "hero-image")
+                .register(meterRegistry);
+        this.publicSettings = new VersionedCache<>(contentVersions, ContentVersions.SETTINGS, this::getSettings);
     }
 
     public SiteSettings getSettings() {
@@ -34,29 +46,49 @@ public class SiteSettingsService {
                 .orElseGet(this::createDefaultSettings);
     }
 
+    /**
+     * Same fallback rules as {@link RestaurantHoursService#getPublicHours()}.
+     */
+    public SiteSettings getPublicSettings() {
+        PublicDataSnapshot saved = snapshotStore.getFallback().orElse(null);
+        if (saved != null && snapshotStore.isServingStale()) {
+            return saved.getSettings();
+        }
+        try {
+            return publicSettings.get();
+        } catch (DataAccessException e) {
+            if (saved == null) {
+                throw e;
+            }
+            snapshotStore.markStale();
+            return saved.getSettings();
+        }
+    }
+
     public SiteSettings updateHeroImage(String heroImageUrl) {
         SiteSettings settings = getSettings();
         settings.setHeroImageUrl(heroImageUrl);
-        return siteSettingsRepository.save(settings);
+        SiteSettings saved = siteSettingsRepository.save(settings);
+        contentVersions.bump(ContentVersions.SETTINGS, ContentVersions.SETTINGS, saved.getId());
+        return saved;
     }
 
     public SiteSettings updateHeroImageWithFile(MultipartFile file) throws IOException {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
         }
-        String originalName = StringUtils.cleanPath(file.getOriginalFilename() != null ? file.getOriginalFilename() : "hero-image");
-        String extension = "";
-        int dotIndex = originalName.lastIndexOf('.');
-        if (dotIndex >= 0) {
-            extension = originalName.substring(dotIndex);
+        Timer.Sample sample = Timer.start();
+        String url;
+        try (InputStream content = file.getInputStream()) {
+            url = uploadStore.store(content, file.getOriginalFilename());
         }
-        String filename = "hero-" + UUID.randomUUID() + extension;
-        Path target = uploadsDirectory.resolve(filename);
-        Files.copy(file.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
-        return updateHeroImage("/uploads/" + filename);
+        SiteSettings saved = updateHeroImage(url);
+        sample.stop(uploadDurations);
+        uploadSizes.record(file.getSize());
+        return saved;
     }
 
-    @PostConstruct
+    /** Run by {@link DatabaseInitializer} once the database is reachable. */
     public void ensureDefaultSettings() {
         if (siteSettingsRepository.count() == 0) {
             createDefaultSettings();
@@ -65,6 +97,8 @@ public class SiteSettingsService {
 
     private SiteSettings createDefaultSettings() {
         SiteSettings defaults = new SiteSettings(null);
-        return siteSettingsRepository.save(defaults);
+        SiteSettings saved = siteSettingsRepository.save(defaults);
+        contentVersions.bump(ContentVersions.SETTINGS);
+        return saved;
     }
 }
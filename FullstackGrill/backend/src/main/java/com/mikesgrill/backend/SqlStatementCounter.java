@@ -0,0 +1,40 @@
+package com.mikesgrill.backend;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts every SQL statement Hibernate prepares, both in total and for the
+ * calling thread, so tests can hold endpoints to a statement budget.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final AtomicLong total = new AtomicLong();
+    private final ThreadLocal<long[]> perThread = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        total.incrementAndGet();
+        perThread.get()[0]++;
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    public long getCurrentThreadCount() {
+        return perThread.get()[0];
+    }
+}
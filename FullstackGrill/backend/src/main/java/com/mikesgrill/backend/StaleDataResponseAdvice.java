@@ -0,0 +1,42 @@
+package com.mikesgrill.backend;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks public responses with {@code X-Data-Stale: true} while they are
+ * served from the local snapshot instead of the database. Runs just before
+ * the body is written, so it also covers the read that found the database
+ * down.
+ */
+@ControllerAdvice
+public class StaleDataResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STALE_HEADER = "X-Data-Stale";
+
+    private final PublicDataSnapshotStore snapshotStore;
+
+    public StaleDataResponseAdvice(PublicDataSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (snapshotStore.isServingStale() && request.getURI().getPath().startsWith("/api/public/")) {
+            response.getHeaders().set(STALE_HEADER, "true");
+        }
+        return body;
+    }
+}
@@ -0,0 +1,37 @@
+package com.mikesgrill.backend;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests from the signed cookie issued by
+ * {@link AuthTokenService}; only installed when {@code auth.mode=token}.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private final AuthTokenService authTokenService;
+
+    public TokenAuthenticationFilter(AuthTokenService authTokenService) {
+        this.authTokenService = authTokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        authTokenService.authenticate(request).ifPresent(username -> {
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+            SecurityContextHolder.setContext(context);
+        });
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,239 @@
+package com.mikesgrill.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed storage for uploads. A file is hashed while it streams
+ * to a temp file and then moved to {@code <sha-256>.<ext>}, so uploading the
+ * same image twice keeps one copy and a stored file never changes, which is
+ * what lets {@link WebConfig} serve uploads as immutable.
+ *
+ * <p>Files no longer referenced by the site settings or any menu item are
+ * deleted by a periodic sweep once they are older than the grace period.
+ * Re-uploading a stored file restarts its grace period through an empty
+ * claim file under {@code .claims/}, never by touching the file itself,
+ * whose modification time is part of its image ETag and variant names.
+ * Only content-addressed files and abandoned temp files are ever swept;
+ * anything else in the directory, such as uploads from before this store,
+ * is left alone.
+ */
+@Component
+public class UploadStore {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadStore.class);
+
+    public static final String URL_PREFIX = "/uploads/";
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("[0-9a-f]{64}(\\.[a-z0-9]{1,5})?");
+    private static final Pattern TEMP_FILE = Pattern.compile("\\.upload-.*\\.tmp");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,5}");
+
+    private final Path directory;
+    private final Path claimsDirectory;
+    private final SiteSettingsRepository siteSettingsRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final PublicDataSnapshotStore snapshotStore;
+    private final Duration gracePeriod;
+
+    @Autowired
+    public UploadStore(SiteSettingsRepository siteSettingsRepository,
+                       MenuItemRepository menuItemRepository,
+                       PublicDataSnapshotStore snapshotStore,
+                       @Value("${uploads.gc.grace-period:PT24H}") Duration gracePeriod) {
+        this(Paths.get("uploads"), siteSettingsRepository, menuItemRepository, snapshotStore, gracePeriod);
+    }
+
+    UploadStore(Path directory,
+                SiteSettingsRepository siteSettingsRepository,
+                MenuItemRepository menuItemRepository,
+                PublicDataSnapshotStore snapshotStore,
+                Duration gracePeriod) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.claimsDirectory = this.directory.resolve(".claims");
+        this.siteSettingsRepository = siteSettingsRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.snapshotStore = snapshotStore;
+        this.gracePeriod = gracePeriod;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to create uploads directory", e);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Stores the stream and returns its public URL.
+     */
+    public String store(InputStream content, String originalFilename) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(directory, ".upload-", ".tmp");
+        try {
+            try (InputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                in.transferTo(out);
+            }
+            String filename = HexFormat.of().formatHex(digest.digest()) + extensionOf(originalFilename);
+            Path target = directory.resolve(filename);
+            if (Files.exists(target)) {
+                // Same bytes already stored; restart its grace period so a
+                // sweep can't remove it before the new reference is saved
+                claim(filename);
+            } else {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return URL_PREFIX + filename;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void claim(String filename) throws IOException {
+        Files.createDirectories(claimsDirectory);
+        Path claim = claimsDirectory.resolve(filename);
+        if (Files.exists(claim)) {
+            Files.setLastModifiedTime(claim, FileTime.from(Instant.now()));
+        } else {
+            Files.createFile(claim);
+        }
+    }
+
+    public static boolean isContentAddressed(String filename) {
+        return CONTENT_ADDRESSED.matcher(filename).matches();
+    }
+
+    @Scheduled(initialDelayString = "${uploads.gc.interval-ms:3600000}",
+            fixedDelayString = "${uploads.gc.interval-ms:3600000}")
+    public void collectGarbage() {
+        if (snapshotStore.isServingStale()) {
+            return;
+        }
+        Set<String> referenced = new HashSet<>();
+        siteSettingsRepository.findAll().forEach(settings -> addReference(referenced, settings.getHeroImageUrl()));
+        menuItemRepository.findAllImageUrls().forEach(url -> addReference(referenced, url));
+
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(Files::isRegularFile).toList();
+        } catch (IOException e) {
+            log.warn("Unable to list uploads in {}", directory, e);
+            return;
+        }
+        int deleted = 0;
+        for (Path file : files) {
+            String filename = file.getFileName().toString();
+            boolean collectable = isContentAddressed(filename)
+                    ? !referenced.contains(filename)
+                    : TEMP_FILE.matcher(filename).matches();
+            if (!collectable) {
+                continue;
+            }
+            try {
+                // Temp files are only collected once past the grace period,
+                // so an upload still streaming is never pulled from under it
+                Path claim = claimsDirectory.resolve(filename);
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)
+                        && (!Files.exists(claim) || Files.getLastModifiedTime(claim).toInstant().isBefore(cutoff))) {
+                    Files.deleteIfExists(file);
+                    deleted++;
+                }
+            } catch (IOException e) {
+                log.warn("Unable to delete unreferenced upload {}", file, e);
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} unreferenced uploads", deleted);
+        }
+        removeExpiredClaims(cutoff);
+    }
+
+    /** Claims only matter within the grace period. */
+    private void removeExpiredClaims(Instant cutoff) {
+        if (!Files.isDirectory(claimsDirectory)) {
+            return;
+        }
+        try (Stream<Path> claims = Files.list(claimsDirectory)) {
+            for (Path claim : claims.toList()) {
+                if (Files.getLastModifiedTime(claim).toInstant().isBefore(cutoff)) {
+                    Files.deleteIfExists(claim);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Unable to clean up upload claims in {}", claimsDirectory, e);
+        }
+    }
+
+    /**
+     * Image URLs are free text, so an upload may be referenced by an absolute
+     * URL or with a query string; only the path decides which file it is.
+     */
+    static void addReference(Set<String> referenced, String url) {
+        if (url == null) {
+            return;
+        }
+        String path;
+        try {
+            path = URI.create(url.trim()).getPath();
+        } catch (IllegalArgumentException e) {
+            path = url.trim();
+        }
+        if (path == null) {
+            return;
+        }
+        int start = path.indexOf(URL_PREFIX);
+        if (start >= 0) {
+            referenced.add(path.substring(start + URL_PREFIX.length()));
+        }
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0) {
+            return "";
+        }
+        String extension = filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? "." + extension : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
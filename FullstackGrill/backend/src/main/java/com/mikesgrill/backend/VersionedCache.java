@@ -0,0 +1,44 @@
+package com.mikesgrill.backend;
+
+import java.util.function.Supplier;
+
+/**
+ * Caches one value per {@link ContentVersions} resource. A cached value is
+ * only returned while the resource version it was loaded under is still
+ * current, so a writer just needs to bump the version after saving.
+ */
+public final class VersionedCache<T> {
+
+    private final ContentVersions contentVersions;
+    private final String resource;
+    private final Supplier<T> loader;
+
+    private volatile Entry<T> entry;
+
+    public VersionedCache(ContentVersions contentVersions, String resource, Supplier<T> loader) {
+        this.contentVersions = contentVersions;
+        this.resource = resource;
+        this.loader = loader;
+    }
+
+    public T get() {
+        long version = contentVersions.current(resource);
+        Entry<T> cached = entry;
+        if (cached != null && cached.version == version) {
+            return cached.value;
+        }
+        T value = loader.get();
+        entry = new Entry<>(version, value);
+        return value;
+    }
+
+    private static final class Entry<T> {
+        private final long version;
+        private final T value;
+
+        private Entry(long version, T value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
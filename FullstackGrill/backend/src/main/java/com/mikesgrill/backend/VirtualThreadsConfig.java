@@ -0,0 +1,21 @@
+package com.mikesgrill.backend;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Guards the {@code virtual-threads} profile. Spring Boot silently ignores
+ * {@code spring.threads.virtual.enabled} below Java 21, which would leave the
+ * profile running on platform threads without anyone noticing.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+
+    public VirtualThreadsConfig() {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("The virtual-threads profile needs Java 21 or later, running on "
+                    + Runtime.version());
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.mikesgrill.backend;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.PathResourceResolver;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.io.IOException;
+import java.time.Duration;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -14,10 +19,13 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Serve uploaded files
+        // Serve uploaded files; stored uploads never change (see UploadStore)
         String uploadPath = uploadDir.toUri().toString();
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations(uploadPath);
+                .addResourceLocations(uploadPath)
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .resourceChain(false)
+                .addResolver(new UploadResourceResolver());
         
         // Serve static files from React build (for production deployment)
         registry.addResourceHandler("/static/**")
@@ -27,4 +35,21 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/images/**")
                 .addResourceLocations("classpath:/static/images/");
     }
+
+    /**
+     * Hides dot-files and dot-directories, i.e. UploadStore's claims and
+     * uploads that are still streaming to a temp file.
+     */
+    private static class UploadResourceResolver extends PathResourceResolver {
+
+        @Override
+        protected Resource getResource(String resourcePath, Resource location) throws IOException {
+            for (String segment : resourcePath.split("/")) {
+                if (segment.startsWith(".")) {
+                    return null;
+                }
+            }
+            return super.getResource(resourcePath, location);
+        }
+    }
 }
@@ -0,0 +1,178 @@
+package com.mikesgrill.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The free-text hours compiled into typed opening intervals. A day closes
+ * after midnight when its close time is not later than its open time, and a
+ * date override replaces the weekly hours for that date. Instances are
+ * immutable and built once per hours version.
+ */
+public final class WeeklySchedule {
+
+    private static final Logger log = LoggerFactory.getLogger(WeeklySchedule.class);
+
+    /** How far ahead {@link #status} looks for the next opening. */
+    static final int HORIZON_DAYS = 14;
+
+    private static final Pattern TWELVE_HOUR =
+            Pattern.compile("(1[0-2]|0?[1-9])(?:[:.]([0-5][0-9]))?\\s*([ap])\\.?\\s*m\\.?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TWENTY_FOUR_HOUR = Pattern.compile("([01]?[0-9]|2[0-3]):([0-5][0-9])");
+    private static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("h:mm a", Locale.US);
+
+    private final ZoneId zone;
+    private final Map<DayOfWeek, Span> weekly;
+    // A null value is a date closed all day
+    private final Map<LocalDate, Span> overrides;
+
+    private WeeklySchedule(ZoneId zone, Map<DayOfWeek, Span> weekly, Map<LocalDate, Span> overrides) {
+        this.zone = zone;
+        this.weekly = weekly;
+        this.overrides = overrides;
+    }
+
+    /**
+     * Rows that don't parse (saved before times were validated) count as
+     * closed rather than failing the whole schedule.
+     */
+    public static WeeklySchedule compile(List<RestaurantHours> hours, List<HoursOverride> overrides, ZoneId zone) {
+        Map<DayOfWeek, Span> weekly = new EnumMap<>(DayOfWeek.class);
+        for (RestaurantHours day : hours) {
+            DayOfWeek dayOfWeek;
+            try {
+                dayOfWeek = DayOfWeek.valueOf(day.getDayOfWeek().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                log.warn("Ignoring hours for unknown day {}", day.getDayOfWeek());
+                continue;
+            }
+            if (!day.isClosed()) {
+                Span span = span(day.getOpenTime(), day.getCloseTime(), day.getDayOfWeek());
+                if (span != null) {
+                    weekly.put(dayOfWeek, span);
+                }
+            }
+        }
+        Map<LocalDate, Span> byDate = new HashMap<>();
+        for (HoursOverride override : overrides) {
+            byDate.put(override.getDate(), override.isClosed() ? null
+                    : span(override.getOpenTime(), override.getCloseTime(), override.getDate().toString()));
+        }
+        return new WeeklySchedule(zone, weekly, byDate);
+    }
+
+    private static Span span(String open, String close, String label) {
+        try {
+            return new Span(parseTime(open), parseTime(close));
+        } catch (IllegalArgumentException e) {
+            log.warn("Treating {} as closed: {}", label, e.getMessage());
+            return null;
+        }
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public HoursStatus status(Instant now) {
+        LocalDate today = now.atZone(zone).toLocalDate();
+        Instant horizon = today.plusDays(HORIZON_DAYS).atStartOfDay(zone).toInstant();
+        for (Instant[] interval : intervals(today.minusDays(1), today.plusDays(HORIZON_DAYS))) {
+            if (now.isBefore(interval[0])) {
+                return status(false, interval[0]);
+            }
+            if (now.isBefore(interval[1])) {
+                // Still open at the end of what was compiled; the close isn't known
+                return status(true, interval[1].isAfter(horizon) ? null : interval[1]);
+            }
+        }
+        return status(false, null);
+    }
+
+    private HoursStatus status(boolean open, Instant nextChange) {
+        return new HoursStatus(open, nextChange == null ? null : nextChange.atZone(zone).toOffsetDateTime(),
+                zone.getId());
+    }
+
+    /**
+     * Opening intervals of the dates from..to, sorted, with back-to-back and
+     * overlapping ones (a day closing at 2 AM, the next opening at 1 AM)
+     * merged.
+     */
+    private List<Instant[]> intervals(LocalDate from, LocalDate to) {
+        List<Instant[]> merged = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Span span = overrides.containsKey(date) ? overrides.get(date) : weekly.get(date.getDayOfWeek());
+            if (span == null) {
+                continue;
+            }
+            Instant start = ZonedDateTime.of(date, span.open, zone).toInstant();
+            LocalDate closeDate = span.close.isAfter(span.open) ? date : date.plusDays(1);
+            Instant end = ZonedDateTime.of(closeDate, span.close, zone).toInstant();
+            Instant[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && !start.isAfter(last[1])) {
+                if (end.isAfter(last[1])) {
+                    last[1] = end;
+                }
+            } else {
+                merged.add(new Instant[]{start, end});
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Reads "11:00 AM", "9pm", "9:30 p.m.", "noon", "midnight" or 24-hour
+     * "21:30".
+     */
+    public static LocalTime parseTime(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Time is required");
+        }
+        String value = text.trim();
+        if (value.equalsIgnoreCase("noon")) {
+            return LocalTime.NOON;
+        }
+        if (value.equalsIgnoreCase("midnight")) {
+            return LocalTime.MIDNIGHT;
+        }
+        Matcher twelveHour = TWELVE_HOUR.matcher(value);
+        if (twelveHour.matches()) {
+            int hour = Integer.parseInt(twelveHour.group(1)) % 12;
+            if (twelveHour.group(3).equalsIgnoreCase("p")) {
+                hour += 12;
+            }
+            int minute = twelveHour.group(2) == null ? 0 : Integer.parseInt(twelveHour.group(2));
+            return LocalTime.of(hour, minute);
+        }
+        Matcher twentyFourHour = TWENTY_FOUR_HOUR.matcher(value);
+        if (twentyFourHour.matches()) {
+            return LocalTime.of(Integer.parseInt(twentyFourHour.group(1)), Integer.parseInt(twentyFourHour.group(2)));
+        }
+        throw new IllegalArgumentException("Unrecognized time");
+    }
+
+    /** The form hours are stored and shown in, e.g. "9:00 PM". */
+    public static String formatTime(LocalTime time) {
+        return DISPLAY.format(time);
+    }
+
+    private record Span(LocalTime open, LocalTime close) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.mikesgrill.backend;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthTokenServiceTests {
+
+    private static final String OLD_KEY = "old:AQEBAQEBAQEBAQEBAQEBAQEBAQEBAQEBAQEBAQEBAQE=";
+    private static final String NEW_KEY = "new:AgICAgICAgICAgICAgICAgICAgICAgICAgICAgICAgI=";
+
+    @Test
+    void acceptsTokensFromRotatedOutSigningKeyUntilItIsRemoved() {
+        String token = new AuthTokenService("token", OLD_KEY, Duration.ofHours(1))
+                .issueCookie("admin", true).getValue();
+
+        AuthTokenService rotated = new AuthTokenService("token", NEW_KEY + "," + OLD_KEY, Duration.ofHours(1));
+        assertThat(rotated.authenticate(requestWith(token))).contains("admin");
+        assertThat(rotated.issueCookie("admin", true).getValue()).startsWith("new.");
+
+        AuthTokenService retired = new AuthTokenService("token", NEW_KEY, Duration.ofHours(1));
+        assertThat(retired.authenticate(requestWith(token))).isEmpty();
+    }
+
+    @Test
+    void rejectsTamperedExpiredAndRevokedTokens() {
+        AuthTokenService tokens = new AuthTokenService("token", NEW_KEY, Duration.ofHours(1));
+        String token = tokens.issueCookie("admin", true).getValue();
+        String[] parts = token.split("\\.");
+        String otherUser = parts[0] + ".cm9vdA." + parts[2] + "." + parts[3] + "." + parts[4];
+        assertThat(tokens.authenticate(requestWith(otherUser))).isEmpty();
+
+        String expired = new AuthTokenService("token", NEW_KEY, Duration.ofSeconds(-1))
+                .issueCookie("admin", true).getValue();
+        assertThat(tokens.authenticate(requestWith(expired))).isEmpty();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        tokens.logout(requestWith(token), response, null);
+        assertThat(tokens.authenticate(requestWith(token))).isEmpty();
+        assertThat(response.getHeader("Set-Cookie")).contains("Max-Age=0");
+    }
+
+    private static MockHttpServletRequest requestWith(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(AuthTokenService.COOKIE_NAME, token));
+        return request;
+    }
+}
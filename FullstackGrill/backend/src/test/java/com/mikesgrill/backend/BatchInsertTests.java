@@ -0,0 +1,110 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts each batch-inserted entity with every field set and reads it back
+ * through its repository. The fixtures are checked to leave no field at its
+ * default, so a column added to an entity fails here until it round-trips.
+ */
+@SpringBootTest
+class BatchInsertTests {
+
+    @Autowired
+    private BatchInsert batchInsert;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuCategoryRepository menuCategoryRepository;
+
+    @Autowired
+    private RestaurantHoursRepository restaurantHoursRepository;
+
+    @Test
+    void roundTripsEveryMenuCategoryColumn() throws Exception {
+        MenuCategory category = new MenuCategory("Batch category", 99);
+        assertEveryFieldSet(category);
+
+        batchInsert.insert(MenuCategory.class, List.of(category));
+
+        try {
+            assertThat(menuCategoryRepository.findById(category.getId())).get()
+                    .usingRecursiveComparison().isEqualTo(category);
+        } finally {
+            menuCategoryRepository.deleteById(category.getId());
+        }
+    }
+
+    @Test
+    void roundTripsEveryMenuItemColumn() throws Exception {
+        MenuCategory category = menuCategoryRepository.findAllByOrderBySortOrderAsc().get(0);
+        MenuItem item = new MenuItem("Batch burger", "Two patties", 12.5, "/uploads/batch.jpg", category, true);
+        item.setImagePlaceholder("data:image/png;base64,AAAA");
+        item.setImageWidth(640);
+        item.setImageHeight(480);
+        assertEveryFieldSet(item);
+
+        batchInsert.insert(MenuItem.class, List.of(item));
+
+        try {
+            assertThat(menuItemRepository.findById(item.getId())).get()
+                    .usingRecursiveComparison().isEqualTo(item);
+        } finally {
+            menuItemRepository.deleteById(item.getId());
+        }
+    }
+
+    @Test
+    void roundTripsEveryRestaurantHoursColumn() throws Exception {
+        RestaurantHours hours = new RestaurantHours("Holiday", "8:00 AM", "2:00 PM", true, 42);
+        assertEveryFieldSet(hours);
+
+        batchInsert.insert(RestaurantHours.class, List.of(hours));
+
+        try {
+            assertThat(restaurantHoursRepository.findById(hours.getId())).get()
+                    .usingRecursiveComparison().isEqualTo(hours);
+        } finally {
+            restaurantHoursRepository.deleteById(hours.getId());
+        }
+    }
+
+    @Test
+    void assignsIdsInRowOrder() {
+        List<MenuCategory> categories = List.of(new MenuCategory("Batch first", 100),
+                new MenuCategory("Batch second", 101));
+
+        List<Long> ids = batchInsert.insert(MenuCategory.class, categories);
+
+        try {
+            assertThat(categories).extracting(MenuCategory::getId).containsExactlyElementsOf(ids);
+            assertThat(menuCategoryRepository.findAllById(ids)).extracting(MenuCategory::getName)
+                    .containsExactlyInAnyOrder("Batch first", "Batch second");
+            assertThat(batchInsert.sql(MenuCategory.class)).doesNotContain(" id,").doesNotContain("(id");
+        } finally {
+            menuCategoryRepository.deleteAllById(ids);
+        }
+    }
+
+    /** The id is generated, everything else must be set by the fixture. */
+    private static void assertEveryFieldSet(Object entity) throws IllegalAccessException {
+        for (Field field : entity.getClass().getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.getName().equals("id")) {
+                continue;
+            }
+            field.setAccessible(true);
+            Object value = field.get(entity);
+            assertThat(value).as(field.getName()).isNotNull().isNotEqualTo(false).isNotEqualTo(0);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts JDBC round trips (each execute or executeBatch) rather than
+ * statements, so a loop of single-row writes fails even when every row goes
+ * through the same prepared statement.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:batchwrites;MODE=MySQL;DATABASE_TO_LOWER=TRUE")
+class BatchWriteTests {
+
+    private static final ThreadLocal<int[]> roundTrips = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Autowired
+    private RestaurantHoursService restaurantHoursService;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private MenuCategoryRepository menuCategoryRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Test
+    void savesAWeekOfHoursWithOneSelectAndOneBatch() {
+        List<RestaurantHours> week = new ArrayList<>();
+        for (RestaurantHours existing : restaurantHoursService.getAllHours()) {
+            week.add(new RestaurantHours(existing.getDayOfWeek(), "7:00 AM", "11:00 PM", false,
+                    existing.getSortOrder()));
+            week.get(week.size() - 1).setId(existing.getId());
+        }
+        assertThat(week).hasSize(7);
+        long version = contentVersions.current(ContentVersions.HOURS);
+
+        int before = roundTrips.get()[0];
+        List<RestaurantHours> saved = restaurantHoursService.saveAllHours(week);
+
+        assertThat(roundTrips.get()[0] - before).isLessThanOrEqualTo(2);
+        assertThat(saved).extracting(RestaurantHours::getOpenTime).containsOnly("7:00 AM");
+        assertThat(restaurantHoursService.getAllHours()).extracting(RestaurantHours::getCloseTime)
+                .containsOnly("11:00 PM");
+        assertThat(contentVersions.current(ContentVersions.HOURS)).isEqualTo(version + 1);
+    }
+
+    @Test
+    void importsAHundredItemsInOneInsertBatch() {
+        MenuCategory category = menuCategoryRepository.findAllByOrderBySortOrderAsc().get(0);
+        List<BulkOperation<MenuItem>> operations = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            MenuItem item = new MenuItem("Imported " + i, "Line " + i, 5.0 + i, null, category, false);
+            operations.add(new BulkOperation<>(BulkOperation.CREATE, null, item));
+        }
+        long itemsBefore = menuItemRepository.count();
+
+        int before = roundTrips.get()[0];
+        BulkResponse response = menuItemService.applyBulk(operations);
+
+        // Category load, the insert batch, and the snapshot rebuild after commit
+        assertThat(roundTrips.get()[0] - before).isLessThanOrEqualTo(4);
+        assertThat(response.isApplied()).isTrue();
+        assertThat(response.getResults()).extracting(BulkResult::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(menuItemRepository.count()).isEqualTo(itemsBefore + 100);
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new CountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+
+        private CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(Connection.class, super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(Connection.class, super.getConnection(username, password));
+        }
+
+        private static <T> T counting(Class<T> type, T target) {
+            Object proxy = Proxy.newProxyInstance(BatchWriteTests.class.getClassLoader(), new Class<?>[]{type},
+                    (self, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            roundTrips.get()[0]++;
+                        }
+                        Object result;
+                        try {
+                            result = method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        // Statement subtypes are wrapped as themselves so prepared setters still work
+                        if (result instanceof Statement statement && method.getReturnType() != Object.class) {
+                            @SuppressWarnings("unchecked")
+                            Class<Statement> returned = (Class<Statement>) method.getReturnType();
+                            return counting(returned, statement);
+                        }
+                        return result;
+                    });
+            return type.cast(proxy);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.mikesgrill.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "admin")
+class BulkMutationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuCategoryRepository menuCategoryRepository;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Autowired
+    private SqlStatementCounter statementCounter;
+
+    @Autowired
+    private AdminUserRepository adminUserRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    private MenuCategory category;
+
+    @BeforeEach
+    void seed() {
+        if (adminUserRepository.findByUsername("admin").isEmpty()) {
+            adminUserRepository.save(new AdminUser("admin", "{noop}unused"));
+        }
+        userDetailsService.loadUserByUsername("admin");
+        category = menuCategoryRepository.findAllByOrderBySortOrderAsc().get(0);
+    }
+
+    @Test
+    void appliesItemOperationsInOneTransactionWithOneMenuVersion() throws Exception {
+        MenuItem kept = menuItemRepository.save(new MenuItem("Patty Melt", "Rye", 8.5, null, category, false));
+        MenuItem removed = menuItemRepository.save(new MenuItem("Liver and Onions", "", 9.0, null, category, false));
+        long version = contentVersions.current(ContentVersions.MENU);
+
+        JsonNode response = bulk("/api/admin/menu/bulk", List.of(
+                Map.of("op", "create", "value", item("Onion Rings", 4.25)),
+                Map.of("op", "update", "id", kept.getId(), "value", item("Patty Melt", 9.25)),
+                Map.of("op", "delete", "id", removed.getId())), 200);
+
+        assertThat(response.get("applied").asBoolean()).isTrue();
+        long createdId = response.at("/results/0/id").asLong();
+        assertThat(menuItemRepository.findById(createdId)).get().extracting(MenuItem::getName).isEqualTo("Onion Rings");
+        assertThat(menuItemRepository.findById(kept.getId())).get().extracting(MenuItem::getPrice).isEqualTo(9.25);
+        assertThat(menuItemRepository.existsById(removed.getId())).isFalse();
+        assertThat(contentVersions.current(ContentVersions.MENU)).isEqualTo(version + 1);
+    }
+
+    @Test
+    void rollsBackEveryOperationWhenOneFails() throws Exception {
+        MenuItem item = menuItemRepository.save(new MenuItem("Tuna Melt", "", 8.0, null, category, false));
+        long version = contentVersions.current(ContentVersions.MENU);
+
+        JsonNode response = bulk("/api/admin/menu/bulk", List.of(
+                Map.of("op", "update", "id", item.getId(), "value", item("Tuna Melt", 99.0)),
+                Map.of("op", "delete", "id", Long.MAX_VALUE)), 404);
+
+        assertThat(response.get("applied").asBoolean()).isFalse();
+        assertThat(response.at("/results/1/error").asText()).isEqualTo("Menu item not found");
+        assertThat(menuItemRepository.findById(item.getId())).get().extracting(MenuItem::getPrice).isEqualTo(8.0);
+        assertThat(contentVersions.current(ContentVersions.MENU)).isEqualTo(version);
+    }
+
+    @Test
+    void refusesCreatesThatNameAnExistingRow() throws Exception {
+        MenuItem item = menuItemRepository.save(new MenuItem("Club", "", 10.0, null, category, false));
+
+        JsonNode items = bulk("/api/admin/menu/bulk", List.of(
+                Map.of("op", "create", "id", item.getId(), "value", item("Overwritten", 1.0))), 400);
+        JsonNode categories = bulk("/api/admin/categories/bulk", List.of(
+                Map.of("op", "create", "id", category.getId(), "value", Map.of("name", "Overwritten"))), 400);
+
+        assertThat(items.at("/results/0/error").asText()).isEqualTo("Id not allowed on create");
+        assertThat(categories.at("/results/0/error").asText()).isEqualTo("Id not allowed on create");
+        assertThat(menuItemRepository.findById(item.getId())).get().extracting(MenuItem::getName).isEqualTo("Club");
+        assertThat(menuCategoryRepository.findById(category.getId())).get()
+                .extracting(MenuCategory::getName).isEqualTo(category.getName());
+    }
+
+    @Test
+    void batchesRepricingInsteadOfOneStatementPerItem() throws Exception {
+        List<Map<String, Object>> operations = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            MenuItem item = menuItemRepository.save(new MenuItem("Pie " + i, "", 3.0, null, category, false));
+            operations.add(Map.of("op", "update", "id", item.getId(), "value", item("Pie " + i, 3.5)));
+        }
+
+        long before = statementCounter.getCurrentThreadCount();
+        bulk("/api/admin/menu/bulk", operations, 200);
+        // Item and category loads, one batched update, and the snapshot rebuild
+        assertThat(statementCounter.getCurrentThreadCount() - before).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    void reordersCategoriesAndRefusesToDeleteOnesInUse() throws Exception {
+        menuItemRepository.save(new MenuItem("Grilled Cheese", "", 5.0, null, category, false));
+        List<Long> ids = new ArrayList<>();
+        menuCategoryRepository.findAllByOrderBySortOrderAsc().forEach(existing -> ids.add(0, existing.getId()));
+
+        JsonNode refused = bulk("/api/admin/categories/bulk", List.of(
+                Map.of("op", "delete", "id", category.getId())), 409);
+        assertThat(refused.at("/results/0/error").asText()).isEqualTo("Category still has menu items");
+
+        Map<String, Object> request = Map.of(
+                "operations", List.of(Map.of("op", "create", "value", Map.of("name", "Specials"))),
+                "order", ids);
+        mockMvc.perform(post("/api/admin/categories/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        List<MenuCategory> ordered = menuCategoryRepository.findAllByOrderBySortOrderAsc();
+        assertThat(ordered.subList(0, ids.size())).extracting(MenuCategory::getId).containsExactlyElementsOf(ids);
+        assertThat(ordered.get(ordered.size() - 1).getName()).isEqualTo("Specials");
+    }
+
+    private Map<String, Object> item(String name, double price) {
+        return Map.of("name", name, "description", "", "price", price, "category", Map.of("id", category.getId()));
+    }
+
+    private JsonNode bulk(String path, List<? extends Map<String, ?>> operations, int expectedStatus) throws Exception {
+        String body = mockMvc.perform(post(path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("operations", operations))))
+                .andExpect(status().is(expectedStatus))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,79 @@
+package com.mikesgrill.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeBroadcasterTests {
+
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    private ChangeBroadcaster broadcaster;
+
+    @AfterEach
+    void stop() {
+        unblock.countDown();
+        if (broadcaster != null) {
+            broadcaster.stop();
+        }
+    }
+
+    @Test
+    void stalledClientsAreDroppedWithoutHoldingUpTheRest() throws Exception {
+        // As many stalled clients as sender threads, so without the deadline nothing else gets through
+        broadcaster = new ChangeBroadcaster(new ObjectMapper(), 16, 100, 60_000, 60_000, 1000, 2, 200, 8);
+        broadcaster.subscribe(null, new StalledEmitter());
+        broadcaster.subscribe(null, new StalledEmitter());
+        CountingEmitter healthy = new CountingEmitter();
+        broadcaster.subscribe(null, healthy);
+
+        await(() -> broadcaster.getDroppedCount() == 2);
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+        assertThat(broadcaster.getStalledSenderCount()).isEqualTo(2);
+        await(() -> healthy.sent.get() == 1);
+
+        for (long version = 1; version <= 3; version++) {
+            broadcaster.onContentChanged(new ContentChangedEvent("menu", version, "menuItem", version));
+        }
+        await(() -> healthy.sent.get() == 4);
+
+        unblock.countDown();
+        await(() -> broadcaster.getStalledSenderCount() == 0);
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private final class StalledEmitter extends SseEmitter {
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class CountingEmitter extends SseEmitter {
+        private final AtomicInteger sent = new AtomicInteger();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.incrementAndGet();
+        }
+    }
+}
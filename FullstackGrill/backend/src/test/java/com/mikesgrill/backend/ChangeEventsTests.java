@@ -0,0 +1,82 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ChangeEventsTests {
+
+    private static final Pattern LAST_ID = Pattern.compile("(?s).*id:(\\S+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RestaurantHoursService restaurantHoursService;
+
+    @Test
+    void pushesCommittedChangesToOpenStreams() throws Exception {
+        MockHttpServletResponse stream = open(null);
+        awaitContent(stream, "event:hello");
+
+        RestaurantHours monday = restaurantHoursService.getAllHours().get(0);
+        restaurantHoursService.updateHours(monday.getId(), monday);
+
+        awaitContent(stream, "{\"type\":\"hours\",\"id\":" + monday.getId() + ",\"version\":");
+    }
+
+    @Test
+    void replaysMissedChangesFromLastEventId() throws Exception {
+        MockHttpServletResponse first = open(null);
+        String lastSeen = lastEventId(awaitContent(first, "event:hello"));
+
+        RestaurantHours monday = restaurantHoursService.getAllHours().get(0);
+        RestaurantHours tuesday = restaurantHoursService.getAllHours().get(1);
+        restaurantHoursService.updateHours(monday.getId(), monday);
+        restaurantHoursService.updateHours(tuesday.getId(), tuesday);
+
+        String replayed = awaitContent(open(lastSeen), "\"id\":" + tuesday.getId() + ",");
+        assertThat(replayed).contains("\"id\":" + monday.getId() + ",").doesNotContain("event:reset");
+
+        awaitContent(open("stale-run.1"), "event:reset");
+    }
+
+    private MockHttpServletResponse open(String lastEventId) throws Exception {
+        MvcResult result = mockMvc.perform(lastEventId == null
+                        ? get("/api/public/events")
+                        : get("/api/public/events").header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return result.getResponse();
+    }
+
+    private static String awaitContent(MockHttpServletResponse stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = stream.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = stream.getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
+    private static String lastEventId(String content) {
+        Matcher matcher = LAST_ID.matcher(content);
+        assertThat(matcher.lookingAt()).isTrue();
+        return matcher.group(1);
+    }
+}
@@ -0,0 +1,148 @@
+package com.mikesgrill.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CompactMenuCodecTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void roundTripsEveryItemField() {
+        MenuCategory breakfast = category(3L, "Breakfast", 1);
+        MenuCategory drinks = category(1L, "Café & Drinks", null);
+        // Referenced by an item but missing from the category list
+        MenuCategory specials = category(9L, "Specials", 4);
+        List<MenuItem> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            MenuItem item = item(100L - i * 7, "Item " + i, 4.95 + i, i % 2 == 0 ? breakfast : drinks, i % 3 == 0);
+            item.setImageUrl("/uploads/" + i + ".jpg");
+            item.setImagePlaceholder("data:image/webp;base64,AAAA" + i);
+            item.setImageWidth(1200);
+            item.setImageHeight(800);
+            items.add(item);
+        }
+        items.add(item(500L, "Mystery 🍔", null, specials, true));
+        items.add(item(2L, "", 0.0, null, false));
+        MenuSnapshot snapshot = MenuSnapshot.of(42, List.of(breakfast, drinks), items);
+
+        MenuSnapshot decoded = CompactMenuCodec.decode(CompactMenuCodec.encode(snapshot));
+
+        assertThat(decoded.getVersion()).isEqualTo(42);
+        assertThat(decoded.getCategories()).usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(breakfast, drinks, specials);
+        assertThat(decoded.getItems()).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(snapshot.getItems());
+    }
+
+    @Test
+    void sendsPricesAsWholeCents() {
+        MenuCategory category = category(1L, "Sides", 1);
+        MenuSnapshot snapshot = MenuSnapshot.of(1, List.of(category), List.of(
+                item(1L, "Fries", 0.1 + 0.2, category, false),
+                item(2L, "Shake", 7.95, category, false),
+                item(3L, "Refund", -1.5, category, false)));
+
+        assertThat(CompactMenuCodec.decode(CompactMenuCodec.encode(snapshot)).getItems())
+                .extracting(MenuItem::getPrice).containsExactly(0.3, 7.95, -1.5);
+    }
+
+    @Test
+    void rejectsBytesThatAreNotACompactMenu() {
+        MenuCategory category = category(1L, "Sides", 1);
+        byte[] encoded = CompactMenuCodec.encode(MenuSnapshot.of(1, List.of(category),
+                List.of(item(1L, "Fries", 2.5, category, false))));
+
+        assertThatThrownBy(() -> CompactMenuCodec.decode("[{\"id\":1}]".getBytes()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompactMenuCodec.decode(Arrays.copyOf(encoded, encoded.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompactMenuCodec.decode(Arrays.copyOf(encoded, encoded.length + 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void isSmallerThanJsonBeforeAndAfterGzip() throws Exception {
+        List<MenuCategory> categories = new ArrayList<>();
+        List<MenuItem> items = new ArrayList<>();
+        for (int c = 0; c < 20; c++) {
+            MenuCategory category = category((long) c + 1, "Category " + c, c);
+            categories.add(category);
+            for (int i = 0; i < 50; i++) {
+                MenuItem item = item((long) items.size() + 1, category.getName() + " special " + i, 7.95 + i,
+                        category, i == 0);
+                item.setImageUrl("/uploads/" + items.size() + ".jpg");
+                items.add(item);
+            }
+        }
+        MenuSnapshot snapshot = MenuSnapshot.of(1, categories, items);
+
+        SerializedPayload json = SerializedPayload.of(objectMapper.writeValueAsBytes(snapshot.getItems()), "\"j\"");
+        SerializedPayload compact = SerializedPayload.of(CompactMenuCodec.encode(snapshot), "\"c\"",
+                CompactMenuCodec.MEDIA_TYPE);
+
+        assertThat(compact.getIdentity().length).isLessThan(json.getIdentity().length / 2);
+        assertThat(compact.getGzip().length).isLessThan(json.getGzip().length);
+    }
+
+    @Test
+    void servesTheCompactFormOnlyWhenAskedForByName() throws Exception {
+        assertThat(CompactMenuCodec.isAccepted("application/vnd.mikesgrill.menu-compact")).isTrue();
+        assertThat(CompactMenuCodec.isAccepted("application/json;q=0.5, application/vnd.mikesgrill.menu-compact"))
+                .isTrue();
+        assertThat(CompactMenuCodec.isAccepted("application/vnd.mikesgrill.menu-compact;q=0")).isFalse();
+        assertThat(CompactMenuCodec.isAccepted("*/*")).isFalse();
+        assertThat(CompactMenuCodec.isAccepted("application/vnd.mikesgrill.menu-compact;;=")).isFalse();
+
+        MvcResult json = mockMvc.perform(get("/api/public/menu").header(HttpHeaders.ACCEPT, "*/*"))
+                .andExpect(status().isOk()).andReturn();
+        MvcResult compact = mockMvc.perform(get("/api/public/menu")
+                        .header(HttpHeaders.ACCEPT, CompactMenuCodec.MEDIA_TYPE_VALUE))
+                .andExpect(status().isOk()).andReturn();
+
+        assertThat(json.getResponse().getContentType()).startsWith("application/json");
+        assertThat(compact.getResponse().getContentType()).isEqualTo(CompactMenuCodec.MEDIA_TYPE_VALUE);
+        assertThat(String.join(",", compact.getResponse().getHeaders(HttpHeaders.VARY)).split(",\\s*"))
+                .contains(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        assertThat(compact.getResponse().getHeader(HttpHeaders.ETAG))
+                .isNotEqualTo(json.getResponse().getHeader(HttpHeaders.ETAG));
+
+        MenuItem[] fromJson = objectMapper.readValue(json.getResponse().getContentAsByteArray(), MenuItem[].class);
+        MenuSnapshot fromCompact = CompactMenuCodec.decode(compact.getResponse().getContentAsByteArray());
+        assertThat(fromCompact.getItems()).usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(fromJson);
+    }
+
+    private static MenuCategory category(Long id, String name, Integer sortOrder) {
+        MenuCategory category = new MenuCategory(name, sortOrder);
+        category.setId(id);
+        return category;
+    }
+
+    private static MenuItem item(Long id, String name, Double price, MenuCategory category, boolean featured) {
+        MenuItem item = new MenuItem(name, "A description of " + name, price, null, category, featured);
+        item.setId(id);
+        return item;
+    }
+}
@@ -0,0 +1,180 @@
+package com.mikesgrill.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Public reads carry an ETag and their resource's Cache-Control policy,
+ * revalidate to 304 until an admin write moves the version, and the menu
+ * serves a separately tagged gzip variant to clients that accept it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "admin")
+class ConditionalGetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AdminUserRepository adminUserRepository;
+
+    @Autowired
+    private MenuCategoryRepository menuCategoryRepository;
+
+    @Autowired
+    private RestaurantHoursRepository restaurantHoursRepository;
+
+    private final List<Long> addedItems = new ArrayList<>();
+
+    @BeforeEach
+    void seedAdmin() {
+        if (adminUserRepository.findByUsername("admin").isEmpty()) {
+            adminUserRepository.save(new AdminUser("admin", "{noop}unused"));
+        }
+    }
+
+    /** Other tests seed the menu only when it is empty. */
+    @AfterEach
+    void removeAddedItems() throws Exception {
+        for (Long id : addedItems) {
+            mockMvc.perform(delete("/api/admin/menu/" + id)).andExpect(status().isNoContent());
+        }
+    }
+
+    @Test
+    void hoursRevalidateUntilAnAdminWrite() throws Exception {
+        String etag = mockMvc.perform(get("/api/public/hours"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        MvcResult notModified = mockMvc.perform(get("/api/public/hours").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, public"))
+                .andReturn();
+        assertThat(notModified.getResponse().getContentAsByteArray()).isEmpty();
+        // A proxy may weaken the tag; it still revalidates
+        mockMvc.perform(get("/api/public/hours").header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified());
+
+        RestaurantHours monday = restaurantHoursRepository.findAll().get(0);
+        mockMvc.perform(put("/api/admin/hours/" + monday.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(monday)))
+                .andExpect(status().isOk());
+
+        String changed = mockMvc.perform(get("/api/public/hours").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotEqualTo(etag);
+    }
+
+    @Test
+    void eachResourceHasItsOwnCachePolicy() throws Exception {
+        Map<String, String> policies = Map.of(
+                "/api/public/settings", "max-age=300, public",
+                "/api/public/categories", "max-age=60, public",
+                "/api/public/menu", "max-age=60, public",
+                "/api/public/bootstrap", "max-age=60, public");
+        for (Map.Entry<String, String> policy : policies.entrySet()) {
+            mockMvc.perform(get(policy.getKey()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, policy.getValue()));
+        }
+    }
+
+    @Test
+    void menuServesATaggedGzipVariantAndChangesTagOnWrite() throws Exception {
+        addMenuItem("Gzip burger");
+
+        MvcResult identity = mockMvc.perform(get("/api/public/menu"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+        MvcResult gzip = mockMvc.perform(get("/api/public/menu").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        String identityTag = identity.getResponse().getHeader(HttpHeaders.ETAG);
+        String gzipTag = gzip.getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(gzipTag).isEqualTo(identityTag.substring(0, identityTag.length() - 1) + "-gz\"");
+        assertThat(gzip.getResponse().getHeaders(HttpHeaders.VARY))
+                .anySatisfy(vary -> assertThat(vary).contains(HttpHeaders.ACCEPT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(gzip.getResponse().getContentAsByteArray()))) {
+            assertThat(in.readAllBytes()).isEqualTo(identity.getResponse().getContentAsByteArray());
+        }
+
+        mockMvc.perform(get("/api/public/menu")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, gzipTag));
+        // The gzip tag doesn't validate the identity bytes
+        mockMvc.perform(get("/api/public/menu").header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+                .andExpect(status().isOk());
+        // q=0 refuses gzip, so the identity tag is the one that applies
+        mockMvc.perform(get("/api/public/menu")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0")
+                        .header(HttpHeaders.IF_NONE_MATCH, identityTag))
+                .andExpect(status().isNotModified());
+
+        addMenuItem("Gzip fries");
+
+        String changed = mockMvc.perform(get("/api/public/menu")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotEqualTo(gzipTag).endsWith("-gz\"");
+    }
+
+    private void addMenuItem(String name) throws Exception {
+        MenuCategory category = menuCategoryRepository.findAllByOrderBySortOrderAsc().get(0);
+        Map<String, Object> item = Map.of(
+                "name", name,
+                "description", "Served with pickles, lettuce, tomato and onion on a toasted bun",
+                "price", 9.95,
+                "category", Map.of("id", category.getId()),
+                "featured", false);
+        String created = mockMvc.perform(post("/api/admin/menu")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(item)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        addedItems.add(objectMapper.readTree(created).get("id").asLong());
+    }
+}
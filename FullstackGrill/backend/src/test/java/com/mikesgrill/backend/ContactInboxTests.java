@@ -0,0 +1,111 @@
+package com.mikesgrill.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "admin")
+class ContactInboxTests {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 5, 1, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ContactMessageRepository contactMessageRepository;
+
+    @Autowired
+    private AdminUserRepository adminUserRepository;
+
+    @BeforeEach
+    void setUp() {
+        if (adminUserRepository.findByUsername("admin").isEmpty()) {
+            adminUserRepository.save(new AdminUser("admin", "{noop}unused"));
+        }
+        contactMessageRepository.deleteAll();
+    }
+
+    @Test
+    void cursorWalksEveryMessageOnceAcrossTiesOnCreatedAt() throws Exception {
+        // Five share a timestamp, so page boundaries fall inside the tie
+        for (int i = 0; i < 5; i++) {
+            insert("Tied " + i, NOON);
+        }
+        insert("Older", NOON.minusMinutes(1));
+        insert("Oldest", NOON.minusDays(1));
+        List<Long> expected = jdbcTemplate.queryForList(
+                "select id from contact_messages order by created_at desc, id desc", Long.class);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = "/api/admin/contacts/page?limit=2" + (cursor != null ? "&cursor=" + cursor : "");
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> seen.add(item.get("id").asLong()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo(4);
+    }
+
+    @Test
+    void onlyFlagsMessagesLongerThanTheSnippetAsTruncated() throws Exception {
+        insert("x".repeat(ContactMessageSummary.SNIPPET_LENGTH), NOON);
+        insert("y".repeat(ContactMessageSummary.SNIPPET_LENGTH + 1), NOON.minusMinutes(1));
+
+        mockMvc.perform(get("/api/admin/contacts/page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].snippet").value("x".repeat(ContactMessageSummary.SNIPPET_LENGTH)))
+                .andExpect(jsonPath("$.items[0].truncated").value(false))
+                .andExpect(jsonPath("$.items[1].snippet").value("y".repeat(ContactMessageSummary.SNIPPET_LENGTH)))
+                .andExpect(jsonPath("$.items[1].truncated").value(true));
+    }
+
+    @Test
+    void rejectsMalformedCursors() throws Exception {
+        String wrongShape = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("yesterday|abc".getBytes(StandardCharsets.UTF_8));
+        for (String cursor : List.of("not base64!", wrongShape)) {
+            mockMvc.perform(get("/api/admin/contacts/page").param("cursor", cursor))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private void insert(String message, LocalDateTime createdAt) {
+        jdbcTemplate.update("insert into contact_messages (name, email, message, created_at) values (?, ?, ?, ?)",
+                "Guest", "guest@example.com", message, Timestamp.valueOf(createdAt));
+    }
+}
@@ -0,0 +1,63 @@
+package com.mikesgrill.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContactSubmissionQueueTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void movesRowsTheDatabaseRejectsToTheDeadLetterFile() throws Exception {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:contactqueue;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table contact_messages (id bigint auto_increment primary key, "
+                + "name varchar(255) not null, email varchar(255) not null, message text not null, "
+                + "created_at timestamp not null)");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Path journal = dir.resolve("contact-journal.log");
+
+        ContactSubmissionQueue queue = new ContactSubmissionQueue(jdbcTemplate, transactionTemplate, objectMapper,
+                true, 100, 50, 50, 1, journal.toString());
+        queue.start();
+        queue.submit("Ann", "ann@example.com", "Hello");
+        // Violates NOT NULL on every attempt, so the batch can never commit as a whole
+        queue.submit(null, "nobody@example.com", "Bad row");
+        queue.submit("Bob", "bob@example.com", "Still delivered");
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (queue.getStats().getDeadLettered() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        queue.stop();
+
+        assertThat(queue.getStats().getDeadLettered()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("select name from contact_messages order by id", String.class))
+                .containsExactly("Ann", "Bob");
+        List<String> deadLetters = Files.readAllLines(dir.resolve("contact-journal.log.dead"));
+        assertThat(deadLetters).hasSize(1);
+        assertThat(objectMapper.readTree(deadLetters.get(0)).get("email").asText()).isEqualTo("nobody@example.com");
+
+        // Nothing is left to replay on the next start
+        ContactSubmissionQueue restarted = new ContactSubmissionQueue(jdbcTemplate, transactionTemplate,
+                objectMapper, true, 100, 50, 50, 1, journal.toString());
+        restarted.start();
+        restarted.stop();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from contact_messages", Integer.class)).isEqualTo(2);
+    }
+}
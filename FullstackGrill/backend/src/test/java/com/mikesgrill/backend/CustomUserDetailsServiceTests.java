@@ -0,0 +1,48 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomUserDetailsServiceTests {
+
+    private final AdminUserRepository repository = mock(AdminUserRepository.class);
+    private final CustomUserDetailsService service = new CustomUserDetailsService();
+
+    CustomUserDetailsServiceTests() {
+        ReflectionTestUtils.setField(service, "adminUserRepository", repository);
+    }
+
+    @Test
+    void servesRepeatLookupsFromTheCache() {
+        when(repository.findByUsername("admin")).thenReturn(Optional.of(new AdminUser("admin", "{noop}x")));
+
+        service.loadUserByUsername("admin");
+        assertThat(service.isActive("admin")).isTrue();
+
+        verify(repository, times(1)).findByUsername("admin");
+    }
+
+    @Test
+    void aUserDeletedWhileBeingLoadedIsNotCached() {
+        // The delete (and its evict) lands between the database read and the cache put
+        when(repository.findByUsername("admin"))
+                .thenAnswer(invocation -> {
+                    service.evict("ADMIN");
+                    return Optional.of(new AdminUser("admin", "{noop}x"));
+                })
+                .thenReturn(Optional.empty());
+
+        assertThat(service.loadUserByUsername("admin").getUsername()).isEqualTo("admin");
+        assertThat(service.isActive("admin")).isFalse();
+
+        verify(repository, times(2)).findByUsername("admin");
+    }
+}
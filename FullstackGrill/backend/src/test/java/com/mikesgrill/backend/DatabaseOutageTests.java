@@ -0,0 +1,133 @@
+package com.mikesgrill.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Boots with the database unreachable and a snapshot on disk, then brings
+ * the database up: public reads come from the snapshot meanwhile, and the
+ * first probe that gets through creates the schema, seeds the defaults and
+ * switches back to live data.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class DatabaseOutageTests {
+
+    private static final String SNAPSHOT_HERO = "/uploads/from-snapshot.jpg";
+
+    private static int databasePort;
+    private static Server database;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataAvailabilityMonitor monitor;
+
+    @Autowired
+    private DatabaseInitializer databaseInitializer;
+
+    @Autowired
+    private MenuCategoryRepository menuCategoryRepository;
+
+    @DynamicPropertySource
+    static void unreachableDatabase(DynamicPropertyRegistry registry) throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            databasePort = socket.getLocalPort();
+        }
+        Path dir = Files.createDirectories(Path.of("target/test-data/outage"));
+        Path snapshot = dir.resolve("public-snapshot.json");
+        writeSnapshot(snapshot);
+
+        registry.add("spring.datasource.url", () -> "jdbc:h2:tcp://localhost:" + databasePort
+                + "/mem:outage;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        registry.add("spring.datasource.hikari.connection-timeout", () -> "500");
+        // The production setting, so the update has to wait for the database
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("public-data.snapshot.path", snapshot::toString);
+        registry.add("public-data.probe-interval-ms", () -> "3600000");
+        registry.add("contact.write-behind.journal", () -> dir.resolve("contact-journal.log").toString());
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        if (database != null) {
+            database.stop();
+        }
+    }
+
+    @Test
+    void servesTheSnapshotUntilTheDatabaseComesUp() throws Exception {
+        assertThat(databaseInitializer.isInitialized()).isFalse();
+        monitor.probe();
+
+        mockMvc.perform(get("/api/public/ready")).andExpect(status().isOk());
+        MvcResult staleSettings = mockMvc.perform(get("/api/public/settings"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(StaleDataResponseAdvice.STALE_HEADER, "true"))
+                .andExpect(jsonPath("$.heroImageUrl").value(SNAPSHOT_HERO))
+                .andReturn();
+        mockMvc.perform(get("/api/public/hours"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(StaleDataResponseAdvice.STALE_HEADER, "true"))
+                .andExpect(jsonPath("$[0].dayOfWeek").value("Monday"));
+        mockMvc.perform(get("/api/public/menu"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(StaleDataResponseAdvice.STALE_HEADER, "true"));
+        String staleTag = staleSettings.getResponse().getHeader(HttpHeaders.ETAG);
+
+        database = Server.createTcpServer("-tcpPort", Integer.toString(databasePort), "-ifNotExists").start();
+        monitor.probe();
+
+        assertThat(databaseInitializer.isInitialized()).isTrue();
+        assertThat(menuCategoryRepository.count()).isPositive();
+        mockMvc.perform(get("/api/public/ready")).andExpect(status().isOk());
+        MvcResult liveSettings = mockMvc.perform(get("/api/public/settings").header(HttpHeaders.IF_NONE_MATCH, staleTag))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(StaleDataResponseAdvice.STALE_HEADER))
+                .andReturn();
+        assertThat(liveSettings.getResponse().getContentAsString()).doesNotContain(SNAPSHOT_HERO);
+        mockMvc.perform(get("/api/public/menu"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(StaleDataResponseAdvice.STALE_HEADER));
+        mockMvc.perform(get("/api/public/hours"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(StaleDataResponseAdvice.STALE_HEADER));
+    }
+
+    private static void writeSnapshot(Path file) throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        MenuCategory burgers = new MenuCategory("Burgers", 1);
+        PublicDataSnapshot snapshot = new PublicDataSnapshot(Instant.now(), List.of(burgers),
+                List.of(new MenuItem("Classic", "Beef patty", 9.95, null, burgers, true)),
+                List.of(new RestaurantHours("Monday", "11:00", "21:00", false, 1)),
+                new SiteSettings(SNAPSHOT_HERO));
+        Files.write(file, objectMapper.writeValueAsBytes(snapshot));
+    }
+}
@@ -0,0 +1,136 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HoursScheduleTests {
+
+    private static final ZoneId ZONE = ZoneId.of("America/Chicago");
+
+    @Test
+    void readsCommonTimeFormatsAndRejectsTheRest() {
+        assertThat(WeeklySchedule.parseTime("11:00 AM")).isEqualTo(LocalTime.of(11, 0));
+        assertThat(WeeklySchedule.parseTime("9pm")).isEqualTo(LocalTime.of(21, 0));
+        assertThat(WeeklySchedule.parseTime(" 9:30 p.m. ")).isEqualTo(LocalTime.of(21, 30));
+        assertThat(WeeklySchedule.parseTime("12:15 AM")).isEqualTo(LocalTime.of(0, 15));
+        assertThat(WeeklySchedule.parseTime("noon")).isEqualTo(LocalTime.NOON);
+        assertThat(WeeklySchedule.parseTime("21:30")).isEqualTo(LocalTime.of(21, 30));
+        assertThat(WeeklySchedule.formatTime(LocalTime.of(21, 0))).isEqualTo("9:00 PM");
+
+        for (String invalid : new String[]{"", "TBD", "25:00", "13 PM", "9:75 AM", "late"}) {
+            assertThatThrownBy(() -> WeeklySchedule.parseTime(invalid)).as(invalid)
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void lateNightsCloseAfterMidnight() {
+        WeeklySchedule schedule = WeeklySchedule.compile(List.of(
+                new RestaurantHours("Friday", "5:00 PM", "2:00 AM", false, 5),
+                new RestaurantHours("Saturday", "11:00 AM", "10:00 PM", false, 6),
+                new RestaurantHours("Sunday", "", "", true, 7)), List.of(), ZONE);
+
+        // Friday 2026-10-16
+        HoursStatus lateFriday = schedule.status(at(2026, 10, 17, 1, 30));
+        assertThat(lateFriday.isOpen()).isTrue();
+        assertThat(lateFriday.getNextChange().toLocalDateTime()).isEqualTo(LocalDateTime.of(2026, 10, 17, 2, 0));
+        assertThat(lateFriday.getTimeZone()).isEqualTo("America/Chicago");
+
+        HoursStatus saturdayMorning = schedule.status(at(2026, 10, 17, 3, 0));
+        assertThat(saturdayMorning.isOpen()).isFalse();
+        assertThat(saturdayMorning.getNextChange().toLocalDateTime()).isEqualTo(LocalDateTime.of(2026, 10, 17, 11, 0));
+
+        HoursStatus sunday = schedule.status(at(2026, 10, 18, 12, 0));
+        assertThat(sunday.isOpen()).isFalse();
+        assertThat(sunday.getNextChange().toLocalDateTime()).isEqualTo(LocalDateTime.of(2026, 10, 23, 17, 0));
+    }
+
+    @Test
+    void dateOverridesReplaceTheWeeklyHours() {
+        List<RestaurantHours> week = List.of(
+                new RestaurantHours("Thursday", "11:00 AM", "9:00 PM", false, 4),
+                new RestaurantHours("Friday", "11:00 AM", "10:00 PM", false, 5),
+                new RestaurantHours("Saturday", "11:00 AM", "10:00 PM", false, 6));
+        WeeklySchedule schedule = WeeklySchedule.compile(week, List.of(
+                new HoursOverride(LocalDate.of(2026, 12, 24), "11:00 AM", "2:00 PM", false, "Christmas Eve"),
+                new HoursOverride(LocalDate.of(2026, 12, 25), null, null, true, "Christmas")), ZONE);
+
+        HoursStatus christmasEve = schedule.status(at(2026, 12, 24, 13, 0));
+        assertThat(christmasEve.isOpen()).isTrue();
+        assertThat(christmasEve.getNextChange().toLocalDateTime()).isEqualTo(LocalDateTime.of(2026, 12, 24, 14, 0));
+
+        HoursStatus christmas = schedule.status(at(2026, 12, 25, 12, 0));
+        assertThat(christmas.isOpen()).isFalse();
+        assertThat(christmas.getNextChange().toLocalDateTime()).isEqualTo(LocalDateTime.of(2026, 12, 26, 11, 0));
+    }
+
+    @Test
+    void reusesTheStatusUntilItsNextChangeAndRejectsInvalidTimesOnSave() {
+        RestaurantHoursRepository hoursRepository = mock(RestaurantHoursRepository.class);
+        HoursOverrideRepository overrideRepository = mock(HoursOverrideRepository.class);
+        RestaurantHours monday = new RestaurantHours("Monday", "11:00 AM", "9:00 PM", false, 1);
+        monday.setId(1L);
+        when(hoursRepository.findAllByOrderBySortOrderAsc()).thenReturn(List.of(monday));
+        when(hoursRepository.findById(1L)).thenReturn(Optional.of(monday));
+        RestaurantHoursService service = new RestaurantHoursService(hoursRepository, overrideRepository,
+                new ContentVersions(event -> { }), mock(PublicDataSnapshotStore.class),
+                mock(TransactionTemplate.class), mock(BatchInsert.class), ZONE.getId());
+
+        // Monday 2026-10-19
+        HoursStatus first = service.getStatus(at(2026, 10, 19, 12, 0));
+        assertThat(service.getStatus(at(2026, 10, 19, 20, 59))).isSameAs(first);
+        assertThat(service.getStatus(at(2026, 10, 19, 21, 0)).isOpen()).isFalse();
+        verify(hoursRepository, times(1)).findAllByOrderBySortOrderAsc();
+
+        RestaurantHours invalid = new RestaurantHours("Monday", "11:00 AM", "late", false, 1);
+        assertThatThrownBy(() -> service.updateHours(1L, invalid))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid closing time for Monday");
+        verify(hoursRepository, never()).save(any());
+
+        service.updateHours(1L, new RestaurantHours("Monday", "7am", "21:00", false, 1));
+        assertThat(monday.getOpenTime()).isEqualTo("7:00 AM");
+        assertThat(monday.getCloseTime()).isEqualTo("9:00 PM");
+    }
+
+    @Test
+    void doesNotKeepAScheduleCompiledWithoutItsOverrides() {
+        RestaurantHoursRepository hoursRepository = mock(RestaurantHoursRepository.class);
+        HoursOverrideRepository overrideRepository = mock(HoursOverrideRepository.class);
+        when(hoursRepository.findAllByOrderBySortOrderAsc())
+                .thenReturn(List.of(new RestaurantHours("Monday", "11:00 AM", "9:00 PM", false, 1)));
+        when(overrideRepository.findByDateGreaterThanEqualOrderByDateAsc(any()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(List.of(new HoursOverride(LocalDate.of(2026, 10, 19), null, null, true, "Closed")));
+        RestaurantHoursService service = new RestaurantHoursService(hoursRepository, overrideRepository,
+                new ContentVersions(event -> { }), mock(PublicDataSnapshotStore.class),
+                mock(TransactionTemplate.class), mock(BatchInsert.class), ZONE.getId());
+
+        // The weekly hours answer while the overrides can't be read...
+        assertThat(service.getStatus(at(2026, 10, 19, 12, 0)).isOpen()).isTrue();
+        // ...and the closure counts on the next call, with no hours edit in between
+        assertThat(service.getStatus(at(2026, 10, 19, 12, 1)).isOpen()).isFalse();
+    }
+
+    private static Instant at(int year, int month, int day, int hour, int minute) {
+        return LocalDateTime.of(year, month, day, hour, minute).atZone(ZONE).toInstant();
+    }
+}
@@ -0,0 +1,140 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImagePlaceholderServiceTests {
+
+    @TempDir
+    Path dir;
+
+    private final MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+    private final MenuSnapshotService menuSnapshotService = mock(MenuSnapshotService.class);
+    private ImageVariantService imageVariantService;
+    private ImagePlaceholderService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // The uploads directory is fixed, so originals are resolved from the temp dir instead
+        imageVariantService = spy(new ImageVariantService(dir.resolve("variants").toString(), 1 << 20, 1, 4));
+        doReturn(Optional.empty()).when(imageVariantService).resolveOriginal(anyString());
+        when(menuItemRepository.updateImageMetadata(anyString(), anyString(), any(), any())).thenReturn(1);
+        service = new ImagePlaceholderService(menuItemRepository, imageVariantService, menuSnapshotService);
+    }
+
+    @AfterEach
+    void stop() {
+        service.stop();
+        imageVariantService.stop();
+    }
+
+    @Test
+    void storesThePlaceholderAndSizeKeyedOnTheUrlAndRefreshesTheMenuOnce() throws Exception {
+        Path burger = upload("burger.png", 400, 300);
+        upload("fries.png", 200, 100);
+        // Hold the first image until the second is queued behind it
+        CountDownLatch queued = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            queued.await(5, TimeUnit.SECONDS);
+            return Optional.of(burger);
+        }).when(imageVariantService).resolveOriginal("burger.png");
+
+        service.schedule("/uploads/burger.png");
+        service.schedule("/uploads/fries.png");
+        queued.countDown();
+
+        verify(menuItemRepository, timeout(5000)).updateImageMetadata(
+                eq("/uploads/burger.png"), startsWith("data:image/jpeg;base64,"), eq(400), eq(300));
+        verify(menuItemRepository, timeout(5000)).updateImageMetadata(
+                eq("/uploads/fries.png"), startsWith("data:image/jpeg;base64,"), eq(200), eq(100));
+        verify(menuSnapshotService, after(200).times(1)).refreshAfterCommit();
+    }
+
+    @Test
+    void leavesExternalImagesAlone() throws Exception {
+        service.schedule("https://example.com/burger.png");
+        service.schedule(null);
+
+        verify(imageVariantService, after(200).never()).resolveOriginal(anyString());
+    }
+
+    @Test
+    void waitsForTheSurroundingTransactionToCommit() throws Exception {
+        upload("shake.png", 64, 64);
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> synchronizations;
+        try {
+            service.schedule("/uploads/shake.png");
+            synchronizations = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(imageVariantService, after(200).never()).resolveOriginal(anyString());
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        verify(menuItemRepository, timeout(5000)).updateImageMetadata(
+                eq("/uploads/shake.png"), anyString(), eq(64), eq(64));
+    }
+
+    @Test
+    void doesNotBackfillImagesThatCannotBeResolvedAgain() throws Exception {
+        // More than the queue holds, so some are resubmitted once it drains
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            missing.add("/uploads/missing-" + i + ".png");
+        }
+        Files.write(dir.resolve("broken.png"), new byte[]{1, 2, 3});
+        doReturn(Optional.of(dir.resolve("broken.png"))).when(imageVariantService).resolveOriginal("broken.png");
+        missing.add("/uploads/broken.png");
+        when(menuItemRepository.findImageUrlsWithoutPlaceholder()).thenReturn(missing);
+
+        service.backfill();
+        for (String imageUrl : missing) {
+            verify(imageVariantService, timeout(5000))
+                    .resolveOriginal(imageUrl.substring(UploadStore.URL_PREFIX.length()));
+        }
+        service.backfill();
+
+        verify(menuItemRepository, after(200).times(2)).findImageUrlsWithoutPlaceholder();
+        verify(imageVariantService, times(missing.size())).resolveOriginal(anyString());
+        verify(menuItemRepository, never()).updateImageMetadata(anyString(), anyString(), any(), any());
+        verify(menuSnapshotService, never()).refreshAfterCommit();
+    }
+
+    private Path upload(String name, int width, int height) throws Exception {
+        Path file = dir.resolve(name);
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+        doReturn(Optional.of(file)).when(imageVariantService).resolveOriginal(name);
+        return file;
+    }
+}
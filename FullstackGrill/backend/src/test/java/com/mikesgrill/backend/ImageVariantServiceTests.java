@@ -0,0 +1,58 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageVariantServiceTests {
+
+    @TempDir
+    Path dir;
+
+    private ImageVariantService service;
+
+    @AfterEach
+    void stop() {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void marksOnlyTheOriginalServedInPlaceOfAFailedRenderAsAFallback() throws Exception {
+        service = new ImageVariantService(dir.resolve("variants").toString(), 1 << 20, 1, 4);
+        service.loadIndex();
+        Path wide = png("wide.png", 400);
+        Path narrow = png("narrow.png", 100);
+        Path broken = Files.write(dir.resolve("broken.jpg"), new byte[]{1, 2, 3});
+
+        ImageVariantService.Variant resized = service.variant(wide, 160, null);
+        assertThat(resized.fallback()).isFalse();
+        assertThat(resized.file()).isNotEqualTo(wide);
+        assertThat(ImageIO.read(resized.file().toFile()).getWidth()).isEqualTo(160);
+
+        // Never upscaled; the original is the variant and is cacheable as one
+        for (int i = 0; i < 2; i++) {
+            ImageVariantService.Variant original = service.variant(narrow, 320, null);
+            assertThat(original.file()).isEqualTo(narrow);
+            assertThat(original.fallback()).isFalse();
+        }
+
+        ImageVariantService.Variant failed = service.variant(broken, 160, null);
+        assertThat(failed.file()).isEqualTo(broken);
+        assertThat(failed.fallback()).isTrue();
+    }
+
+    private Path png(String name, int width) throws Exception {
+        Path file = dir.resolve(name);
+        ImageIO.write(new BufferedImage(width, width / 2, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+        return file;
+    }
+}
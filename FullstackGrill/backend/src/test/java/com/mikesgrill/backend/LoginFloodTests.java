@@ -0,0 +1,147 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Floods the login endpoint from many addresses and usernames, so neither
+ * token bucket kicks in and only the bcrypt bulkhead stands between the
+ * flood and the CPU, while timing public menu reads. The flood takes a
+ * while and asserts on wall-clock latency, so it is tagged {@code load} and
+ * left out of {@code mvn test}; run it with
+ * {@code mvn test -Dtest.excludedGroups= -Dgroups=load}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LoginFloodTests {
+
+    private static final int FLOOD_THREADS = 32;
+    private static final int SAMPLES = 200;
+
+    @LocalServerPort
+    private int port;
+
+    private static final ExecutorService clientExecutor = Executors.newCachedThreadPool();
+    private static final HttpClient client = HttpClient.newBuilder()
+            .executor(clientExecutor)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @AfterAll
+    static void closeClient() {
+        clientExecutor.shutdownNow();
+    }
+
+    @Test
+    @Tag("load")
+    void publicMenuKeepsItsLatencyDuringLoginFlood() throws Exception {
+        sampleMenuLatencies(50);
+        long baseline = percentile(sampleMenuLatencies(SAMPLES), 95);
+
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger attempts = new AtomicInteger();
+        ExecutorService flood = Executors.newFixedThreadPool(FLOOD_THREADS);
+        for (int i = 0; i < FLOOD_THREADS; i++) {
+            flood.execute(() -> {
+                while (flooding.get()) {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    String address = "10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256);
+                    try {
+                        int status = login(address, "user" + random.nextInt(1_000_000), "wrong").statusCode();
+                        attempts.incrementAndGet();
+                        if (status == 429) {
+                            rejected.incrementAndGet();
+                            // Stand-in for the network round trip, so the flood
+                            // doesn't just burn this JVM's CPU on rejections
+                            Thread.sleep(5);
+                        }
+                    } catch (Exception e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        long duringFlood;
+        try {
+            Thread.sleep(500);
+            duringFlood = percentile(sampleMenuLatencies(SAMPLES), 95);
+        } finally {
+            flooding.set(false);
+            flood.shutdown();
+            flood.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(rejected.get())
+                .as("attempts rejected by the bulkhead out of %d", attempts.get())
+                .isPositive();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(duringFlood))
+                .as("p95 public menu latency during the flood (baseline %d ms)",
+                        TimeUnit.NANOSECONDS.toMillis(baseline))
+                .isLessThanOrEqualTo(TimeUnit.NANOSECONDS.toMillis(baseline) + 100);
+    }
+
+    @Test
+    void throttlesRepeatedAttemptsFromOneAddress() throws Exception {
+        int throttled = 0;
+        for (int i = 0; i < 30; i++) {
+            HttpResponse<String> response = login("192.0.2.10", "admin" + i, "wrong");
+            if (response.statusCode() == 429) {
+                assertThat(response.headers().firstValue("Retry-After")).isPresent();
+                throttled++;
+            }
+        }
+        assertThat(throttled).isPositive();
+    }
+
+    private List<Long> sampleMenuLatencies(int samples) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/public/menu"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        List<Long> latencies = new ArrayList<>(samples);
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            latencies.add(System.nanoTime() - start);
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+        return latencies;
+    }
+
+    private HttpResponse<String> login(String forwardedFor, String username, String password) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/admin/login"))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\": \"" + username + "\", \"password\": \"" + password + "\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long percentile(List<Long> values, int percentile) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+}
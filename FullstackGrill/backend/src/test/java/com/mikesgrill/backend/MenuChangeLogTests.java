@@ -0,0 +1,86 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MenuChangeLogTests {
+
+    private final MenuSnapshotService snapshots = mock(MenuSnapshotService.class);
+    private final ContentVersions contentVersions = new ContentVersions(event -> { });
+    private final MenuChangeLog log = new MenuChangeLog(snapshots, contentVersions, 2);
+    private final MenuCategory breakfast = category(1L, "Breakfast", 1);
+
+    @Test
+    void returnsOnlyTheLatestChangePerEntitySinceTheCursor() {
+        serve(1, List.of(breakfast), List.of(item(1L, "Pancakes", 5.0), item(2L, "Waffles", 6.0)));
+        MenuChanges first = log.changesSince(null);
+        assertThat(first.isFull()).isTrue();
+        assertThat(first.getItems()).hasSize(2);
+
+        serve(2, List.of(breakfast), List.of(item(1L, "Pancakes", 5.5), item(2L, "Waffles", 6.0)));
+        serve(3, List.of(breakfast, category(2L, "Drinks", 2)),
+                List.of(item(1L, "Pancakes", 5.75), item(3L, "Coffee", 1.5)));
+
+        MenuChanges delta = log.changesSince(first.getVersion());
+        assertThat(delta.isFull()).isFalse();
+        assertThat(delta.getVersion()).isEqualTo(contentVersions.getEpoch() + ".3");
+        assertThat(delta.getChanges())
+                .extracting(change -> change.getType() + " " + change.getId() + " " + change.getOp())
+                .containsExactly("menu-category 2 created", "menu-item 1 updated",
+                        "menu-item 3 created", "menu-item 2 deleted");
+        assertThat(((MenuItem) delta.getChanges().get(1).getValue()).getPrice()).isEqualTo(5.75);
+        assertThat(delta.getChanges().get(3).getValue()).isNull();
+
+        MenuChanges caughtUp = log.changesSince(delta.getVersion());
+        assertThat(caughtUp.isFull()).isFalse();
+        assertThat(caughtUp.getChanges()).isEmpty();
+
+        // A renamed category changes the items that embed it
+        serve(4, List.of(category(1L, "Breakfast All Day", 1), category(2L, "Drinks", 2)),
+                List.of(item(1L, "Pancakes", 5.75), item(3L, "Coffee", 1.5)));
+        assertThat(log.changesSince(delta.getVersion()).getChanges())
+                .extracting(change -> change.getType() + " " + change.getId())
+                .containsExactlyInAnyOrder("menu-category 1", "menu-item 1", "menu-item 3");
+    }
+
+    @Test
+    void fallsBackToTheFullMenuOnceATombstoneIsCompactedAway() {
+        serve(1, List.of(breakfast), List.of(item(1L, "A", 1.0), item(2L, "B", 1.0), item(3L, "C", 1.0)));
+        String start = log.changesSince(null).getVersion();
+
+        serve(2, List.of(breakfast), List.of(item(2L, "B", 1.0), item(3L, "C", 1.0)));
+        String afterFirstDelete = log.changesSince(start).getVersion();
+        serve(3, List.of(breakfast), List.of(item(3L, "C", 1.0)));
+        serve(4, List.of(breakfast), List.of());
+
+        // Only two tombstones are kept, so item 1's deletion is gone
+        assertThat(log.changesSince(start).isFull()).isTrue();
+        assertThat(log.changesSince(afterFirstDelete).getChanges())
+                .extracting(MenuChange::getId).containsExactly(2L, 3L);
+        assertThat(log.changesSince("another-run.2").isFull()).isTrue();
+        assertThat(log.changesSince("garbage").isFull()).isTrue();
+    }
+
+    private void serve(long version, List<MenuCategory> categories, List<MenuItem> items) {
+        MenuSnapshot snapshot = MenuSnapshot.of(version, categories, items);
+        when(snapshots.current()).thenReturn(snapshot);
+        log.onContentChanged(new ContentChangedEvent(ContentVersions.MENU, version));
+    }
+
+    private MenuItem item(Long id, String name, double price) {
+        MenuItem item = new MenuItem(name, "", price, null, breakfast, false);
+        item.setId(id);
+        return item;
+    }
+
+    private static MenuCategory category(Long id, String name, int sortOrder) {
+        MenuCategory category = new MenuCategory(name, sortOrder);
+        category.setId(id);
+        return category;
+    }
+}
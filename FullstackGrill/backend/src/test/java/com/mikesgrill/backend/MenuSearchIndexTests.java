@@ -0,0 +1,86 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MenuSearchIndexTests {
+
+    private final MenuSnapshotService snapshots = mock(MenuSnapshotService.class);
+    private final MenuSearchIndex index = new MenuSearchIndex(snapshots);
+    private final MenuCategory breakfast = category(1L, "Breakfast");
+
+    @Test
+    void matchesPrefixesTyposAndAccentsAndRanksNameHitsFirst() {
+        serve(1, List.of(
+                item(1L, "Two Eggs with Bacon", "Three slices of bacon, toast and coffee."),
+                item(2L, "Bacon Cheeseburger", "Quarter pound with bacon."),
+                item(3L, "Crème Brûlée", "Vanilla custard."),
+                item(4L, "Pancakes", "Served with syrup and a side of eggs.")));
+
+        assertThat(names("bacon")).containsExactly("Bacon Cheeseburger", "Two Eggs with Bacon");
+        assertThat(names("chee")).containsExactly("Bacon Cheeseburger");
+        assertThat(names("cheesburger")).containsExactly("Bacon Cheeseburger");
+        assertThat(names("creme brulee")).containsExactly("Crème Brûlée");
+        assertThat(names("eggs")).containsExactly("Two Eggs with Bacon", "Pancakes");
+        assertThat(names("eggs syrup")).containsExactly("Pancakes");
+        assertThat(names("lobster")).isEmpty();
+        assertThat(names("  ")).isEmpty();
+    }
+
+    @Test
+    void followsEditsAndDeletionsBetweenVersions() {
+        serve(1, List.of(item(1L, "Chili Dog", "All beef."), item(2L, "Corn Dog", "On a stick.")));
+        assertThat(names("dog")).containsExactly("Chili Dog", "Corn Dog");
+
+        serve(2, List.of(item(1L, "Chili Cheese Dog", "All beef.")));
+        assertThat(names("dog")).containsExactly("Chili Cheese Dog");
+        assertThat(names("corn")).isEmpty();
+        assertThat(names("cheese")).containsExactly("Chili Cheese Dog");
+    }
+
+    @Test
+    void findsPrefixAndTypoMatchesOnALargeMenu() {
+        String[] words = {"bacon", "cheese", "burger", "grilled", "chicken", "salad", "fries", "shake",
+                "chocolate", "vanilla", "onion", "rings", "turkey", "club", "patty", "melt"};
+        List<MenuItem> items = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            String name = words[(int) (id % words.length)] + " " + words[(int) (id / 7 % words.length)] + " " + id;
+            items.add(item(id, name, "House " + words[(int) (id / 3 % words.length)] + " special number " + id));
+        }
+        serve(1, items);
+
+        // Latency on this menu is measured by MenuSearchBenchmark in benchmarks/
+        for (String query : new String[]{"bacon chees", "grilld special", "van", "mel"}) {
+            assertThat(index.search(query, 20)).as(query).hasSize(20);
+        }
+        assertThat(names("vanilla 12345")).first().isEqualTo(items.get(12_344).getName());
+    }
+
+    private void serve(long version, List<MenuItem> items) {
+        MenuSnapshot snapshot = MenuSnapshot.of(version, List.of(breakfast), items);
+        when(snapshots.current()).thenReturn(snapshot);
+        index.onContentChanged(new ContentChangedEvent(ContentVersions.MENU, version));
+    }
+
+    private List<String> names(String query) {
+        return index.search(query, 20).stream().map(MenuItem::getName).toList();
+    }
+
+    private MenuItem item(Long id, String name, String description) {
+        MenuItem item = new MenuItem(name, description, 5.0, null, breakfast, false);
+        item.setId(id);
+        return item;
+    }
+
+    private static MenuCategory category(Long id, String name) {
+        MenuCategory category = new MenuCategory(name, 1);
+        category.setId(id);
+        return category;
+    }
+}
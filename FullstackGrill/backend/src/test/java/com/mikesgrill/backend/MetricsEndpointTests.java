@@ -0,0 +1,64 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The Prometheus scrape lives on the management port only and carries the
+ * backend's own meters next to the ones Spring Boot provides.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class MetricsEndpointTests {
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void prometheusScrapeCoversEndpointsPoolAndContactQueue() throws Exception {
+        send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/public/menu")).build());
+        send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/contact"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\": \"\"}"))
+                .build());
+
+        HttpResponse<String> scrape = send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + managementPort + "/actuator/prometheus")).build());
+
+        assertThat(scrape.statusCode()).isEqualTo(200);
+        assertThat(scrape.body())
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("controller=\"PublicMenuController\"")
+                .contains("hikaricp_connections_pending")
+                .contains("hikaricp_connections_acquire_seconds")
+                .contains("jpa_statements_total")
+                .contains("contact_submissions_total{outcome=\"invalid\"}")
+                .contains("uploads_size_bytes");
+    }
+
+    @Test
+    void actuatorIsNotServedOnThePublicPort() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/actuator/prometheus")).build());
+        assertThat(response.body()).doesNotContain("jvm_memory_used_bytes");
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,38 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicDataSnapshotStoreTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void switchingToAndFromTheSnapshotChangesTheHoursAndSettingsTags() {
+        ContentVersions versions = new ContentVersions(event -> { });
+        PublicDataSnapshotStore store = new PublicDataSnapshotStore(Jackson2ObjectMapperBuilder.json().build(),
+                versions, dir.resolve("snapshot.json").toString());
+        String liveHours = versions.etag(ContentVersions.HOURS);
+        String liveSettings = versions.etag(ContentVersions.SETTINGS);
+
+        store.markStale();
+        String staleHours = versions.etag(ContentVersions.HOURS);
+        String staleSettings = versions.etag(ContentVersions.SETTINGS);
+        // Only the switch itself counts
+        store.markStale();
+
+        assertThat(staleHours).isNotEqualTo(liveHours).isEqualTo(versions.etag(ContentVersions.HOURS));
+        assertThat(staleSettings).isNotEqualTo(liveSettings);
+
+        store.markFresh();
+
+        assertThat(versions.etag(ContentVersions.HOURS)).isNotIn(liveHours, staleHours);
+        assertThat(versions.etag(ContentVersions.SETTINGS)).isNotIn(liveSettings, staleSettings);
+    }
+}
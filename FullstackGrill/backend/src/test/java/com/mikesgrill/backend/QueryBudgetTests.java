@@ -0,0 +1,115 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Holds every list endpoint to a fixed number of SQL statements so an N+1
+ * regression fails the build instead of showing up as a slow menu page.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "admin")
+class QueryBudgetTests {
+
+    private static final int ITEMS_PER_CATEGORY = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter statementCounter;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuCategoryRepository menuCategoryRepository;
+
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
+    @Autowired
+    private AdminUserRepository adminUserRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void seedAdmin() {
+        if (adminUserRepository.findByUsername("admin").isEmpty()) {
+            adminUserRepository.save(new AdminUser("admin", "{noop}unused"));
+        }
+        // Admin requests re-check the principal; in steady state that comes from the cache
+        userDetailsService.loadUserByUsername("admin");
+    }
+
+    @BeforeEach
+    void seedMenu() {
+        if (menuItemRepository.count() > 0) {
+            return;
+        }
+        List<MenuCategory> categories = menuCategoryRepository.findAllByOrderBySortOrderAsc();
+        for (MenuCategory category : categories) {
+            for (int i = 0; i < ITEMS_PER_CATEGORY; i++) {
+                menuItemRepository.save(new MenuItem(category.getName() + " " + i, "Description " + i,
+                        4.95 + i, null, category, i == 0));
+            }
+        }
+        menuSnapshotService.rebuild();
+    }
+
+    @Test
+    void snapshotRebuildDoesNotLoadCategoriesPerItem() {
+        long before = statementCounter.getCurrentThreadCount();
+        menuSnapshotService.rebuild();
+        assertThat(statementCounter.getCurrentThreadCount() - before).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void listEndpointsStayWithinStatementBudget() throws Exception {
+        Long categoryId = menuCategoryRepository.findAllByOrderBySortOrderAsc().get(0).getId();
+
+        Map<String, Integer> budgets = new LinkedHashMap<>();
+        budgets.put("/api/public/menu", 0);
+        budgets.put("/api/public/menu/featured", 0);
+        budgets.put("/api/public/menu/category/" + categoryId, 0);
+        budgets.put("/api/public/menu/search?q=descripton", 0);
+        budgets.put("/api/public/menu/changes", 0);
+        budgets.put("/api/public/categories", 0);
+        budgets.put("/api/public/hours", 1);
+        budgets.put("/api/public/hours/status", 1);
+        budgets.put("/api/public/settings", 1);
+        budgets.put("/api/public/bootstrap", 2);
+        budgets.put("/api/admin/menu", 1);
+        budgets.put("/api/admin/menu/category/" + categoryId, 1);
+        budgets.put("/api/admin/categories", 1);
+        budgets.put("/api/admin/hours", 1);
+        budgets.put("/api/admin/settings", 1);
+        budgets.put("/api/admin/contacts", 1);
+        budgets.put("/api/admin/contacts/page", 1);
+        budgets.put("/api/admin/users", 1);
+
+        for (Map.Entry<String, Integer> budget : budgets.entrySet()) {
+            long before = statementCounter.getCurrentThreadCount();
+            mockMvc.perform(get(budget.getKey())).andExpect(status().isOk());
+            long statements = statementCounter.getCurrentThreadCount() - before;
+            assertThat(statements)
+                    .as("SQL statements for GET %s", budget.getKey())
+                    .isLessThanOrEqualTo(budget.getValue());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UploadServingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UploadStore uploadStore;
+
+    private final List<Path> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        for (Path file : created) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void servesStoredUploadsButNotClaimsOrTempFiles() throws Exception {
+        Path directory = uploadStore.getDirectory();
+        Path upload = create(directory.resolve("e".repeat(64) + ".jpg"));
+        create(directory.resolve(".upload-789.tmp"));
+        Files.createDirectories(directory.resolve(".claims"));
+        create(directory.resolve(".claims").resolve(upload.getFileName()));
+
+        mockMvc.perform(get("/uploads/" + upload.getFileName()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+        mockMvc.perform(get("/uploads/.upload-789.tmp")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/uploads/.claims/" + upload.getFileName())).andExpect(status().isNotFound());
+    }
+
+    private Path create(Path file) throws Exception {
+        created.add(file);
+        return Files.write(file, new byte[]{1, 2, 3});
+    }
+}
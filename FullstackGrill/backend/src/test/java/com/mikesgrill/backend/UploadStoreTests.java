@@ -0,0 +1,143 @@
+package com.mikesgrill.backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UploadStoreTests {
+
+    private static final Duration GRACE = Duration.ofHours(1);
+    private static final String OLD_HASH = "a".repeat(64);
+    private static final String ABSOLUTE_HASH = "b".repeat(64);
+    private static final String HERO_HASH = "c".repeat(64);
+    private static final String YOUNG_HASH = "d".repeat(64);
+
+    @TempDir
+    Path dir;
+
+    private final SiteSettingsRepository settingsRepository = mock(SiteSettingsRepository.class);
+    private final MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+    private final List<String> imageUrls = new ArrayList<>();
+    private UploadStore store;
+
+    @BeforeEach
+    void setUp() {
+        when(settingsRepository.findAll()).thenReturn(List.of(new SiteSettings("/uploads/" + HERO_HASH + ".jpg")));
+        when(menuItemRepository.findAllImageUrls()).thenReturn(imageUrls);
+        store = new UploadStore(dir, settingsRepository, menuItemRepository, mock(PublicDataSnapshotStore.class),
+                GRACE);
+    }
+
+    @Test
+    void storesTheSameContentOnce() throws IOException {
+        String first = store.store(bytes("burger"), "Burger.JPG");
+        String second = store.store(bytes("burger"), "copy.jpg");
+        String other = store.store(bytes("fries"), "fries.png");
+
+        assertThat(first).isEqualTo(second).startsWith("/uploads/").endsWith(".jpg");
+        assertThat(other).isNotEqualTo(first).endsWith(".png");
+        assertThat(UploadStore.isContentAddressed(first.substring("/uploads/".length()))).isTrue();
+        assertThat(regularFiles()).hasSize(2);
+    }
+
+    @Test
+    void sweepsOnlyUnreferencedContentAddressedFilesAndAbandonedTempFiles() throws IOException {
+        Path unreferenced = old(file(OLD_HASH + ".jpg"));
+        Path absolute = old(file(ABSOLUTE_HASH + ".png"));
+        Path hero = old(file(HERO_HASH + ".jpg"));
+        Path young = file(YOUNG_HASH + ".jpg");
+        Path legacy = old(file("hero-0b7e2c1a-5d3f-4e8b-9a61-2f4c8d9e7b10.jpg"));
+        Path abandoned = old(file(".upload-123.tmp"));
+        Path streaming = file(".upload-456.tmp");
+        imageUrls.add("https://mikesgrill.example/uploads/" + ABSOLUTE_HASH + ".png?v=2");
+
+        store.collectGarbage();
+
+        assertThat(unreferenced).doesNotExist();
+        assertThat(abandoned).doesNotExist();
+        assertThat(absolute).exists();
+        assertThat(hero).exists();
+        assertThat(young).exists();
+        assertThat(legacy).exists();
+        assertThat(streaming).exists();
+    }
+
+    @Test
+    void reuploadRestartsTheGracePeriodWithoutTouchingTheFile() throws IOException {
+        String url = store.store(bytes("burger"), "burger.jpg");
+        Path stored = old(dir.resolve(url.substring("/uploads/".length())));
+        FileTime modified = Files.getLastModifiedTime(stored);
+
+        store.store(bytes("burger"), "burger.jpg");
+        store.collectGarbage();
+
+        assertThat(stored).exists();
+        assertThat(Files.getLastModifiedTime(stored)).isEqualTo(modified);
+
+        // Once the claim is past the grace period too, the file goes with it
+        Path claim = old(dir.resolve(".claims").resolve(stored.getFileName()));
+        store.collectGarbage();
+
+        assertThat(stored).doesNotExist();
+        assertThat(claim).doesNotExist();
+    }
+
+    @Test
+    void keepsEverythingWhileServingStaleData() throws IOException {
+        PublicDataSnapshotStore snapshotStore = mock(PublicDataSnapshotStore.class);
+        when(snapshotStore.isServingStale()).thenReturn(true);
+        store = new UploadStore(dir, settingsRepository, menuItemRepository, snapshotStore, GRACE);
+        Path unreferenced = old(file(OLD_HASH + ".jpg"));
+
+        store.collectGarbage();
+
+        assertThat(unreferenced).exists();
+    }
+
+    @Test
+    void matchesReferencesOnTheUrlPath() {
+        List<String> urls = List.of("/uploads/a.jpg", "https://cdn.example/uploads/b.jpg?w=320#top",
+                " /uploads/c.jpg ", "/images/d.jpg", "not a url /uploads/e.jpg");
+        Set<String> referenced = new HashSet<>();
+        urls.forEach(url -> UploadStore.addReference(referenced, url));
+
+        assertThat(referenced).containsExactlyInAnyOrder("a.jpg", "b.jpg", "c.jpg", "e.jpg");
+    }
+
+    private Path file(String name) throws IOException {
+        return Files.write(dir.resolve(name), name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Path old(Path file) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(GRACE).minusSeconds(60)));
+        return file;
+    }
+
+    private static ByteArrayInputStream bytes(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<Path> regularFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.mikesgrill.benchmarks;
+
+import com.mikesgrill.backend.MenuCategory;
+import com.mikesgrill.backend.MenuCategoryRepository;
+import com.mikesgrill.backend.MenuItem;
+import com.mikesgrill.backend.MenuItemRepository;
+import com.mikesgrill.backend.MenuSnapshotService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The full backend on an in-memory H2 database, seeded with a
+ * production-sized menu. Started once per fork.
+ */
+@State(Scope.Benchmark)
+public class BackendState {
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = EmbeddedBackend.start(Map.of());
+
+        MenuItemRepository items = bean(MenuItemRepository.class);
+        if (items.count() == 0) {
+            List<MenuItem> seed = new ArrayList<>();
+            for (MenuCategory category : bean(MenuCategoryRepository.class).findAllByOrderBySortOrderAsc()) {
+                for (int i = 0; i < MenuFixtures.ITEMS_PER_CATEGORY; i++) {
+                    MenuItem item = MenuFixtures.item(0, category, i);
+                    item.setId(null);
+                    seed.add(item);
+                }
+            }
+            items.saveAll(seed);
+        }
+        bean(MenuSnapshotService.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
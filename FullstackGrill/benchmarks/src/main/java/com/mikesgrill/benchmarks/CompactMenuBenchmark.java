@@ -0,0 +1,77 @@
+package com.mikesgrill.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mikesgrill.backend.CompactMenuCodec;
+import com.mikesgrill.backend.MenuItem;
+import com.mikesgrill.backend.MenuSnapshot;
+import com.mikesgrill.backend.SerializedPayload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The /api/public/menu body as JSON and in {@link CompactMenuCodec} form,
+ * encoded and decoded, for menus of 100 to 100,000 items. Body sizes, plain
+ * and gzipped, are printed once per {@code items} value during setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompactMenuBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int items;
+
+    private ObjectMapper objectMapper;
+    private MenuSnapshot snapshot;
+    private byte[] json;
+    private byte[] compact;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        MenuFixtures menu = MenuFixtures.withItems(items);
+        snapshot = MenuSnapshot.of(1, menu.categories, menu.items);
+        json = objectMapper.writeValueAsBytes(snapshot.getItems());
+        compact = CompactMenuCodec.encode(snapshot);
+
+        SerializedPayload jsonPayload = SerializedPayload.of(json, "\"json\"");
+        SerializedPayload compactPayload = SerializedPayload.of(compact, "\"compact\"", CompactMenuCodec.MEDIA_TYPE);
+        System.out.printf("%n%d items: json %d bytes (gzip %d), compact %d bytes (gzip %d)%n", items,
+                json.length, jsonPayload.getGzip().length, compact.length, compactPayload.getGzip().length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return objectMapper.writeValueAsBytes(snapshot.getItems());
+    }
+
+    @Benchmark
+    public byte[] encodeCompact() {
+        return CompactMenuCodec.encode(snapshot);
+    }
+
+    @Benchmark
+    public MenuItem[] decodeJson() throws Exception {
+        return objectMapper.readValue(json, MenuItem[].class);
+    }
+
+    @Benchmark
+    public MenuSnapshot decodeCompact() {
+        return CompactMenuCodec.decode(compact);
+    }
+}
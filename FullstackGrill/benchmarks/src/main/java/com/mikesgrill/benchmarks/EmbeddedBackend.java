@@ -0,0 +1,51 @@
+package com.mikesgrill.benchmarks;
+
+import com.mikesgrill.backend.BackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Starts the backend in this JVM on an in-memory H2 database with the same
+ * settings as the test profile. Overrides replace the defaults, so a run
+ * can point at a local MySQL instead.
+ */
+final class EmbeddedBackend {
+
+    private EmbeddedBackend() {
+    }
+
+    static Map<String, String> defaults() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("management.server.port", "0");
+        properties.put("spring.datasource.url",
+                "jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("contact.write-behind.journal", "bench-data/contact-journal.log");
+        properties.put("public-data.snapshot.path", "bench-data/public-snapshot.json");
+        properties.put("images.variants.dir", "bench-data/image-variants");
+        properties.put("logging.level.root", "WARN");
+        return properties;
+    }
+
+    static ConfigurableApplicationContext start(Map<String, String> overrides) {
+        Map<String, String> properties = defaults();
+        properties.putAll(overrides);
+        // Command-line arguments so they win over application.properties
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(BackendApplication.class).run(args);
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+    }
+}
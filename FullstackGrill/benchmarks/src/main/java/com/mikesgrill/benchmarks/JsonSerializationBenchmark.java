@@ -0,0 +1,80 @@
+package com.mikesgrill.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mikesgrill.backend.ContentVersions;
+import com.mikesgrill.backend.MenuPayloadCache;
+import com.mikesgrill.backend.MenuSnapshot;
+import com.mikesgrill.backend.SerializedPayload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Public menu bodies at the real size ({@code scale=1}) and at 100x.
+ * {@code jacksonPerRequest} is what every /api/public/menu request used to
+ * cost; {@code preSerializedPerRequest} is the current path through
+ * {@link MenuPayloadCache}, and {@code buildPayload} is the serialize plus
+ * gzip cost it pays once per menu version. Sample mode reports p99; add
+ * {@code -prof gc} for allocation per operation.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "100"})
+    public int scale;
+
+    private ObjectMapper objectMapper;
+    private MenuFixtures menu;
+    private MenuSnapshot snapshot;
+    private MenuPayloadCache payloadCache;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        menu = new MenuFixtures(scale);
+        snapshot = MenuSnapshot.of(1, menu.categories, menu.items);
+        payloadCache = new MenuPayloadCache(objectMapper, new ContentVersions(event -> { }));
+        payloadCache.items(snapshot);
+    }
+
+    @Benchmark
+    public byte[] menuItems() throws Exception {
+        return objectMapper.writeValueAsBytes(menu.items);
+    }
+
+    @Benchmark
+    public byte[] menuCategories() throws Exception {
+        return objectMapper.writeValueAsBytes(menu.categories);
+    }
+
+    @Benchmark
+    public byte[] jacksonPerRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(snapshot.getItems());
+    }
+
+    @Benchmark
+    public byte[] preSerializedPerRequest() {
+        return payloadCache.items(snapshot).getGzip();
+    }
+
+    @Benchmark
+    public SerializedPayload buildPayload() throws Exception {
+        return SerializedPayload.of(objectMapper.writeValueAsBytes(snapshot.getItems()), "\"menu\"");
+    }
+}
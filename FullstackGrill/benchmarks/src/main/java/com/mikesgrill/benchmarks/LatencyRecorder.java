@@ -0,0 +1,88 @@
+package com.mikesgrill.benchmarks;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and status codes for one endpoint. Every sample is kept, which
+ * is fine at load-test sizes and keeps the percentiles exact. Requests the
+ * generator dropped count as errors but have no latency.
+ */
+final class LatencyRecorder {
+
+    static final int DROPPED = 0;
+    static final int FAILED = -1;
+
+    private long[] samples = new long[1024];
+    private int count;
+    private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+    synchronized void recordDropped() {
+        statuses.merge(DROPPED, 1, Integer::sum);
+    }
+
+    synchronized void record(long latencyNanos, int status) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = latencyNanos;
+        statuses.merge(status, 1, Integer::sum);
+    }
+
+    synchronized void merge(LatencyRecorder other) {
+        synchronized (other) {
+            for (int i = 0; i < other.count; i++) {
+                if (count == samples.length) {
+                    samples = Arrays.copyOf(samples, count * 2);
+                }
+                samples[count++] = other.samples[i];
+            }
+            other.statuses.forEach((status, n) -> statuses.merge(status, n, Integer::sum));
+        }
+    }
+
+    synchronized Map<String, Object> summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int requests = 0;
+        int errors = 0;
+        Map<String, Integer> byStatus = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Integer> entry : statuses.entrySet()) {
+            int status = entry.getKey();
+            byStatus.put(status == DROPPED ? "dropped" : status == FAILED ? "failed" : Integer.toString(status),
+                    entry.getValue());
+            requests += entry.getValue();
+            if (status < 200 || status >= 400) {
+                errors += entry.getValue();
+            }
+        }
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50", millis(percentile(sorted, 0.50)));
+        latency.put("p95", millis(percentile(sorted, 0.95)));
+        latency.put("p99", millis(percentile(sorted, 0.99)));
+        latency.put("max", millis(count == 0 ? 0 : sorted[count - 1]));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", requests);
+        summary.put("errors", errors);
+        summary.put("errorRate", requests == 0 ? 0.0 : (double) errors / requests);
+        summary.put("throughputPerSecond", (requests - errors) / seconds);
+        summary.put("latencyMs", latency);
+        summary.put("statuses", byStatus);
+        return summary;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.max(0, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
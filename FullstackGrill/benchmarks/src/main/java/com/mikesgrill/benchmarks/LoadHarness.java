@@ -0,0 +1,423 @@
+package com.mikesgrill.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mikesgrill.backend.AdminUser;
+import com.mikesgrill.backend.AdminUserRepository;
+import com.mikesgrill.backend.CustomUserDetailsService;
+import com.mikesgrill.backend.MenuSnapshotService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-loop HTTP load generator. It boots the backend in this JVM on H2
+ * seeded from {@code database/init.sql} and fires a weighted mix of public,
+ * contact and admin requests at a fixed arrival rate. Latency is measured
+ * from each request's scheduled start, so a backed-up server cannot hide
+ * its queueing by slowing the generator down.
+ *
+ * <p>Options ({@code --name=value}): {@code rate} (requests/s),
+ * {@code duration}, {@code warmup} (ISO-8601, e.g. PT60S),
+ * {@code mix} (e.g. {@code public:85,contact:5,admin:10}),
+ * {@code max-in-flight}, {@code profile} (Spring profile, e.g.
+ * virtual-threads), {@code seed} and {@code report}. Any other
+ * {@code --name=value} is passed to the application, e.g.
+ * {@code --spring.datasource.url=...} for a local MySQL.
+ *
+ * <p>The JSON report has per-endpoint and overall throughput, error rate
+ * and p50/p95/p99/max latency, plus peaks sampled every 100 ms: requests in
+ * flight, live threads, heap used and Hikari threads waiting for a
+ * connection. Running the same load with and without
+ * {@code --profile=virtual-threads} compares the two execution modes;
+ * {@code heapPerInFlightKb} is an upper bound, since the generator shares
+ * the heap.
+ */
+public final class LoadHarness {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final HttpClient publicClient;
+    private final HttpClient adminClient;
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private LoadHarness(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.publicClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        // Only admin requests carry the session cookie, like real visitors
+        this.adminClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .cookieHandler(new CookieManager())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("rate", "50");
+        options.put("duration", "PT60S");
+        options.put("warmup", "PT10S");
+        options.put("mix", "public:85,contact:5,admin:10");
+        options.put("max-in-flight", "2000");
+        options.put("profile", "");
+        options.put("seed", "../database/init.sql");
+        options.put("report", "load-report.json");
+        Map<String, String> appProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, equals);
+            (options.containsKey(name) ? options : appProperties).put(name, arg.substring(equals + 1));
+        }
+        if (!options.get("profile").isEmpty()) {
+            appProperties.put("spring.profiles.active", options.get("profile"));
+        }
+
+        ConfigurableApplicationContext context = EmbeddedBackend.start(appProperties);
+        try {
+            int seeded = SqlSeed.load(context.getBean(JdbcTemplate.class), Paths.get(options.get("seed")));
+            context.getBean(MenuSnapshotService.class).rebuild();
+            System.out.printf("Seeded %d tables from %s%n", seeded, options.get("seed"));
+
+            LoadHarness harness = new LoadHarness("http://localhost:" + EmbeddedBackend.port(context));
+            harness.prepare(context);
+            Map<String, Object> report = harness.run(context, options);
+
+            Path reportFile = Paths.get(options.get("report")).toAbsolutePath();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile.toFile(), report);
+            System.out.println("Report written to " + reportFile);
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Logs in a dedicated admin and builds the request mix from the seeded
+     * data.
+     */
+    private void prepare(ConfigurableApplicationContext context) throws Exception {
+        String password = UUID.randomUUID().toString();
+        AdminUserRepository admins = context.getBean(AdminUserRepository.class);
+        // Fresh password per run, also when pointed at a persistent database
+        admins.findByUsername("loadtest").ifPresent(admins::delete);
+        admins.save(new AdminUser("loadtest", context.getBean(PasswordEncoder.class).encode(password)));
+        context.getBean(CustomUserDetailsService.class).evict("loadtest");
+        HttpResponse<String> login = adminClient.send(HttpRequest.newBuilder(uri("/api/admin/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"username\": \"loadtest\", \"password\": \"" + password + "\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (login.statusCode() != 200) {
+            throw new IllegalStateException("Admin login failed with " + login.statusCode());
+        }
+
+        ObjectMapper json = new ObjectMapper();
+        List<Map<String, Object>> categories = json.readValue(
+                publicClient.send(HttpRequest.newBuilder(uri("/api/public/categories")).build(),
+                        HttpResponse.BodyHandlers.ofString()).body(),
+                new TypeReference<>() { });
+        List<Map<String, Object>> items = json.readValue(
+                adminClient.send(HttpRequest.newBuilder(uri("/api/admin/menu")).build(),
+                        HttpResponse.BodyHandlers.ofString()).body(),
+                new TypeReference<>() { });
+        Map<String, Object> editedItem = items.get(0);
+        String editedItemBody = json.writeValueAsString(editedItem);
+
+        add("public", 20, "GET /api/public/bootstrap", false, () -> get("/api/public/bootstrap"));
+        add("public", 25, "GET /api/public/menu", false, () -> get("/api/public/menu"));
+        add("public", 10, "GET /api/public/menu/featured", false, () -> get("/api/public/menu/featured"));
+        add("public", 10, "GET /api/public/categories", false, () -> get("/api/public/categories"));
+        add("public", 10, "GET /api/public/menu/category/{id}", false, () -> get("/api/public/menu/category/"
+                + categories.get(ThreadLocalRandom.current().nextInt(categories.size())).get("id")));
+        add("public", 5, "GET /api/public/hours", false, () -> get("/api/public/hours"));
+        add("public", 5, "GET /api/public/settings", false, () -> get("/api/public/settings"));
+        add("contact", 1, "POST /api/contact", false, () -> HttpRequest.newBuilder(uri("/api/contact"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\": \"Load Test\", \"email\": \"load@example.com\","
+                        + " \"message\": \"Do you cater for groups of twenty?\"}"))
+                .build());
+        add("admin", 4, "GET /api/admin/menu", true, () -> get("/api/admin/menu"));
+        add("admin", 3, "GET /api/admin/contacts/page", true, () -> get("/api/admin/contacts/page"));
+        add("admin", 2, "GET /api/admin/hours", true, () -> get("/api/admin/hours"));
+        add("admin", 1, "PUT /api/admin/menu/{id}", true, () -> HttpRequest.newBuilder(
+                        uri("/api/admin/menu/" + editedItem.get("id")))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(editedItemBody))
+                .build());
+    }
+
+    private Map<String, Object> run(ConfigurableApplicationContext context, Map<String, String> options)
+            throws InterruptedException {
+        double rate = Double.parseDouble(options.get("rate"));
+        Duration warmup = Duration.parse(options.get("warmup"));
+        Duration duration = Duration.parse(options.get("duration"));
+        int maxInFlight = Integer.parseInt(options.get("max-in-flight"));
+        double[] cumulative = weights(options.get("mix"));
+
+        JvmSampler sampler = new JvmSampler(context, inFlight);
+        sampler.start();
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        System.out.printf("Offering %.0f req/s for %s after %s of warmup%n", rate, duration, warmup);
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (intended >= measureFrom) {
+                sampler.measuring = true;
+            }
+            fire(pick(cumulative), intended, intended >= measureFrom, maxInFlight);
+        }
+
+        long drainDeadline = System.nanoTime() + REQUEST_TIMEOUT.plusSeconds(5).toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        sampler.stop();
+
+        double seconds = duration.toNanos() / 1e9;
+        LatencyRecorder overall = new LatencyRecorder();
+        Map<String, Object> perEndpoint = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            overall.merge(endpoint.latencies);
+            perEndpoint.put(endpoint.name, endpoint.latencies.summarize(seconds));
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>(options);
+        config.put("javaVersion", Runtime.version().toString());
+        config.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("overall", overall.summarize(seconds));
+        report.put("endpoints", perEndpoint);
+        report.put("jvm", sampler.summarize());
+        printSummary(perEndpoint, overall.summarize(seconds));
+        return report;
+    }
+
+    private void fire(Endpoint endpoint, long intended, boolean measured, int maxInFlight) {
+        if (inFlight.get() >= maxInFlight) {
+            if (measured) {
+                endpoint.latencies.recordDropped();
+            }
+            return;
+        }
+        inFlight.incrementAndGet();
+        HttpClient client = endpoint.admin ? adminClient : publicClient;
+        client.sendAsync(endpoint.request.get(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    inFlight.decrementAndGet();
+                    if (measured) {
+                        endpoint.latencies.record(System.nanoTime() - intended,
+                                response != null ? response.statusCode() : LatencyRecorder.FAILED);
+                    }
+                });
+    }
+
+    /**
+     * Spreads each group's share of the mix over its endpoints by weight and
+     * returns the cumulative distribution.
+     */
+    private double[] weights(String mix) {
+        Map<String, Double> shares = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            shares.put(pair[0], Double.parseDouble(pair[1]));
+        }
+        Map<String, Double> groupWeights = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            groupWeights.merge(endpoint.group, endpoint.weight, Double::sum);
+        }
+        double[] cumulative = new double[endpoints.size()];
+        double total = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            Endpoint endpoint = endpoints.get(i);
+            total += shares.getOrDefault(endpoint.group, 0.0) * endpoint.weight / groupWeights.get(endpoint.group);
+            cumulative[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Mix selects no endpoints: " + mix);
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private Endpoint pick(double[] cumulative) {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        for (int i = 0; i < cumulative.length; i++) {
+            if (roll < cumulative[i]) {
+                return endpoints.get(i);
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    private void add(String group, double weight, String name, boolean admin, Supplier<HttpRequest> request) {
+        endpoints.add(new Endpoint(group, weight, name, admin, request));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printSummary(Map<String, Object> perEndpoint, Map<String, Object> overall) {
+        System.out.printf("%-38s %8s %7s %9s %9s %9s %9s%n", "endpoint", "req/s", "errors", "p50 ms", "p95 ms",
+                "p99 ms", "max ms");
+        Map<String, Object> rows = new LinkedHashMap<>(perEndpoint);
+        rows.put("overall", overall);
+        rows.forEach((name, value) -> {
+            Map<String, Object> summary = (Map<String, Object>) value;
+            Map<String, Object> latency = (Map<String, Object>) summary.get("latencyMs");
+            System.out.printf("%-38s %8.1f %7s %9s %9s %9s %9s%n", name, summary.get("throughputPerSecond"),
+                    summary.get("errors"), latency.get("p50"), latency.get("p95"), latency.get("p99"),
+                    latency.get("max"));
+        });
+    }
+
+    private static final class Endpoint {
+        private final String group;
+        private final double weight;
+        private final String name;
+        private final boolean admin;
+        private final Supplier<HttpRequest> request;
+        private final LatencyRecorder latencies = new LatencyRecorder();
+
+        private Endpoint(String group, double weight, String name, boolean admin, Supplier<HttpRequest> request) {
+            this.group = group;
+            this.weight = weight;
+            this.name = name;
+            this.admin = admin;
+            this.request = request;
+        }
+    }
+
+    /**
+     * Samples the shared JVM and the connection pool every 100 ms while the
+     * measured phase runs.
+     */
+    private static final class JvmSampler {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final HikariPoolMXBean pool;
+        private final AtomicInteger inFlight;
+        private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        private final long baselineHeap;
+        private volatile boolean measuring;
+
+        private final AtomicLong samples = new AtomicLong();
+        private final AtomicLong inFlightTotal = new AtomicLong();
+        private final AtomicLong peakInFlight = new AtomicLong();
+        private final AtomicLong peakThreads = new AtomicLong();
+        private final AtomicLong peakHeap = new AtomicLong();
+        private final AtomicLong peakAwaitingConnection = new AtomicLong();
+
+        private JvmSampler(ConfigurableApplicationContext context, AtomicInteger inFlight) {
+            HikariPoolMXBean hikari = null;
+            try {
+                hikari = context.getBean(DataSource.class).unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            } catch (Exception e) {
+                // Not a Hikari pool; the waiting count is left out
+            }
+            this.pool = hikari;
+            this.inFlight = inFlight;
+            System.gc();
+            this.baselineHeap = memory.getHeapMemoryUsage().getUsed();
+        }
+
+        private void start() {
+            timer.scheduleAtFixedRate(this::sample, 100, 100, TimeUnit.MILLISECONDS);
+        }
+
+        private void sample() {
+            if (!measuring) {
+                return;
+            }
+            long current = inFlight.get();
+            samples.incrementAndGet();
+            inFlightTotal.addAndGet(current);
+            peakInFlight.accumulateAndGet(current, Math::max);
+            peakThreads.accumulateAndGet(threads.getThreadCount(), Math::max);
+            peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+            if (pool != null) {
+                peakAwaitingConnection.accumulateAndGet(pool.getThreadsAwaitingConnection(), Math::max);
+            }
+        }
+
+        private void stop() throws InterruptedException {
+            timer.shutdown();
+            timer.awaitTermination(1, TimeUnit.SECONDS);
+        }
+
+        private Map<String, Object> summarize() {
+            Map<String, Object> jvm = new LinkedHashMap<>();
+            long inFlightPeak = peakInFlight.get();
+            jvm.put("baselineHeapMb", baselineHeap / 1048576.0);
+            jvm.put("peakHeapMb", peakHeap.get() / 1048576.0);
+            jvm.put("peakLiveThreads", peakThreads.get());
+            jvm.put("peakInFlight", inFlightPeak);
+            jvm.put("averageInFlight", samples.get() == 0 ? 0.0 : (double) inFlightTotal.get() / samples.get());
+            jvm.put("heapPerInFlightKb", inFlightPeak == 0 ? null
+                    : Math.max(0, peakHeap.get() - baselineHeap) / 1024.0 / inFlightPeak);
+            jvm.put("peakThreadsAwaitingConnection", pool != null ? peakAwaitingConnection.get() : null);
+            return jvm;
+        }
+    }
+}
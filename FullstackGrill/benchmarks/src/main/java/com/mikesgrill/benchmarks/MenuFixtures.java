@@ -0,0 +1,51 @@
+package com.mikesgrill.benchmarks;
+
+import com.mikesgrill.backend.MenuCategory;
+import com.mikesgrill.backend.MenuItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory menus shaped like the production one: nine categories of six
+ * items, multiplied by {@code scale}, or six items per category up to a given
+ * item count.
+ */
+final class MenuFixtures {
+
+    static final int CATEGORIES = 9;
+    static final int ITEMS_PER_CATEGORY = 6;
+
+    final List<MenuCategory> categories = new ArrayList<>();
+    final List<MenuItem> items = new ArrayList<>();
+
+    MenuFixtures(int scale) {
+        this((long) CATEGORIES * ITEMS_PER_CATEGORY * scale);
+    }
+
+    private MenuFixtures(long itemCount) {
+        long itemId = 1;
+        for (int c = 0; itemId <= itemCount; c++) {
+            MenuCategory category = new MenuCategory("Category " + c, c + 1);
+            category.setId((long) c + 1);
+            categories.add(category);
+            for (int i = 0; i < ITEMS_PER_CATEGORY && itemId <= itemCount; i++) {
+                items.add(item(itemId++, category, i));
+            }
+        }
+    }
+
+    static MenuFixtures withItems(int itemCount) {
+        return new MenuFixtures((long) itemCount);
+    }
+
+    static MenuItem item(long id, MenuCategory category, int index) {
+        MenuItem item = new MenuItem(category.getName() + " special " + index,
+                "House-made with fresh ingredients, served with a side of fries and a pickle spear.",
+                7.95 + index, "/uploads/" + "0".repeat(63) + index + ".jpg", category, index == 0);
+        item.setId(id);
+        item.setImageWidth(1200);
+        item.setImageHeight(800);
+        return item;
+    }
+}
@@ -0,0 +1,78 @@
+package com.mikesgrill.benchmarks;
+
+import com.mikesgrill.backend.ContentChangedEvent;
+import com.mikesgrill.backend.ContentVersions;
+import com.mikesgrill.backend.MenuCategory;
+import com.mikesgrill.backend.MenuItem;
+import com.mikesgrill.backend.MenuSearchIndex;
+import com.mikesgrill.backend.MenuSnapshot;
+import com.mikesgrill.backend.MenuSnapshotService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /api/public/menu/search over a 20,000 item menu: exact words, prefixes,
+ * typos, and a query whose number matches a single item. The target is well
+ * under a millisecond per query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MenuSearchBenchmark {
+
+    private static final String[] WORDS = {"bacon", "cheese", "burger", "grilled", "chicken", "salad", "fries",
+            "shake", "chocolate", "vanilla", "onion", "rings", "turkey", "club", "patty", "melt"};
+
+    @Param({"bacon chees", "grilld special", "van", "vanilla 12345", "mel"})
+    public String query;
+
+    private MenuSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        MenuCategory category = new MenuCategory("Everything", 1);
+        category.setId(1L);
+        List<MenuItem> items = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            String name = WORDS[(int) (id % WORDS.length)] + " " + WORDS[(int) (id / 7 % WORDS.length)] + " " + id;
+            MenuItem item = new MenuItem(name, "House " + WORDS[(int) (id / 3 % WORDS.length)] + " special number " + id,
+                    5.0, null, category, false);
+            item.setId(id);
+            items.add(item);
+        }
+        MenuSnapshot snapshot = MenuSnapshot.of(1, List.of(category), items);
+        // Only current() is used by the index
+        MenuSnapshotService snapshots = new MenuSnapshotService(null, null, null, null) {
+            @Override
+            public MenuSnapshot current() {
+                return snapshot;
+            }
+        };
+        index = new MenuSearchIndex(snapshots);
+        index.onContentChanged(new ContentChangedEvent(ContentVersions.MENU, 1));
+        if (index.search(query, 20).isEmpty()) {
+            throw new IllegalStateException("No results for " + query);
+        }
+    }
+
+    @Benchmark
+    public List<MenuItem> search() {
+        return index.search(query, 20);
+    }
+}
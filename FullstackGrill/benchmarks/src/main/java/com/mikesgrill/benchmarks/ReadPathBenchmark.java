@@ -0,0 +1,75 @@
+package com.mikesgrill.benchmarks;
+
+import com.mikesgrill.backend.MenuCategory;
+import com.mikesgrill.backend.MenuCategoryRepository;
+import com.mikesgrill.backend.MenuItem;
+import com.mikesgrill.backend.MenuItemService;
+import com.mikesgrill.backend.MenuSnapshotService;
+import com.mikesgrill.backend.RestaurantHours;
+import com.mikesgrill.backend.RestaurantHoursService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service read paths against the embedded database. The admin methods go to
+ * the database on every call; the public ones are served from the menu
+ * snapshot and the versioned hours cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadPathBenchmark {
+
+    private MenuItemService menuItemService;
+    private MenuSnapshotService menuSnapshotService;
+    private RestaurantHoursService restaurantHoursService;
+    private Long categoryId;
+
+    @Setup
+    public void setUp(BackendState backend) {
+        menuItemService = backend.bean(MenuItemService.class);
+        menuSnapshotService = backend.bean(MenuSnapshotService.class);
+        restaurantHoursService = backend.bean(RestaurantHoursService.class);
+        MenuCategory first = backend.bean(MenuCategoryRepository.class).findAllByOrderBySortOrderAsc().get(0);
+        categoryId = first.getId();
+    }
+
+    @Benchmark
+    public List<MenuItem> allMenuItems() {
+        return menuItemService.getAllMenuItems();
+    }
+
+    @Benchmark
+    public List<MenuItem> menuItemsByCategory() {
+        return menuItemService.getMenuItemsByCategoryId(categoryId);
+    }
+
+    @Benchmark
+    public List<MenuItem> publicMenuSnapshot() {
+        return menuSnapshotService.current().getItems();
+    }
+
+    @Benchmark
+    public List<RestaurantHours> allHours() {
+        return restaurantHoursService.getAllHours();
+    }
+
+    @Benchmark
+    public List<RestaurantHours> publicHours() {
+        return restaurantHoursService.getPublicHours();
+    }
+}
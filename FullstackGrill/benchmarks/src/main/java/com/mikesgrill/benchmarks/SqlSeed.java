@@ -0,0 +1,51 @@
+package com.mikesgrill.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the INSERT statements of {@code database/init.sql} into the schema
+ * Hibernate created. Tables the application already seeded on startup
+ * (categories, hours, settings) are left alone.
+ */
+final class SqlSeed {
+
+    private static final Pattern INSERT = Pattern.compile("^INSERT INTO `?(\\w+)`?", Pattern.CASE_INSENSITIVE);
+
+    private SqlSeed() {
+    }
+
+    static int load(JdbcTemplate jdbcTemplate, Path script) throws IOException {
+        String sql = Files.readString(script, StandardCharsets.UTF_8);
+        int tables = 0;
+        for (String chunk : sql.split(";\\s*\\R")) {
+            String statement = chunk.lines()
+                    .filter(line -> !line.trim().startsWith("--"))
+                    .collect(Collectors.joining("\n"))
+                    .trim();
+            Matcher insert = INSERT.matcher(statement);
+            if (!insert.find()) {
+                continue;
+            }
+            String table = insert.group(1);
+            Long rows = jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+            if (rows != null && rows > 0) {
+                continue;
+            }
+            if (table.equals("menu_items")) {
+                // init.sql predates the featured column
+                jdbcTemplate.execute("alter table menu_items alter column featured set default false");
+            }
+            jdbcTemplate.execute(statement);
+            tables++;
+        }
+        return tables;
+    }
+}
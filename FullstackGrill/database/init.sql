@@ -27,6 +27,15 @@ CREATE TABLE IF NOT EXISTS `restaurant_hours` (
   `sort_order` INT NOT NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+CREATE TABLE IF NOT EXISTS `hours_overrides` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  `override_date` DATE NOT NULL UNIQUE,
+  `open_time` VARCHAR(20),
+  `close_time` VARCHAR(20),
+  `closed` TINYINT(1) DEFAULT 0,
+  `note` VARCHAR(255)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 CREATE TABLE IF NOT EXISTS `site_settings` (
   `id` BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
   `hero_image_url` VARCHAR(255)
@@ -1,19 +1,29 @@
-import React, { useEffect, useMemo, useState } from 'react';
+import React, { useCallback, useEffect, useMemo, useRef, useState } from 'react';
 import axios from 'axios';
 import { useNavigate } from 'react-router-dom';
-import { ContactMessage } from '../types';
+import { ContactMessage, ContactMessagePage, ContactMessageSummary } from '../types';
+
+const PAGE_SIZE = 20;
 
 const AdminContacts: React.FC = () => {
-  const [messages, setMessages] = useState<ContactMessage[]>([]);
+  const [messages, setMessages] = useState<ContactMessageSummary[]>([]);
+  const [fullMessages, setFullMessages] = useState<Record<number, string>>({});
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [hasMore, setHasMore] = useState(true);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState('');
   const [status, setStatus] = useState('');
   const [searchTerm, setSearchTerm] = useState('');
+  const sentinelRef = useRef<HTMLDivElement>(null);
   const navigate = useNavigate();
 
-  useEffect(() => {
-    fetchMessages();
-    // eslint-disable-next-line react-hooks/exhaustive-deps
+  const fetchPage = useCallback(async (cursor: string | null): Promise<ContactMessagePage> => {
+    const response = await axios.get<ContactMessagePage>('/api/admin/contacts/page', {
+      params: { limit: PAGE_SIZE, ...(cursor ? { cursor } : {}) },
+      withCredentials: true
+    });
+    return response.data;
   }, []);
 
   const fetchMessages = async () => {
@@ -28,10 +38,11 @@ const AdminContacts: React.FC = () => {
     }
 
     try {
-      const response = await axios.get('/api/admin/contacts', {
-        withCredentials: true
-      });
-      setMessages(response.data);
+      const page = await fetchPage(null);
+      setMessages(page.items);
+      setFullMessages({});
+      setNextCursor(page.nextCursor);
+      setHasMore(page.nextCursor !== null);
     } catch (err) {
       console.error('Error fetching contact messages:', err);
       setError('Failed to load contact messages.');
@@ -41,6 +52,56 @@ const AdminContacts: React.FC = () => {
     }
   };
 
+  const loadMore = useCallback(async () => {
+    if (loadingMore || !hasMore || !nextCursor) {
+      return;
+    }
+    setLoadingMore(true);
+    try {
+      const page = await fetchPage(nextCursor);
+      setMessages((current) => [...current, ...page.items]);
+      setNextCursor(page.nextCursor);
+      setHasMore(page.nextCursor !== null);
+    } catch (err) {
+      console.error('Error fetching more contact messages:', err);
+      setError('Failed to load more messages.');
+    } finally {
+      setLoadingMore(false);
+    }
+  }, [fetchPage, hasMore, loadingMore, nextCursor]);
+
+  useEffect(() => {
+    fetchMessages();
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, []);
+
+  // Fetch the next page when the sentinel below the list scrolls into view
+  useEffect(() => {
+    const sentinel = sentinelRef.current;
+    if (!sentinel) {
+      return;
+    }
+    const observer = new IntersectionObserver((entries) => {
+      if (entries.some((entry) => entry.isIntersecting)) {
+        loadMore();
+      }
+    }, { rootMargin: '200px' });
+    observer.observe(sentinel);
+    return () => observer.disconnect();
+  }, [loadMore]);
+
+  const showFullMessage = async (id: number) => {
+    try {
+      const response = await axios.get<ContactMessage>(`/api/admin/contacts/${id}`, {
+        withCredentials: true
+      });
+      setFullMessages((current) => ({ ...current, [id]: response.data.message }));
+    } catch (err) {
+      console.error('Error fetching contact message:', err);
+      setError('Failed to load the full message.');
+    }
+  };
+
   const handleDelete = async (id: number) => {
     setError('');
     setStatus('');
@@ -54,7 +115,7 @@ const AdminContacts: React.FC = () => {
         withCredentials: true
       });
       setStatus('Message deleted.');
-      fetchMessages();
+      setMessages((current) => current.filter((msg) => msg.id !== id));
     } catch (err) {
       console.error('Error deleting contact message:', err);
       setError('Failed to delete message.');
@@ -73,7 +134,7 @@ const AdminContacts: React.FC = () => {
     return messages.filter((msg) =>
       msg.name.toLowerCase().includes(term) ||
       msg.email.toLowerCase().includes(term) ||
-      msg.message.toLowerCase().includes(term)
+      msg.snippet.toLowerCase().includes(term)
     );
   }, [messages, searchTerm]);
 
@@ -158,8 +219,16 @@ const AdminContacts: React.FC = () => {
                     </div>
                   </div>
                   <div style={{ whiteSpace: 'pre-line', lineHeight: 1.4, color: '#222' }}>
-                    {msg.message}
+                    {fullMessages[msg.id] ?? (msg.truncated ? `${msg.snippet}…` : msg.snippet)}
                   </div>
+                  {msg.truncated && fullMessages[msg.id] === undefined && (
+                    <button
+                      onClick={() => showFullMessage(msg.id)}
+                      style={{ alignSelf: 'flex-start', background: 'none', border: 'none', color: 'var(--primary-red)', cursor: 'pointer', padding: 0 }}
+                    >
+                      Show full message
+                    </button>
+                  )}
                   <div style={{ display: 'flex', justifyContent: 'flex-end' }}>
                     <button
                       onClick={() => handleDelete(msg.id)}
@@ -179,6 +248,8 @@ const AdminContacts: React.FC = () => {
               ))}
             </div>
           )}
+          <div ref={sentinelRef} />
+          {loadingMore && <p style={{ marginBottom: 0 }}>Loading more messages...</p>}
         </div>
       </div>
     </div>
@@ -25,7 +25,11 @@ const AdminLogin: React.FC = () => {
       
       navigate('/admin/menu');
     } catch (err) {
-      setError('Invalid credentials. Please try again.');
+      if (axios.isAxiosError(err) && err.response?.status === 429) {
+        setError('Too many login attempts. Please wait a minute and try again.');
+      } else {
+        setError('Invalid credentials. Please try again.');
+      }
       console.error('Login failed:', err);
     }
   };
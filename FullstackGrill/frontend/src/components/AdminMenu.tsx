@@ -1,7 +1,8 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
 import axios from 'axios';
-import { RestaurantHours, SiteSettings, MenuCategory } from '../types';
+import { RestaurantHours, HoursOverride, SiteSettings, MenuCategory } from '../types';
+import { subscribeToChanges } from '../config/events';
 
 interface MenuItem {
   id?: number;
@@ -28,6 +29,15 @@ const AdminMenu: React.FC = () => {
   const [hoursLoading, setHoursLoading] = useState(true);
   const [savingHours, setSavingHours] = useState(false);
   const [hoursMessage, setHoursMessage] = useState<string | null>(null);
+  const [overrides, setOverrides] = useState<HoursOverride[]>([]);
+  const [overrideForm, setOverrideForm] = useState<HoursOverride>({
+    date: '',
+    openTime: '',
+    closeTime: '',
+    closed: true,
+    note: ''
+  });
+  const [overrideMessage, setOverrideMessage] = useState<string | null>(null);
   const [siteSettings, setSiteSettings] = useState<SiteSettings | null>(null);
   const [heroImageInput, setHeroImageInput] = useState('');
   const [heroFile, setHeroFile] = useState<File | null>(null);
@@ -44,11 +54,27 @@ const AdminMenu: React.FC = () => {
   useEffect(() => {
     fetchMenuItems();
     fetchHours();
+    fetchOverrides();
     fetchSiteSettings();
     fetchCategories();
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, []);
 
+  // Keep the lists current with edits made elsewhere without refetching them
+  useEffect(() => {
+    return subscribeToChanges((change) => {
+      if (change === null || change.type === 'menu') {
+        fetchMenuItems();
+        fetchCategories();
+      } else if (change.type === 'menu-item' && change.id !== null) {
+        refreshMenuItem(change.id);
+      } else if (change.type === 'menu-category') {
+        fetchCategories();
+      }
+    });
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, []);
+
   useEffect(() => {
     return () => {
       if (heroFilePreview) {
@@ -80,6 +106,23 @@ const AdminMenu: React.FC = () => {
     }
   };
 
+  const upsertMenuItem = (saved: MenuItem) => {
+    setMenuItems((items) => items.some((item) => item.id === saved.id)
+      ? items.map((item) => (item.id === saved.id ? saved : item))
+      : [...items, saved]);
+  };
+
+  const refreshMenuItem = async (id: number) => {
+    try {
+      const response = await axios.get(`/api/admin/menu/${id}`, { withCredentials: true });
+      upsertMenuItem(response.data);
+    } catch (error) {
+      if (axios.isAxiosError(error) && error.response?.status === 404) {
+        setMenuItems((items) => items.filter((item) => item.id !== id));
+      }
+    }
+  };
+
   const fetchHours = async () => {
     setHoursLoading(true);
     setHoursMessage(null);
@@ -101,6 +144,34 @@ const AdminMenu: React.FC = () => {
     }
   };
 
+  const fetchOverrides = async () => {
+    try {
+      const response = await axios.get('/api/admin/hours/overrides', { withCredentials: true });
+      setOverrides(response.data);
+    } catch (error) {
+      console.error('Error fetching special hours:', error);
+      setOverrideMessage('Unable to load special dates.');
+    }
+  };
+
+  // Validation errors come back as {"error": "..."}; show those as they are
+  const serverError = (error: unknown, fallback: string): string => {
+    if (axios.isAxiosError(error) && error.response?.status === 400) {
+      let parsed = error.response.data;
+      if (typeof parsed === 'string') {
+        try {
+          parsed = JSON.parse(parsed);
+        } catch {
+          parsed = null;
+        }
+      }
+      if (parsed && typeof parsed.error === 'string') {
+        return `${parsed.error}. Use times like 11:00 AM.`;
+      }
+    }
+    return fallback;
+  };
+
   const fetchSiteSettings = async () => {
     try {
       const username = localStorage.getItem('adminUsername');
@@ -178,12 +249,44 @@ const AdminMenu: React.FC = () => {
       setHoursMessage('Hours updated successfully.');
     } catch (error) {
       console.error('Error updating hours of operation:', error);
-      setHoursMessage('Failed to update hours. Please try again.');
+      setHoursMessage(serverError(error, 'Failed to update hours. Please try again.'));
     } finally {
       setSavingHours(false);
     }
   };
 
+  const handleSaveOverride = async () => {
+    if (!overrideForm.date) {
+      setOverrideMessage('Pick a date first.');
+      return;
+    }
+    try {
+      setOverrideMessage(null);
+      const response = await axios.put('/api/admin/hours/overrides', overrideForm, { withCredentials: true });
+      setOverrides((prev) =>
+        [...prev.filter((entry) => entry.date !== response.data.date), response.data].sort((a, b) =>
+          a.date.localeCompare(b.date)
+        )
+      );
+      setOverrideForm({ date: '', openTime: '', closeTime: '', closed: true, note: '' });
+      setOverrideMessage('Special date saved successfully.');
+    } catch (error) {
+      console.error('Error saving special hours:', error);
+      setOverrideMessage(serverError(error, 'Failed to save the special date. Please try again.'));
+    }
+  };
+
+  const handleDeleteOverride = async (id: number) => {
+    try {
+      setOverrideMessage(null);
+      await axios.delete(`/api/admin/hours/overrides/${id}`, { withCredentials: true });
+      setOverrides((prev) => prev.filter((entry) => entry.id !== id));
+    } catch (error) {
+      console.error('Error deleting special hours:', error);
+      setOverrideMessage('Failed to remove the special date. Please try again.');
+    }
+  };
+
   const handleSaveHeroImage = async () => {
     try {
       setSavingHero(true);
@@ -267,6 +370,45 @@ const AdminMenu: React.FC = () => {
     );
   };
 
+  const moveCategory = (index: number, delta: number) => {
+    setCategories((prev) => {
+      const target = index + delta;
+      if (target < 0 || target >= prev.length) {
+        return prev;
+      }
+      const next = [...prev];
+      [next[index], next[target]] = [next[target], next[index]];
+      return next;
+    });
+  };
+
+  // Names and order go out as one bulk request: one transaction, one menu refresh
+  const handleSaveAllCategories = async () => {
+    try {
+      setCategoryMessage(null);
+      const username = localStorage.getItem('adminUsername');
+
+      if (!username) {
+        navigate('/admin/login');
+        return;
+      }
+
+      await axios.post(
+        '/api/admin/categories/bulk',
+        {
+          operations: categories.map((category) => ({ op: 'update', id: category.id, value: { name: category.name } })),
+          order: categories.map((category) => category.id),
+        },
+        { withCredentials: true }
+      );
+      setCategoryMessage('Categories updated.');
+      fetchCategories();
+    } catch (error) {
+      console.error('Error updating categories:', error);
+      setCategoryMessage('Failed to update categories.');
+    }
+  };
+
   const handleSaveCategory = async (category: MenuCategory) => {
     try {
       setCategoryMessage(null);
@@ -338,19 +480,17 @@ const AdminMenu: React.FC = () => {
         category: category,
       };
 
-      if (editingItem) {
-        await axios.put(`/api/admin/menu/${editingItem.id}`, submissionData, {
+      const response = editingItem
+        ? await axios.put(`/api/admin/menu/${editingItem.id}`, submissionData, {
           withCredentials: true
-        });
-      } else {
-        await axios.post('/api/admin/menu', submissionData, {
+        })
+        : await axios.post('/api/admin/menu', submissionData, {
           withCredentials: true
         });
-      }
 
       setFormData({ name: '', description: '', price: 0, imageUrl: '', categoryId: '', featured: false });
       setEditingItem(null);
-      fetchMenuItems();
+      upsertMenuItem(response.data);
     } catch (error) {
       console.error('Error saving menu item:', error);
     }
@@ -376,7 +516,7 @@ const AdminMenu: React.FC = () => {
         await axios.delete(`/api/admin/menu/${id}`, {
           withCredentials: true
         });
-        fetchMenuItems();
+        setMenuItems((items) => items.filter((item) => item.id !== id));
       } catch (error) {
         console.error('Error deleting menu item:', error);
       }
@@ -725,6 +865,110 @@ const AdminMenu: React.FC = () => {
                 </div>
               </>
             )}
+
+            <h3 style={{ marginTop: '2rem', marginBottom: '1rem' }}>Special Dates</h3>
+            <p style={{ marginBottom: '1rem', color: '#6c757d' }}>
+              Holidays and events. These hours replace the regular hours for that date only.
+            </p>
+            {overrideMessage && (
+              <p style={{ marginBottom: '1rem', color: overrideMessage.includes('successfully') ? '#198754' : '#dc3545' }}>
+                {overrideMessage}
+              </p>
+            )}
+            {overrides.length > 0 && (
+              <div style={{ overflowX: 'auto', marginBottom: '1rem' }}>
+                <table style={{ width: '100%', borderCollapse: 'collapse' }}>
+                  <thead>
+                    <tr>
+                      <th style={hoursTableHeaderStyle}>Date</th>
+                      <th style={hoursTableHeaderStyle}>Hours</th>
+                      <th style={hoursTableHeaderStyle}>Note</th>
+                      <th style={hoursTableHeaderStyle}></th>
+                    </tr>
+                  </thead>
+                  <tbody>
+                    {overrides.map((entry) => (
+                      <tr key={entry.id}>
+                        <td style={hoursTableCellStyle}>{entry.date}</td>
+                        <td style={hoursTableCellStyle}>
+                          {entry.closed ? 'Closed' : `${entry.openTime} - ${entry.closeTime}`}
+                        </td>
+                        <td style={hoursTableCellStyle}>{entry.note}</td>
+                        <td style={{ ...hoursTableCellStyle, textAlign: 'right' }}>
+                          <button
+                            type="button"
+                            onClick={() => entry.id !== undefined && handleDeleteOverride(entry.id)}
+                            style={{
+                              padding: '0.4rem 0.8rem',
+                              backgroundColor: '#6c757d',
+                              color: 'white',
+                              border: 'none',
+                              borderRadius: '4px',
+                              cursor: 'pointer'
+                            }}
+                          >
+                            Remove
+                          </button>
+                        </td>
+                      </tr>
+                    ))}
+                  </tbody>
+                </table>
+              </div>
+            )}
+            <div style={{ display: 'flex', gap: '0.75rem', flexWrap: 'wrap', alignItems: 'center' }}>
+              <input
+                type="date"
+                value={overrideForm.date}
+                onChange={(e) => setOverrideForm({ ...overrideForm, date: e.target.value })}
+                style={{ padding: '0.5rem', border: '1px solid #ccc', borderRadius: '4px' }}
+              />
+              <label style={{ display: 'flex', alignItems: 'center', gap: '0.4rem' }}>
+                <input
+                  type="checkbox"
+                  checked={overrideForm.closed}
+                  onChange={(e) => setOverrideForm({ ...overrideForm, closed: e.target.checked })}
+                />
+                Closed all day
+              </label>
+              <input
+                type="text"
+                placeholder="Open (11:00 AM)"
+                value={overrideForm.openTime}
+                disabled={overrideForm.closed}
+                onChange={(e) => setOverrideForm({ ...overrideForm, openTime: e.target.value })}
+                style={{ padding: '0.5rem', border: '1px solid #ccc', borderRadius: '4px', width: '9rem' }}
+              />
+              <input
+                type="text"
+                placeholder="Close (2:00 PM)"
+                value={overrideForm.closeTime}
+                disabled={overrideForm.closed}
+                onChange={(e) => setOverrideForm({ ...overrideForm, closeTime: e.target.value })}
+                style={{ padding: '0.5rem', border: '1px solid #ccc', borderRadius: '4px', width: '9rem' }}
+              />
+              <input
+                type="text"
+                placeholder="Note (optional)"
+                value={overrideForm.note ?? ''}
+                onChange={(e) => setOverrideForm({ ...overrideForm, note: e.target.value })}
+                style={{ padding: '0.5rem', border: '1px solid #ccc', borderRadius: '4px', flex: '1 1 10rem' }}
+              />
+              <button
+                type="button"
+                onClick={handleSaveOverride}
+                style={{
+                  padding: '0.75rem 1.5rem',
+                  backgroundColor: 'var(--primary-red)',
+                  color: 'white',
+                  border: 'none',
+                  borderRadius: '4px',
+                  cursor: 'pointer'
+                }}
+              >
+                Save Date
+              </button>
+            </div>
           </div>
         </section>
 
@@ -741,8 +985,26 @@ const AdminMenu: React.FC = () => {
                   </p>
                 )}
                 <div style={{ display: 'flex', flexDirection: 'column', gap: '1rem' }}>
-                  {categories.map((category) => (
+                  {categories.map((category, index) => (
                     <div key={category.id} style={{ display: 'flex', gap: '1rem', flexWrap: 'wrap', alignItems: 'center' }}>
+                      <button
+                        type="button"
+                        aria-label={`Move ${category.name} up`}
+                        onClick={() => moveCategory(index, -1)}
+                        disabled={index === 0}
+                        style={{ padding: '0.4rem 0.7rem', border: '1px solid #ccc', borderRadius: '4px', cursor: 'pointer' }}
+                      >
+                        ↑
+                      </button>
+                      <button
+                        type="button"
+                        aria-label={`Move ${category.name} down`}
+                        onClick={() => moveCategory(index, 1)}
+                        disabled={index === categories.length - 1}
+                        style={{ padding: '0.4rem 0.7rem', border: '1px solid #ccc', borderRadius: '4px', cursor: 'pointer' }}
+                      >
+                        ↓
+                      </button>
                       <input
                         type="text"
                         value={category.name}
@@ -766,6 +1028,21 @@ const AdminMenu: React.FC = () => {
                     </div>
                   ))}
                 </div>
+                <button
+                  type="button"
+                  onClick={handleSaveAllCategories}
+                  style={{
+                    marginTop: '1rem',
+                    padding: '0.6rem 1.2rem',
+                    backgroundColor: 'var(--dark)',
+                    color: 'white',
+                    border: 'none',
+                    borderRadius: '4px',
+                    cursor: 'pointer'
+                  }}
+                >
+                  Save order and names
+                </button>
                 <hr style={{ border: 'none', borderTop: '1px solid #eee', margin: '1.5rem 0' }} />
                 <div style={{ display: 'flex', gap: '1rem', flexWrap: 'wrap', alignItems: 'center' }}>
                   <input
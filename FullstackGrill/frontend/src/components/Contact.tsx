@@ -1,6 +1,9 @@
 import React, { useEffect, useState } from 'react';
 import { Link } from 'react-router-dom';
 import { RestaurantHours } from '../types';
+import OpenStatus from './OpenStatus';
+import { loadBootstrap } from '../config/bootstrap';
+import { subscribeToChanges } from '../config/events';
 
 const Contact: React.FC = () => {
   const [name, setName] = useState('');
@@ -32,6 +35,8 @@ const Contact: React.FC = () => {
         setName('');
         setEmail('');
         setMessage('');
+      } else if (response.status === 429) {
+        alert('We are receiving a lot of messages right now. Please try again in a few seconds.');
       } else {
         alert('Failed to send message. Please try again later.');
       }
@@ -44,12 +49,8 @@ const Contact: React.FC = () => {
   useEffect(() => {
     const loadHours = async () => {
       try {
-        const response = await fetch('/api/public/hours');
-        if (!response.ok) {
-          throw new Error('Failed to fetch hours of operation');
-        }
-        const data: RestaurantHours[] = await response.json();
-        setHours(data);
+        const data = await loadBootstrap();
+        setHours(data.hours);
       } catch (error) {
         console.error('Error fetching hours of operation:', error);
       } finally {
@@ -58,6 +59,11 @@ const Contact: React.FC = () => {
     };
 
     loadHours();
+    return subscribeToChanges((change) => {
+      if (change === null || change.type === 'hours' || change.type === 'hours-override') {
+        loadHours();
+      }
+    });
   }, []);
 
   return (
@@ -128,6 +134,7 @@ const Contact: React.FC = () => {
               <div className="hours-container">
                 <div className="hours-panel">
                   <h3 className="section-title">Hours of Operation</h3>
+                  <OpenStatus />
                   {loadingHours ? (
                     <p className="hours-message">Loading hours...</p>
                   ) : hours.length === 0 ? (
@@ -1,7 +1,11 @@
 import React, { useEffect, useState } from 'react';
 import { Link } from 'react-router-dom';
 import defaultHero from '../images/BarGrill1.png';
-import { RestaurantHours, SiteSettings } from '../types';
+import { RestaurantHours } from '../types';
+import OpenStatus from './OpenStatus';
+import { loadBootstrap } from '../config/bootstrap';
+import { subscribeToChanges } from '../config/events';
+import { imageSrcSet, imageVariantUrl } from '../config/images';
 
 const Home: React.FC = () => {
   const [hours, setHours] = useState<RestaurantHours[]>([]);
@@ -9,35 +13,25 @@ const Home: React.FC = () => {
   const [heroImageUrl, setHeroImageUrl] = useState<string | null>(null);
 
   useEffect(() => {
-    const loadHours = async () => {
+    const loadSiteData = async () => {
       try {
-        const response = await fetch('/api/public/hours');
-        if (!response.ok) {
-          throw new Error('Failed to fetch hours of operation');
-        }
-        const data: RestaurantHours[] = await response.json();
-        setHours(data);
+        const data = await loadBootstrap();
+        setHours(data.hours);
+        setHeroImageUrl(data.settings.heroImageUrl);
       } catch (error) {
-        console.error('Error fetching hours of operation:', error);
+        console.error('Error fetching hours and site settings:', error);
       } finally {
         setLoadingHours(false);
       }
     };
 
-    loadHours();
-    const loadSettings = async () => {
-      try {
-        const response = await fetch('/api/public/settings');
-        if (!response.ok) {
-          throw new Error('Failed to fetch site settings');
-        }
-        const data: SiteSettings = await response.json();
-        setHeroImageUrl(data.heroImageUrl);
-      } catch (error) {
-        console.error('Error fetching site settings:', error);
+    loadSiteData();
+    return subscribeToChanges((change) => {
+      if (change === null || change.type === 'hours' || change.type === 'hours-override'
+          || change.type === 'settings') {
+        loadSiteData();
       }
-    };
-    loadSettings();
+    });
   }, []);
 
   return (
@@ -56,15 +50,19 @@ const Home: React.FC = () => {
       <main>
         <section className="hero-section"
   style={{
-    backgroundImage: `url(${heroImageUrl || defaultHero})`,
-    backgroundSize: 'cover',
-    backgroundPosition: 'center',
-    backgroundRepeat: 'no-repeat',
     minHeight: '60vh',
     display: 'flex',
     alignItems: 'center',
     justifyContent: 'center'
   }}>
+          <img
+            className="hero-image"
+            src={heroImageUrl ? imageVariantUrl(heroImageUrl, 1280) : defaultHero}
+            srcSet={imageSrcSet(heroImageUrl)}
+            sizes="100vw"
+            alt=""
+            aria-hidden="true"
+          />
           <div className="hero-content">
             <h2>Welcome to Mike's Grill</h2>
             <p>Classic American diner since 1958</p>
@@ -100,6 +98,7 @@ const Home: React.FC = () => {
               <div className="hours-container">
                 <div className="hours-panel">
                   <h3 className="section-title">Hours of Operation</h3>
+                  <OpenStatus />
                   {loadingHours ? (
                     <p className="hours-message">Loading hours...</p>
                   ) : hours.length === 0 ? (
@@ -1,28 +1,21 @@
 import React, { useEffect, useRef, useState } from 'react';
-import axios from 'axios';
 import Slider from 'react-slick';
 import 'slick-carousel/slick/slick.css';
 import 'slick-carousel/slick/slick-theme.css';
 import './MenuCarousel.css';
-
-interface MenuItem {
-  id: number;
-  name: string;
-  description: string;
-  price: number;
-  imageUrl: string;
-  category: string;
-}
+import { loadBootstrap } from '../config/bootstrap';
+import { imageSrcSet, imageVariantUrl, placeholderStyle } from '../config/images';
+import { PublicMenuItem } from '../types';
 
 const MenuCarousel: React.FC = () => {
-  const [featuredItems, setFeaturedItems] = useState<MenuItem[]>([]);
+  const [featuredItems, setFeaturedItems] = useState<PublicMenuItem[]>([]);
   const sliderRef = useRef<Slider>(null);
 
   useEffect(() => {
     const fetchFeaturedItems = async () => {
       try {
-        const response = await axios.get('/api/public/menu/featured');
-        setFeaturedItems(response.data);
+        const data = await loadBootstrap();
+        setFeaturedItems(data.featured);
       } catch (error) {
         console.error('Error fetching featured items:', error);
       }
@@ -92,9 +85,13 @@ const MenuCarousel: React.FC = () => {
         >
           {featuredItems.map((item) => (
             <div key={item.id} className="carousel-slide">
-              <div className="carousel-image-wrapper">
+              <div className="carousel-image-wrapper" style={placeholderStyle(item.imagePlaceholder)}>
                 <img 
-                  src={item.imageUrl} 
+                  width={item.imageWidth ?? undefined}
+                  height={item.imageHeight ?? undefined}
+                  src={imageVariantUrl(item.imageUrl, 1280)} 
+                  srcSet={imageSrcSet(item.imageUrl)}
+                  sizes="(max-width: 768px) 100vw, 80vw"
                   alt={item.name}
                   className="carousel-image"
                 />
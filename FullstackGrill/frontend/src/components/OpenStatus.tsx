@@ -0,0 +1,85 @@
+import React, { useEffect, useState } from 'react';
+import { HoursStatus } from '../types';
+import { subscribeToChanges } from '../config/events';
+
+// "Open now" line under the hours list. The backend works the answer out in
+// the restaurant's time zone; this only formats it and asks again once the
+// status is due to change.
+const formatChange = (status: HoursStatus): string => {
+  if (!status.nextChange) {
+    return '';
+  }
+  const next = new Date(status.nextChange);
+  const sameDay =
+    new Intl.DateTimeFormat('en-US', { timeZone: status.timeZone, dateStyle: 'short' }).format(next) ===
+    new Intl.DateTimeFormat('en-US', { timeZone: status.timeZone, dateStyle: 'short' }).format(new Date());
+  const time = new Intl.DateTimeFormat('en-US', {
+    timeZone: status.timeZone,
+    hour: 'numeric',
+    minute: '2-digit'
+  }).format(next);
+  if (sameDay) {
+    return ` · ${status.open ? 'Closes' : 'Opens'} at ${time}`;
+  }
+  const day = new Intl.DateTimeFormat('en-US', { timeZone: status.timeZone, weekday: 'long' }).format(next);
+  return ` · ${status.open ? 'Closes' : 'Opens'} ${day} at ${time}`;
+};
+
+const OpenStatus: React.FC = () => {
+  const [status, setStatus] = useState<HoursStatus | null>(null);
+
+  useEffect(() => {
+    let timer: ReturnType<typeof setTimeout> | undefined;
+    let cancelled = false;
+
+    const load = async () => {
+      try {
+        const response = await fetch('/api/public/hours/status');
+        if (!response.ok) {
+          throw new Error('Failed to fetch hours status');
+        }
+        const data = (await response.json()) as HoursStatus;
+        if (cancelled) {
+          return;
+        }
+        setStatus(data);
+        if (timer) {
+          clearTimeout(timer);
+        }
+        if (data.nextChange) {
+          const delay = new Date(data.nextChange).getTime() - Date.now() + 1000;
+          // Timers longer than ~24 days overflow; the page won't be open that long
+          timer = setTimeout(load, Math.min(Math.max(delay, 1000), 24 * 60 * 60 * 1000));
+        }
+      } catch (error) {
+        console.error('Error fetching hours status:', error);
+      }
+    };
+
+    load();
+    const unsubscribe = subscribeToChanges((change) => {
+      if (change === null || change.type === 'hours' || change.type === 'hours-override') {
+        load();
+      }
+    });
+    return () => {
+      cancelled = true;
+      if (timer) {
+        clearTimeout(timer);
+      }
+      unsubscribe();
+    };
+  }, []);
+
+  if (!status) {
+    return null;
+  }
+  return (
+    <p className={`open-status ${status.open ? 'open-status-open' : 'open-status-closed'}`}>
+      <strong>{status.open ? 'Open now' : 'Closed now'}</strong>
+      {formatChange(status)}
+    </p>
+  );
+};
+
+export default OpenStatus;
@@ -1,11 +1,16 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { Link } from 'react-router-dom';
 import axios from 'axios';
 import MenuCarousel from './MenuCarousel';
+import { loadBootstrap } from '../config/bootstrap';
+import { imageSrcSet, imageVariantUrl, placeholderStyle } from '../config/images';
+import { subscribeToChanges } from '../config/events';
+import { applyChanges, fetchMenuChanges } from '../config/menuChanges';
 
 interface MenuCategory {
   id: number;
   name: string;
+  sortOrder?: number;
 }
 
 interface MenuItem {
@@ -15,6 +20,9 @@ interface MenuItem {
   price: number;
   imageUrl: string;
   category: MenuCategory;
+  imagePlaceholder: string | null;
+  imageWidth: number | null;
+  imageHeight: number | null;
 }
 
 const PublicMenu: React.FC = () => {
@@ -23,12 +31,49 @@ const PublicMenu: React.FC = () => {
   const [selectedCategory, setSelectedCategory] = useState<number | 'All'>('All');
   const [loading, setLoading] = useState<boolean>(true);
   const [error, setError] = useState<string>('');
+  const [searchQuery, setSearchQuery] = useState<string>('');
+  const [searchResults, setSearchResults] = useState<MenuItem[] | null>(null);
+  // Version of the last /changes response; null until the first live update
+  const menuCursor = useRef<string | null>(null);
 
   useEffect(() => {
     fetchMenuItems();
     fetchCategories();
   }, []);
 
+  // Pick up menu edits while the page is open
+  useEffect(() => {
+    return subscribeToChanges((change) => {
+      if (change === null || change.type.startsWith('menu')) {
+        refreshMenuItems();
+      }
+    });
+  }, []);
+
+  // Search as the customer types, once they pause; results come back ranked
+  useEffect(() => {
+    const query = searchQuery.trim();
+    if (!query) {
+      setSearchResults(null);
+      return;
+    }
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        const response = await axios.get('/api/public/menu/search', { params: { q: query } });
+        if (!cancelled) {
+          setSearchResults(response.data);
+        }
+      } catch (error) {
+        console.error('Error searching menu items:', error);
+      }
+    }, 150);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [searchQuery]);
+
   const fetchMenuItems = async () => {
     try {
       setLoading(true);
@@ -42,10 +87,34 @@ const PublicMenu: React.FC = () => {
     }
   };
 
+  // The first refresh gets the whole menu and a version; after that only
+  // the items and categories that changed come down
+  const refreshMenuItems = async () => {
+    try {
+      const data = await fetchMenuChanges<MenuItem, MenuCategory>(menuCursor.current);
+      menuCursor.current = data.version;
+      if (data.full) {
+        setMenuItems(data.items ?? []);
+        setCategories(data.categories ?? []);
+        return;
+      }
+      const changes = data.changes ?? [];
+      if (changes.length === 0) {
+        return;
+      }
+      setMenuItems((items) => applyChanges(items, changes, 'menu-item'));
+      setCategories((current) =>
+        applyChanges(current, changes, 'menu-category').sort((a, b) => (a.sortOrder ?? 0) - (b.sortOrder ?? 0))
+      );
+    } catch (error) {
+      console.error('Error refreshing menu items:', error);
+    }
+  };
+
   const fetchCategories = async () => {
     try {
-      const response = await axios.get('/api/public/categories');
-      setCategories(response.data);
+      const data = await loadBootstrap();
+      setCategories(data.categories);
     } catch (error) {
       console.error('Error fetching categories:', error);
     }
@@ -90,6 +159,8 @@ const PublicMenu: React.FC = () => {
   return a.id - b.id;
 });
 
+  const displayedItems = searchResults ?? sortedItems;
+
   return (
     <>
       <header className="header">
@@ -115,6 +186,18 @@ const PublicMenu: React.FC = () => {
 
         <section className="menu-section">
           <div className="container">
+            {/* Search */}
+            <div className="menu-search">
+              <input
+                type="search"
+                className="menu-search-input"
+                placeholder="Search the menu..."
+                aria-label="Search the menu"
+                value={searchQuery}
+                onChange={e => setSearchQuery(e.target.value)}
+              />
+            </div>
+
             {/* Category Filter */}
             <div className="category-filter">
               <button
@@ -152,12 +235,20 @@ const PublicMenu: React.FC = () => {
             {/* Menu Items Grid */}
             {!loading && !error && (
               <div className="menu-grid">
-                {sortedItems.map(item => (
+                {displayedItems.map(item => (
   <div key={item.id} className="menu-item-card">
 
                     {item.imageUrl && (
-                      <div className="menu-item-image">
-                        <img src={item.imageUrl} alt={item.name} />
+                      <div className="menu-item-image" style={placeholderStyle(item.imagePlaceholder)}>
+                        <img
+                          width={item.imageWidth ?? undefined}
+                          height={item.imageHeight ?? undefined}
+                          src={imageVariantUrl(item.imageUrl, 640)}
+                          srcSet={imageSrcSet(item.imageUrl)}
+                          sizes="(max-width: 768px) 100vw, 400px"
+                          alt={item.name}
+                          loading="lazy"
+                        />
                       </div>
                     )}
                     <div className="menu-item-content">
@@ -182,9 +273,9 @@ const PublicMenu: React.FC = () => {
 
 
             {/* No Items Message */}
-            {!loading && !error && filteredItems.length === 0 && (
+            {!loading && !error && displayedItems.length === 0 && (
               <div className="no-items">
-                <p>No menu items available in this category.</p>
+                <p>{searchResults ? 'No menu items match your search.' : 'No menu items available in this category.'}</p>
               </div>
             )}
           </div>
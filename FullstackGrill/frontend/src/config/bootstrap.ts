@@ -0,0 +1,25 @@
+import axios from 'axios';
+import { PublicBootstrap } from '../types';
+
+// Hours, settings, categories and featured items arrive in one response.
+// Components that mount together (Home, PublicMenu, MenuCarousel) share the
+// request in flight, so they don't each open their own connection. Once it
+// settles the next mount asks again; no-cache makes the browser revalidate
+// with the ETag, so an unchanged bootstrap costs a 304 and edits made since
+// show up after client-side navigation.
+let pending: Promise<PublicBootstrap> | null = null;
+
+export const loadBootstrap = (): Promise<PublicBootstrap> => {
+  if (!pending) {
+    const request = axios
+      .get<PublicBootstrap>('/api/public/bootstrap', { headers: { 'Cache-Control': 'no-cache' } })
+      .then((response) => response.data)
+      .finally(() => {
+        if (pending === request) {
+          pending = null;
+        }
+      });
+    pending = request;
+  }
+  return pending;
+};
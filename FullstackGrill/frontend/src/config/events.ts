@@ -0,0 +1,38 @@
+// One EventSource per page for /api/public/events, shared by every component
+// that subscribes. The browser reconnects on its own and sends Last-Event-ID,
+// so the server replays anything missed while disconnected.
+
+export interface ContentChange {
+  type: 'menu-item' | 'menu-category' | 'hours' | 'hours-override' | 'settings' | 'menu';
+  id: number | null;
+  version: number;
+}
+
+// Called with null when the server could not replay what was missed and
+// everything should be refetched.
+export type ChangeListener = (change: ContentChange | null) => void;
+
+const listeners = new Set<ChangeListener>();
+let source: EventSource | null = null;
+
+const notify = (change: ContentChange | null) => {
+  listeners.forEach((listener) => listener(change));
+};
+
+export const subscribeToChanges = (listener: ChangeListener): (() => void) => {
+  listeners.add(listener);
+  if (!source && typeof EventSource !== 'undefined') {
+    source = new EventSource('/api/public/events');
+    source.addEventListener('change', (event) => {
+      notify(JSON.parse((event as MessageEvent).data) as ContentChange);
+    });
+    source.addEventListener('reset', () => notify(null));
+  }
+  return () => {
+    listeners.delete(listener);
+    if (listeners.size === 0 && source) {
+      source.close();
+      source = null;
+    }
+  };
+};
@@ -0,0 +1,43 @@
+import { CSSProperties } from 'react';
+
+// Uploaded JPEG/PNG files can be fetched resized from the backend, so the
+// browser picks a width from srcset instead of downloading the original.
+// Anything else (external URLs, bundled images) is used as-is.
+const UPLOAD_PREFIX = '/uploads/';
+const VARIANT_WIDTHS = [320, 640, 960, 1280, 1920];
+
+const isResizable = (url: string): boolean => {
+  if (!url || !url.startsWith(UPLOAD_PREFIX)) {
+    return false;
+  }
+  const filename = url.slice(UPLOAD_PREFIX.length);
+  return !filename.includes('/') && /\.(jpe?g|png)$/i.test(filename);
+};
+
+export const imageVariantUrl = (url: string, width: number): string => {
+  if (!isResizable(url)) {
+    return url;
+  }
+  const filename = encodeURIComponent(url.slice(UPLOAD_PREFIX.length));
+  return `/api/public/images/${filename}?w=${width}`;
+};
+
+export const imageSrcSet = (url: string | null | undefined): string | undefined => {
+  if (!url || !isResizable(url)) {
+    return undefined;
+  }
+  return VARIANT_WIDTHS.map((width) => `${imageVariantUrl(url, width)} ${width}w`).join(', ');
+};
+
+// The backend stores a 16px wide JPEG of each uploaded menu image; stretched
+// behind the <img> it shows the rough picture until the real one loads.
+export const placeholderStyle = (placeholder: string | null | undefined): CSSProperties | undefined => {
+  if (!placeholder) {
+    return undefined;
+  }
+  return {
+    backgroundImage: `url(${placeholder})`,
+    backgroundSize: 'cover',
+    backgroundPosition: 'center',
+  };
+};
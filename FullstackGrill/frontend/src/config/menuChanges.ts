@@ -0,0 +1,47 @@
+import axios from 'axios';
+
+// Keeps a local copy of the menu current through /api/public/menu/changes:
+// send the version of the last response and get back only what changed, or
+// the whole menu (full: true) when the server can no longer tell.
+
+export interface MenuChange<T> {
+  version: number;
+  type: 'menu-item' | 'menu-category';
+  id: number;
+  op: 'created' | 'updated' | 'deleted';
+  value: T | null;
+}
+
+export interface MenuChanges<I, C> {
+  version: string;
+  full: boolean;
+  changes: MenuChange<I | C>[] | null;
+  items: I[] | null;
+  categories: C[] | null;
+}
+
+export const fetchMenuChanges = async <I, C>(since: string | null): Promise<MenuChanges<I, C>> => {
+  const response = await axios.get<MenuChanges<I, C>>('/api/public/menu/changes', {
+    params: since ? { since } : {}
+  });
+  return response.data;
+};
+
+// Created and updated are both upserts by id; deleted drops the entry
+export const applyChanges = <T extends { id: number }>(
+  list: T[],
+  changes: MenuChange<unknown>[],
+  type: MenuChange<unknown>['type']
+): T[] => {
+  const byId = new Map(list.map((entry) => [entry.id, entry]));
+  changes
+    .filter((change) => change.type === type)
+    .forEach((change) => {
+      if (change.op === 'deleted' || change.value === null) {
+        byId.delete(change.id);
+      } else {
+        byId.set(change.id, change.value as T);
+      }
+    });
+  return Array.from(byId.values());
+};
@@ -7,6 +7,21 @@ export interface RestaurantHours {
   sortOrder?: number;
 }
 
+export interface HoursStatus {
+  open: boolean;
+  nextChange: string | null;
+  timeZone: string;
+}
+
+export interface HoursOverride {
+  id?: number;
+  date: string;
+  openTime: string;
+  closeTime: string;
+  closed: boolean;
+  note: string | null;
+}
+
 export interface SiteSettings {
   id?: number;
   heroImageUrl: string | null;
@@ -25,3 +40,38 @@ export interface ContactMessage {
   message: string;
   createdAt: string;
 }
+
+export interface PublicMenuItem {
+  id: number;
+  name: string;
+  description: string;
+  price: number;
+  imageUrl: string;
+  category: MenuCategory | null;
+  featured: boolean;
+  imagePlaceholder: string | null;
+  imageWidth: number | null;
+  imageHeight: number | null;
+}
+
+export interface PublicBootstrap {
+  hours: RestaurantHours[];
+  settings: SiteSettings;
+  categories: MenuCategory[];
+  featured: PublicMenuItem[];
+  menuVersion: number;
+}
+
+export interface ContactMessageSummary {
+  id: number;
+  name: string;
+  email: string;
+  snippet: string;
+  truncated: boolean;
+  createdAt: string;
+}
+
+export interface ContactMessagePage {
+  items: ContactMessageSummary[];
+  nextCursor: string | null;
+}